@@ -8,6 +8,9 @@ import org.springframework.validation.annotation.Validated;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Configuration properties for the MyFinances application
@@ -26,6 +29,15 @@ public class ApplicationProperties {
 
     private Upload upload = new Upload();
     private Security security = new Security();
+    private Backfill backfill = new Backfill();
+    private Fx fx = new Fx();
+    private Live live = new Live();
+    private PriceRefresh priceRefresh = new PriceRefresh();
+    private YahooFinance yahooFinance = new YahooFinance();
+    private Projection projection = new Projection();
+    private Risk risk = new Risk();
+    private CategoryCache categoryCache = new CategoryCache();
+    private PortfolioCache portfolioCache = new PortfolioCache();
 
     @Data
     public static class Upload {
@@ -33,20 +45,238 @@ public class ApplicationProperties {
         private String dir = "./uploads";
     }
 
+    /**
+     * Historical price backfill from local CSV archives, run once at startup when enabled
+     */
+    @Data
+    public static class Backfill {
+        private boolean enabled = false;
+
+        /** CSV files or directories of *.csv files */
+        private List<String> files = new ArrayList<>();
+    }
+
+    /**
+     * Exchange rates used to value accounts and investments in the base currency
+     */
+    @Data
+    public static class Fx {
+        @NotBlank
+        private String baseCurrency = "EUR";
+
+        private boolean refreshEnabled = true;
+
+        @NotNull
+        private Duration refreshInterval = Duration.ofHours(1);
+    }
+
+    /**
+     * Quote API access. Besides calling the live API, quotes can be recorded to disk
+     * and replayed by an embedded local server, for offline load testing.
+     */
+    @Data
+    public static class YahooFinance {
+        private String apiKey = "602b2840f8mshbbcfa21b7c1e04ep1f8947jsn610998c71e47";
+
+        @NotBlank
+        private String apiHost = "apidojo-yahoo-finance-v1.p.rapidapi.com";
+
+        @NotNull
+        private QuoteMode mode = QuoteMode.LIVE;
+
+        /** Where recorded quotes are written to and replayed from, one file per symbol */
+        @NotBlank
+        private String recordingsDir = "./quote-recordings";
+
+        private Replay replay = new Replay();
+
+        public enum QuoteMode {
+            LIVE, RECORD, REPLAY
+        }
+
+        @Data
+        public static class Replay {
+            /** Local port of the replay server, 0 for any free port */
+            private int port = 0;
+
+            @NotNull
+            private Duration latency = Duration.ZERO;
+
+            /** Random extra latency, up to this much, added to each response */
+            @NotNull
+            private Duration latencyJitter = Duration.ZERO;
+
+            /** Fraction of requests answered with {@code error-status} */
+            private double errorRate = 0;
+
+            private int errorStatus = 503;
+
+            /** Answer symbols without a recording with generated quotes instead of leaving them out */
+            private boolean synthesizeMissing = false;
+        }
+    }
+
+    /**
+     * Monte Carlo projection of the portfolio value on the portfolio page
+     */
+    @Data
+    public static class Projection {
+        @Positive
+        private int paths = 10_000;
+
+        @Positive
+        private int years = 30;
+
+        /** Price history the monthly returns are drawn from */
+        @Positive
+        private int historyYears = 10;
+
+        /** Fewer months of history than this and no projection is shown */
+        @Positive
+        private int minHistoryMonths = 12;
+
+        /** Simulation threads, 0 for one per processor */
+        private int parallelism = 0;
+    }
+
+    /**
+     * Risk metrics of the portfolio, from the daily price history
+     */
+    @Data
+    public static class Risk {
+        /** Days of price history looked back on */
+        @Positive
+        private int historyDays = 365;
+
+        /** Daily returns a product needs to be included */
+        @Positive
+        private int minObservations = 60;
+    }
+
+    /**
+     * Per-user transaction category trees kept in memory
+     */
+    @Data
+    public static class CategoryCache {
+        /** Users whose trees are kept, the least recently used dropped first */
+        @Positive
+        private int maxUsers = 1_000;
+    }
+
+    /**
+     * Per-user portfolio performance, projection and risk results kept in memory
+     */
+    @Data
+    public static class PortfolioCache {
+        /** Users whose results are kept, the least recently read dropped first */
+        @Positive
+        private int maxUsers = 1_000;
+    }
+
+    /**
+     * Background price refresh following each exchange's trading hours
+     */
+    @Data
+    public static class PriceRefresh {
+        private boolean enabled = true;
+
+        /** Trading hours and holidays per exchange */
+        @NotBlank
+        private String calendar = "classpath:market-calendar.json";
+
+        /** How often due products are looked for */
+        @NotNull
+        private Duration tick = Duration.ofMinutes(1);
+
+        /** Maximum price age while the product's market is open */
+        @NotNull
+        private Duration openInterval = Duration.ofMinutes(5);
+
+        /** Wait after the close before fetching the closing price */
+        @NotNull
+        private Duration closeDelay = Duration.ofMinutes(20);
+
+        /** Maximum price age for products on exchanges missing from the calendar */
+        @NotNull
+        private Duration fallbackInterval = Duration.ofHours(4);
+
+        /** Wait after a refresh found no quote, doubled for each further one in a row */
+        @NotNull
+        private Duration retryBackoff = Duration.ofMinutes(15);
+
+        /** Longest wait between refreshes of a product without quotes */
+        @NotNull
+        private Duration maxRetryBackoff = Duration.ofHours(24);
+
+        @Positive
+        private int maxProductsPerRun = 200;
+
+        /** Threads draining the shared refresh queue */
+        @Positive
+        private int workers = 2;
+
+        /** Products per quote API call */
+        @Positive
+        private int batchSize = 50;
+    }
+
+    /**
+     * Server-Sent Events channel pushing price ticks and balance updates to open pages
+     */
+    @Data
+    public static class Live {
+        /** Frames queued per connection before it is dropped as a slow consumer */
+        @Positive
+        private int bufferSize = 32;
+
+        @Positive
+        private int maxConnectionsPerUser = 8;
+
+        @Positive
+        private int senderThreads = 2;
+
+        /** Threads rendering the pushed fragments, apart from the senders */
+        @Positive
+        private int renderThreads = 2;
+
+        /** Tasks queued per pool (sends, renders) before new ones are dropped */
+        @Positive
+        private int queueCapacity = 1_000;
+
+        /** A send blocked longer than this gives its connection up */
+        @NotNull
+        private Duration sendTimeout = Duration.ofSeconds(10);
+
+        @NotNull
+        private Duration connectionTimeout = Duration.ofMinutes(30);
+
+        @NotNull
+        private Duration heartbeatInterval = Duration.ofSeconds(25);
+    }
+
     @Data
     @Validated
     public static class Security {
         private String rememberMeKey;
         private Jwt jwt = new Jwt();
 
+        /** Login emails granted ROLE_ADMIN, the only role allowed to read /actuator/metrics */
+        private List<String> adminEmails = new ArrayList<>();
+
         @Data
         @Validated
         public static class Jwt {
             private String secret;
             
+            /** Refresh token lifetime */
             @NotNull
             @Positive
             private Long expiration = 86400000L; // 24 hours in milliseconds
+
+            /** Access token lifetime; access tokens are verified without a database lookup */
+            @NotNull
+            @Positive
+            private Long accessExpiration = 900000L; // 15 minutes in milliseconds
         }
     }
 
@@ -0,0 +1,97 @@
+package com.example.myfinances.config;
+
+import com.example.myfinances.security.SecurityUtils;
+import com.example.myfinances.service.PriceDataVersion;
+import com.example.myfinances.service.UserDataVersion;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Conditional GET for the pages rendered from a user's own data: the dashboard and
+ * the account, transaction and portfolio lists.
+ *
+ * Their weak ETag is derived from the {@link UserDataVersion}, the
+ * {@link PriceDataVersion}, the day, the session (whose CSRF token the forms carry)
+ * and this application instance. When the browser's copy is current the filter
+ * answers {@code 304 Not Modified} without running the controller. Pages with a
+ * pending flash message are always rendered and not kept by the browser.
+ *
+ * The same URL answers htmx requests with only the swapped fragment, so the ETag
+ * also tells fragments from full pages and responses vary on {@code HX-Request}.
+ *
+ * The data version is also published as the {@value #DATA_VERSION_ATTRIBUTE}
+ * request attribute, the key for caching fragments rendered from the same data.
+ */
+@Component
+@Order(2)
+@RequiredArgsConstructor
+public class ConditionalGetFilter extends OncePerRequestFilter {
+
+    public static final String DATA_VERSION_ATTRIBUTE = "dataVersion";
+
+    static final Set<String> PAGES = Set.of("/dashboard", "/accounts", "/transactions", "/investments");
+
+    private static final String FLASH_MAPS = SessionFlashMapManager.class.getName() + ".FLASH_MAPS";
+
+    /** Versions restart at zero, so pages from a previous run must not match */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final UserDataVersion userDataVersion;
+    private final PriceDataVersion priceDataVersion;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"GET".equals(request.getMethod()) || !PAGES.contains(path);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Optional<Long> userId = SecurityUtils.getCurrentUserId();
+        HttpSession session = request.getSession(false);
+        if (userId.isEmpty() || session == null || hasPendingFlash(session)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String dataVersion = userDataVersion.current(userId.get()) + "." + priceDataVersion.current();
+        request.setAttribute(DATA_VERSION_ATTRIBUTE, dataVersion);
+
+        String representation = HtmxRequests.isPartial(request) ? "fragment" : "page";
+        String tag = String.join(":", instanceId, session.getId(), dataVersion, LocalDate.now().toString(), representation);
+        String etag = "W/\"" + DigestUtils.md5DigestAsHex(tag.getBytes(StandardCharsets.UTF_8)) + "\"";
+
+        // Kept by the browser, but revalidated on every navigation
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        response.addHeader(HttpHeaders.VARY, HtmxRequests.HX_REQUEST);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static boolean hasPendingFlash(HttpSession session) {
+        Object flashMaps = session.getAttribute(FLASH_MAPS);
+        return flashMaps instanceof Collection<?> maps && !maps.isEmpty();
+    }
+}
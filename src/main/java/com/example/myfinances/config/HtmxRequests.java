@@ -0,0 +1,27 @@
+package com.example.myfinances.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Recognises htmx requests that swap part of a page.
+ *
+ * htmx marks its requests with {@code HX-Request: true}. When restoring a page
+ * missing from its history cache it also sends {@code HX-History-Restore-Request},
+ * and then needs the full page, like a normal navigation.
+ */
+public final class HtmxRequests {
+
+    public static final String HX_REQUEST = "HX-Request";
+    public static final String HX_HISTORY_RESTORE_REQUEST = "HX-History-Restore-Request";
+
+    private HtmxRequests() {
+    }
+
+    /**
+     * Whether only the swapped fragment should be rendered
+     */
+    public static boolean isPartial(HttpServletRequest request) {
+        return "true".equals(request.getHeader(HX_REQUEST))
+                && !"true".equals(request.getHeader(HX_HISTORY_RESTORE_REQUEST));
+    }
+}
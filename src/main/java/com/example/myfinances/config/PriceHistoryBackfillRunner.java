@@ -0,0 +1,82 @@
+package com.example.myfinances.config;
+
+import com.example.myfinances.service.PriceHistoryBackfillService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Runs the historical price backfill at startup, e.g.
+ * <pre>
+ * java -jar my-finances.jar --app.backfill.enabled=true --app.backfill.files=/data/prices
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.backfill", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class PriceHistoryBackfillRunner implements ApplicationRunner {
+
+    private final ApplicationProperties applicationProperties;
+    private final PriceHistoryBackfillService backfillService;
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        List<Path> files = resolveFiles(applicationProperties.getBackfill().getFiles());
+        if (files.isEmpty()) {
+            log.warn("Price backfill enabled but no CSV files found in {}", applicationProperties.getBackfill().getFiles());
+            return;
+        }
+
+        PriceHistoryBackfillService.SymbolTable symbols = backfillService.loadSymbols();
+        log.info("Price backfill: {} symbols in catalogue, {} file(s) to load", symbols.size(), files.size());
+
+        PriceHistoryBackfillService.Result total = new PriceHistoryBackfillService.Result(0, 0, 0);
+        long started = System.nanoTime();
+
+        for (Path file : files) {
+            long fileStarted = System.nanoTime();
+            PriceHistoryBackfillService.Result result = backfillService.backfill(file, symbols);
+            long millis = Math.max(1, (System.nanoTime() - fileStarted) / 1_000_000);
+            log.info("Price backfill: {} - {} rows loaded, {} with unknown symbol, {} malformed in {} ms ({} rows/s)",
+                    file, result.getRows(), result.getUnknownSymbol(), result.getMalformed(), millis,
+                    result.getRows() * 1000 / millis);
+            total = total.plus(result);
+        }
+
+        log.info("Price backfill finished: {} rows loaded from {} file(s) in {} s",
+                total.getRows(), files.size(), (System.nanoTime() - started) / 1_000_000_000);
+    }
+
+    private static List<Path> resolveFiles(List<String> locations) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String location : locations) {
+            if (location == null || location.isBlank()) {
+                continue;
+            }
+            Path path = Path.of(location.trim());
+            if (Files.isDirectory(path)) {
+                try (Stream<Path> entries = Files.list(path)) {
+                    entries.filter(p -> p.getFileName().toString().toLowerCase().endsWith(".csv"))
+                            .sorted()
+                            .forEach(files::add);
+                }
+            } else if (Files.isRegularFile(path)) {
+                files.add(path);
+            } else {
+                log.warn("Price backfill: {} does not exist, skipping", path);
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.myfinances.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the periodic background jobs (exchange rate refresh, live update heartbeat)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
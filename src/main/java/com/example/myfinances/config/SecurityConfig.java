@@ -1,9 +1,13 @@
 package com.example.myfinances.config;
 
 import com.example.myfinances.security.CustomUserDetailsService;
+import com.example.myfinances.security.JwtAuthenticationFilter;
+import com.example.myfinances.security.JwtTokenService;
+import com.example.myfinances.security.PrincipalAuthenticationProvider;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
@@ -15,7 +19,9 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.annotation.web.configurers.HeadersConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.authentication.rememberme.JdbcTokenRepositoryImpl;
 import org.springframework.security.web.authentication.rememberme.PersistentTokenRepository;
 import org.springframework.security.core.session.SessionRegistry;
@@ -31,13 +37,41 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
     private final DataSource dataSource;
+    private final JwtTokenService jwtTokenService;
+    private final ApplicationProperties applicationProperties;
+
+    /**
+     * Stateless chain for the API (future Android app): no session, no CSRF, every
+     * request authenticated by its bearer access token. Any node can serve any request.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+        http
+                .securityMatcher("/api/**")
+                .csrf(AbstractHttpConfigurer::disable)
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .authorizeHttpRequests(authz -> authz
+                        .requestMatchers("/api/auth/login", "/api/auth/refresh").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .addFilterBefore(new JwtAuthenticationFilter(jwtTokenService), UsernamePasswordAuthenticationFilter.class)
+                .exceptionHandling(exceptions -> exceptions
+                        .authenticationEntryPoint((request, response, authException) -> {
+                            response.setStatus(401);
+                            response.setContentType("application/json");
+                            response.getWriter().write("{\"error\":\"Authentication required\"}");
+                        })
+                );
+
+        return http.build();
+    }
 
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf
                         .csrfTokenRepository(org.springframework.security.web.csrf.CookieCsrfTokenRepository.withHttpOnlyFalse())
-                        .ignoringRequestMatchers("/api/**") // Only disable CSRF for API endpoints
                 )
                 .authorizeHttpRequests(authz -> authz
                         // Public resources and pages
@@ -45,9 +79,9 @@ public class SecurityConfig {
                         .requestMatchers("/error", "/favicon.ico").permitAll()
                         // Static resources
                         .requestMatchers("/webjars/**", "/css/**", "/js/**", "/images/**", "/static/**").permitAll()
+                        // Metrics reveal traffic and internals of every user: administrators only
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
                         // H2 Console and security test endpoints are handled by DevSecurityConfig in dev profile
-                        // API endpoints (future Android app)
-                        .requestMatchers("/api/auth/login", "/api/auth/register").permitAll()
                         // All other requests require authentication
                         .anyRequest().authenticated()
                 )
@@ -118,7 +152,8 @@ public class SecurityConfig {
 
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
-        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
+        DaoAuthenticationProvider authProvider = new PrincipalAuthenticationProvider(
+                applicationProperties.getSecurity().getAdminEmails());
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
@@ -1,37 +1,67 @@
 package com.example.myfinances.config;
 
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.ResourceUrlEncodingFilter;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 import org.springframework.http.MediaType;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    /**
+     * Static resources are served under content-hashed URLs, so a browser may keep
+     * them for a year without asking again: changed content means a new URL.
+     */
+    static final CacheControl STATIC_CACHE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable();
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Static resources mapping - order matters, register first for priority
-        registry.addResourceHandler("/css/**")
-                .addResourceLocations("classpath:/static/css/")
-                .setCachePeriod(0); // Disable caching for development
+        versioned(registry.addResourceHandler("/css/**")
+                .addResourceLocations("classpath:/static/css/"));
         
-        registry.addResourceHandler("/js/**")
-                .addResourceLocations("classpath:/static/js/")
-                .setCachePeriod(0);
+        versioned(registry.addResourceHandler("/js/**")
+                .addResourceLocations("classpath:/static/js/"));
         
-        registry.addResourceHandler("/images/**")
-                .addResourceLocations("classpath:/static/images/")
-                .setCachePeriod(0);
+        versioned(registry.addResourceHandler("/images/**")
+                .addResourceLocations("classpath:/static/images/"));
         
         // Default static resources
-        registry.addResourceHandler("/static/**")
-                .addResourceLocations("classpath:/static/")
-                .setCachePeriod(0);
+        versioned(registry.addResourceHandler("/static/**")
+                .addResourceLocations("classpath:/static/"));
         
         // WebJars resources
-        registry.addResourceHandler("/webjars/**")
-                .addResourceLocations("classpath:/META-INF/resources/webjars/");
+        versioned(registry.addResourceHandler("/webjars/**")
+                .addResourceLocations("classpath:/META-INF/resources/webjars/"));
+    }
+
+    /**
+     * Content-hashed URLs (app.min.css becomes app.min-&lt;md5&gt;.css), served from the
+     * precompressed .br or .gz sibling the build produced when the browser accepts it
+     */
+    private static void versioned(ResourceHandlerRegistration registration) {
+        registration.setCacheControl(STATIC_CACHE)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+
+    /**
+     * Rewrites resource links rendered by Thymeleaf ({@code @{/css/app.min.css}}) to their
+     * content-hashed URLs
+     */
+    @Bean
+    public ResourceUrlEncodingFilter resourceUrlEncodingFilter() {
+        return new ResourceUrlEncodingFilter();
     }
 
     @Override
@@ -45,4 +75,4 @@ public class WebConfig implements WebMvcConfigurer {
                 .mediaType("js", MediaType.valueOf("application/javascript"))
                 .mediaType("json", MediaType.APPLICATION_JSON);
     }
-}
\ No newline at end of file
+}
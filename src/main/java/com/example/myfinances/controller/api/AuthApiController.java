@@ -0,0 +1,89 @@
+package com.example.myfinances.controller.api;
+
+import com.example.myfinances.model.User;
+import com.example.myfinances.security.SecurityUtils;
+import com.example.myfinances.security.UserPrincipal;
+import com.example.myfinances.service.RefreshTokenService;
+import com.example.myfinances.service.UserService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Token endpoints of the stateless API: log in with email and password, exchange a
+ * refresh token for a new pair, and read the authenticated user. A refresh token can
+ * be exchanged once; the exchange rotates the pair.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+@Slf4j
+public class AuthApiController {
+
+    private final AuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+    private final UserService userService;
+
+    @PostMapping("/login")
+    public ResponseEntity<?> login(@Valid @RequestBody LoginRequest request) {
+        try {
+            Authentication authentication = authenticationManager.authenticate(
+                    UsernamePasswordAuthenticationToken.unauthenticated(request.getEmail(), request.getPassword()));
+            UserPrincipal principal = SecurityUtils.getCurrentPrincipal(authentication).orElseThrow();
+            return ResponseEntity.ok(refreshTokenService.issueTokens(principal));
+        } catch (AuthenticationException e) {
+            log.debug("API login failed for {}: {}", request.getEmail(), e.getMessage());
+            return unauthorized("Invalid credentials");
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@Valid @RequestBody RefreshRequest request) {
+        Optional<User> user = refreshTokenService.redeem(request.getRefreshToken())
+                .flatMap(userService::findById)
+                .filter(User::isEnabled);
+        if (user.isEmpty()) {
+            return unauthorized("Invalid refresh token");
+        }
+        return ResponseEntity.ok(refreshTokenService.issueTokens(UserPrincipal.from(user.get())));
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<?> me(Authentication authentication) {
+        return SecurityUtils.getCurrentPrincipal(authentication)
+                .<ResponseEntity<?>>map(principal -> ResponseEntity.ok(Map.of(
+                        "id", principal.id(), "email", principal.email(), "name", principal.name())))
+                .orElseGet(() -> unauthorized("Authentication required"));
+    }
+
+    private static ResponseEntity<Map<String, String>> unauthorized(String error) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", error));
+    }
+
+    @Data
+    public static class LoginRequest {
+        @NotBlank
+        private String email;
+
+        @NotBlank
+        private String password;
+    }
+
+    @Data
+    public static class RefreshRequest {
+        @NotBlank
+        private String refreshToken;
+    }
+}
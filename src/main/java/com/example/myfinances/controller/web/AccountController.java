@@ -7,6 +7,7 @@ import com.example.myfinances.model.User;
 import com.example.myfinances.security.SecurityUtils;
 import com.example.myfinances.service.AccountService;
 import com.example.myfinances.service.AccountCategoryService;
+import com.example.myfinances.service.FxRates;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.DecimalMin;
@@ -52,7 +53,7 @@ public class AccountController {
             accounts = accountService.findActiveAccountsByUser(user);
         }
         
-        BigDecimal totalBalance = accountService.getTotalBalance(user);
+        FxRates.BaseTotal totalBalance = accountService.getTotalBalance(user);
         
         // Get balances by category (only active accounts)
         BigDecimal checkingBalance = accountService.getTotalBalanceByCategory(user, "Contas Bancárias");
@@ -75,7 +76,8 @@ public class AccountController {
         boolean hasInvestmentAccounts = accounts.stream().anyMatch(account -> "Investimentos".equals(account.getCategory()));
         
         model.addAttribute("accounts", accounts);
-        model.addAttribute("totalBalance", totalBalance != null ? totalBalance : BigDecimal.ZERO);
+        model.addAttribute("totalBalance", totalBalance.total());
+        model.addAttribute("unconvertedCurrencies", totalBalance.unconverted());
         model.addAttribute("checkingBalance", checkingBalance != null ? checkingBalance : BigDecimal.ZERO);
         model.addAttribute("savingsBalance", savingsBalance != null ? savingsBalance : BigDecimal.ZERO);
         model.addAttribute("creditBalance", creditBalance != null ? creditBalance : BigDecimal.ZERO);
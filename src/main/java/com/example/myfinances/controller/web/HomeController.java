@@ -5,6 +5,7 @@ import com.example.myfinances.model.Transaction;
 import com.example.myfinances.model.User;
 import com.example.myfinances.security.SecurityUtils;
 import com.example.myfinances.service.AccountService;
+import com.example.myfinances.service.FxRates;
 import com.example.myfinances.service.TransactionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -43,7 +44,7 @@ public class HomeController {
 
     private void populateDashboardData(User user, Model model) {
         List<Account> accounts = accountService.findActiveAccountsByUser(user);
-        BigDecimal totalBalance = accountService.getTotalBalance(user);
+        FxRates.BaseTotal totalBalance = accountService.getTotalBalance(user);
         
         LocalDate currentMonth = LocalDate.now();
         LocalDate previousMonth = currentMonth.minusMonths(1);
@@ -67,7 +68,8 @@ public class HomeController {
         
         model.addAttribute("user", user);
         model.addAttribute("accounts", accounts);
-        model.addAttribute("totalBalance", totalBalance != null ? totalBalance : BigDecimal.ZERO);
+        model.addAttribute("totalBalance", totalBalance.total());
+        model.addAttribute("unconvertedCurrencies", totalBalance.unconverted());
         model.addAttribute("monthlyIncome", monthlyIncome != null ? monthlyIncome : BigDecimal.ZERO);
         model.addAttribute("monthlyExpenses", monthlyExpenses != null ? monthlyExpenses : BigDecimal.ZERO);
         model.addAttribute("monthlyNet", monthlyNet);
@@ -1,12 +1,18 @@
 package com.example.myfinances.controller.web;
 
+import com.example.myfinances.config.HtmxRequests;
 import com.example.myfinances.model.Investment;
 import com.example.myfinances.model.InvestmentProduct;
 import com.example.myfinances.model.User;
 import com.example.myfinances.model.UserInvestmentProduct;
+import com.example.myfinances.repository.ProductPriceHistoryRepository;
 import com.example.myfinances.security.SecurityUtils;
 import com.example.myfinances.service.InvestmentProductService;
 import com.example.myfinances.service.InvestmentService;
+import com.example.myfinances.service.PortfolioPerformanceService;
+import com.example.myfinances.service.PortfolioProjectionService;
+import com.example.myfinances.service.PortfolioRiskService;
+import com.example.myfinances.service.ProductPriceHistoryService;
 import com.example.myfinances.service.UserInvestmentProductService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
@@ -28,6 +34,8 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Controller
 @RequestMapping("/investments")
@@ -35,9 +43,15 @@ import java.util.Optional;
 @Slf4j
 public class InvestmentController {
 
+    private static final long PRICE_UPDATE_WAIT_SECONDS = 10;
+
     private final InvestmentService investmentService;
     private final InvestmentProductService investmentProductService;
     private final UserInvestmentProductService userInvestmentProductService;
+    private final ProductPriceHistoryService productPriceHistoryService;
+    private final PortfolioPerformanceService portfolioPerformanceService;
+    private final PortfolioProjectionService portfolioProjectionService;
+    private final PortfolioRiskService portfolioRiskService;
 
     @GetMapping
     public String portfolio(Authentication authentication, Model model, HttpServletRequest request,
@@ -54,12 +68,24 @@ public class InvestmentController {
             investments = investmentService.findByUser(user);
         }
         
+        model.addAttribute("investments", investments);
+        
+        // Filtering swaps only the positions table
+        if (HtmxRequests.isPartial(request)) {
+            return "pages/investments/portfolio :: positions";
+        }
+        
         InvestmentService.PortfolioSummary portfolio = investmentService.getPortfolioSummary(user);
         List<InvestmentService.TypeAllocation> allocations = investmentService.getPortfolioAllocationByType(user);
         List<InvestmentService.CurrencyAllocation> currencyAllocations = investmentService.getPortfolioAllocationByCurrency(user);
+        PortfolioPerformanceService.PortfolioPerformance performance = portfolioPerformanceService.getPerformance(user);
+        PortfolioProjectionService.PortfolioProjection projection = portfolioProjectionService.getProjection(user);
+        PortfolioRiskService.PortfolioRisk risk = portfolioRiskService.getRisk(user);
         
-        model.addAttribute("investments", investments);
         model.addAttribute("portfolio", portfolio);
+        model.addAttribute("performance", performance);
+        model.addAttribute("projection", projection);
+        model.addAttribute("risk", risk);
         model.addAttribute("typeAllocations", allocations);
         model.addAttribute("currencyAllocations", currencyAllocations);
         model.addAttribute("investmentTypes", InvestmentProduct.InvestmentType.values());
@@ -139,16 +165,12 @@ public class InvestmentController {
             // If user wants to save to their profile, save the found products
             User user = SecurityUtils.getCurrentUserOrThrow(authentication);
             if (form.isSaveToProfile() && !products.isEmpty()) {
-                for (InvestmentProduct product : products) {
-                    // Product should already be saved to database by searchProductsFromApi
-                    // Save directly to user profile without checking if it exists
-                    // (the service method will handle duplicates)
-                    try {
-                        userInvestmentProductService.saveProductToUser(user, product);
-                        log.debug("Saved product {} to user {} profile", product.getSymbol(), user.getEmail());
-                    } catch (Exception e) {
-                        log.warn("Could not save product {} to user profile: {}", product.getSymbol(), e.getMessage());
-                    }
+                // Products are already saved to database by searchProductsFromApi;
+                // the service skips the ones already in the user's profile
+                try {
+                    userInvestmentProductService.saveProductsToUser(user, products);
+                } catch (Exception e) {
+                    log.warn("Could not save products to user profile: {}", e.getMessage());
                 }
             }
 
@@ -361,8 +383,15 @@ public class InvestmentController {
         User user = SecurityUtils.getCurrentUserOrThrow(authentication);
         
         try {
-            investmentService.updateInvestmentPrices(user);
+            // Shared with other users' refreshes of the same products; wait briefly so
+            // the redirect usually shows the new prices
+            investmentService.updateInvestmentPrices(user).get(PRICE_UPDATE_WAIT_SECONDS, TimeUnit.SECONDS);
             redirectAttributes.addFlashAttribute("success", "Prices updated successfully!");
+        } catch (TimeoutException e) {
+            redirectAttributes.addFlashAttribute("success", "Price update in progress, refresh in a moment.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            redirectAttributes.addFlashAttribute("error", "Price update interrupted");
         } catch (Exception e) {
             log.error("Error updating prices", e);
             redirectAttributes.addFlashAttribute("error", "Error updating prices: " + e.getMessage());
@@ -506,6 +535,24 @@ public class InvestmentController {
         }
     }
 
+    @GetMapping("/api/products/{productId}/history")
+    @ResponseBody
+    public ResponseEntity<List<ProductPriceHistoryRepository.PriceBar>> getProductPriceHistory(
+            @PathVariable Long productId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "resolution", required = false) ProductPriceHistoryRepository.Resolution resolution) {
+        
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusYears(1);
+        
+        try {
+            return ResponseEntity.ok(productPriceHistoryService.getPriceBars(productId, start, end, resolution));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Form classes
     @Data
     public static class InvestmentForm {
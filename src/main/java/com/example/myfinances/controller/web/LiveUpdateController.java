@@ -0,0 +1,34 @@
+package com.example.myfinances.controller.web;
+
+import com.example.myfinances.model.User;
+import com.example.myfinances.security.SecurityUtils;
+import com.example.myfinances.service.LiveUpdateService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Locale;
+
+/**
+ * Server-Sent Events stream of the current user's live page updates,
+ * opened by the layout on every authenticated page
+ */
+@Controller
+@RequiredArgsConstructor
+@Slf4j
+public class LiveUpdateController {
+
+    private final LiveUpdateService liveUpdateService;
+
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @ResponseBody
+    public SseEmitter live(Authentication authentication, Locale locale) {
+        User user = SecurityUtils.getCurrentUserOrThrow(authentication);
+        return liveUpdateService.subscribe(user, locale);
+    }
+}
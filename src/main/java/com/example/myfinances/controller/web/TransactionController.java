@@ -1,5 +1,6 @@
 package com.example.myfinances.controller.web;
 
+import com.example.myfinances.config.HtmxRequests;
 import com.example.myfinances.model.Account;
 import com.example.myfinances.model.TransactionCategory;
 import com.example.myfinances.model.Transaction;
@@ -62,15 +63,10 @@ public class TransactionController {
                 .and(Sort.by(Sort.Direction.DESC, "createdAt"));
         PageRequest pageRequest = PageRequest.of(page, size, sort);
         
-        Page<Transaction> transactions = transactionService.findTransactionsByUser(user, pageRequest);
-        
-        // Get filter options
-        List<Account> accounts = accountService.findActiveAccountsByUser(user);
-        List<TransactionCategory> categories = transactionCategoryService.findCategoriesByUser(user);
+        Page<Transaction> transactions = transactionService.filterTransactions(
+                user, search, parseType(type), accountId, categoryId, pageRequest);
         
         model.addAttribute("transactions", transactions);
-        model.addAttribute("accounts", accounts);
-        model.addAttribute("categories", categories);
         model.addAttribute("currentPage", page);
         model.addAttribute("totalPages", transactions.getTotalPages());
         model.addAttribute("totalElements", transactions.getTotalElements());
@@ -80,6 +76,18 @@ public class TransactionController {
         model.addAttribute("selectedType", type);
         model.addAttribute("selectedAccountId", accountId);
         model.addAttribute("selectedCategoryId", categoryId);
+        
+        // Filtering, sorting and paging swap only the table
+        if (HtmxRequests.isPartial(request)) {
+            return "pages/transactions/list :: results";
+        }
+        
+        // Get filter options
+        List<Account> accounts = accountService.findActiveAccountsByUser(user);
+        List<TransactionCategory> categories = transactionCategoryService.findCategoriesByUser(user);
+        
+        model.addAttribute("accounts", accounts);
+        model.addAttribute("categories", categories);
         model.addAttribute("currentPath", request.getRequestURI());
         
         return "pages/transactions/list";
@@ -179,7 +187,9 @@ public class TransactionController {
         
         TransactionForm form = new TransactionForm();
         form.setAccountId(transaction.get().getAccount().getId());
-        form.setCategoryId(transaction.get().getCategory().getId());
+        if (transaction.get().getCategory() != null) {
+            form.setCategoryId(transaction.get().getCategory().getId());
+        }
         form.setAmount(transaction.get().getAmount());
         form.setDescription(transaction.get().getDescription());
         form.setDate(transaction.get().getTransactionDate());
@@ -279,6 +289,17 @@ public class TransactionController {
         return "redirect:/transactions";
     }
 
+    private static Transaction.TransactionType parseType(String type) {
+        if (type == null || type.isBlank()) {
+            return null;
+        }
+        try {
+            return Transaction.TransactionType.valueOf(type);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     @Data
     public static class TransactionForm {
         @NotNull(message = "A conta é obrigatória")
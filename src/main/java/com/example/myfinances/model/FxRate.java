@@ -0,0 +1,30 @@
+package com.example.myfinances.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Latest known exchange rate of a currency: units of {@code currency} per one unit
+ * of the application base currency.
+ */
+@Entity
+@Table(name = "fx_rates")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FxRate {
+
+    @Id
+    @Column(length = 3)
+    private String currency;
+
+    @Column(nullable = false, precision = 19, scale = 8)
+    private BigDecimal rate;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
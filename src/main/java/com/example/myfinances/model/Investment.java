@@ -10,6 +10,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "investments")
+@NamedEntityGraph(name = Investment.WITH_PRODUCT, attributeNodes = @NamedAttributeNode("product"))
 @Data
 @Builder
 @NoArgsConstructor
@@ -18,6 +19,9 @@ import java.time.LocalDateTime;
 @ToString(exclude = {"user", "product"})
 public class Investment {
     
+    /** Fetch plan for list views that render product details for every row */
+    public static final String WITH_PRODUCT = "Investment.withProduct";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
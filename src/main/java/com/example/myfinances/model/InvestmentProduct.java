@@ -2,6 +2,9 @@ package com.example.myfinances.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -10,6 +13,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "investment_products")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "investment-products")
 @Data
 @Builder
 @NoArgsConstructor
@@ -74,6 +79,14 @@ public class InvestmentProduct {
     @Column(name = "last_updated")
     private LocalDateTime lastUpdated;
     
+    // Last refresh that found no quote, and how many did in a row (reset by a quote)
+    @Column(name = "last_refresh_attempt")
+    private LocalDateTime lastRefreshAttempt;
+    
+    @Column(name = "failed_refreshes", nullable = false)
+    @ColumnDefault("0")
+    private int failedRefreshes;
+    
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
     
@@ -39,7 +39,7 @@ public class Transaction {
     private Account account;
     
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "category_id", nullable = false)
+    @JoinColumn(name = "category_id")
     @NotNull(message = "Categoria é obrigatória")
     private TransactionCategory category;
     
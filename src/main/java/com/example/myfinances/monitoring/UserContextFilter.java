@@ -35,9 +35,9 @@ public class UserContextFilter extends OncePerRequestFilter {
             response.setHeader("X-Request-ID", requestId);
 
             // Add user context if authenticated
-            SecurityUtils.getCurrentUser().ifPresent(user -> {
-                MDC.put(USER_ID, user.getId().toString());
-                MDC.put(USER_EMAIL, user.getEmail());
+            SecurityUtils.getCurrentPrincipal().ifPresent(principal -> {
+                MDC.put(USER_ID, principal.id().toString());
+                MDC.put(USER_EMAIL, principal.email());
             });
 
             filterChain.doFilter(request, response);
@@ -1,8 +1,11 @@
 package com.example.myfinances.repository;
 
 import com.example.myfinances.model.AccountCategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -16,6 +19,10 @@ public interface AccountCategoryRepository extends JpaRepository<AccountCategory
      * @param code the unique category code
      * @return optional category
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     Optional<AccountCategory> findByCode(String code);
     
     /**
@@ -23,12 +30,20 @@ public interface AccountCategoryRepository extends JpaRepository<AccountCategory
      * @param name the category name
      * @return optional category
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     Optional<AccountCategory> findByName(String name);
     
     /**
      * Find all active categories ordered by display order
      * @return list of active categories
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     @Query("SELECT c FROM AccountCategory c WHERE c.active = true ORDER BY c.displayOrder ASC, c.name ASC")
     List<AccountCategory> findAllActiveOrderedByDisplayOrder();
     
@@ -36,6 +51,10 @@ public interface AccountCategoryRepository extends JpaRepository<AccountCategory
      * Find all categories ordered by display order
      * @return list of all categories
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     @Query("SELECT c FROM AccountCategory c ORDER BY c.displayOrder ASC, c.name ASC")
     List<AccountCategory> findAllOrderedByDisplayOrder();
     
@@ -26,12 +26,23 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
     @Query("SELECT SUM(a.balance) FROM Account a WHERE a.user = :user AND a.active = true AND a.category != 'Crédito'")
     BigDecimal getTotalBalanceByUser(@Param("user") User user);
     
+    @Query("SELECT new com.example.myfinances.repository.CurrencyAmount(a.currency, SUM(a.balance)) " +
+           "FROM Account a WHERE a.user = :user AND a.active = true AND a.category != 'Crédito' GROUP BY a.currency")
+    List<CurrencyAmount> getBalancesByCurrency(@Param("user") User user);
+    
     @Query("SELECT a FROM Account a WHERE a.user = :user AND a.category = :category AND a.active = true")
     List<Account> findByUserAndCategory(@Param("user") User user, @Param("category") String category);
     
     @Query("SELECT SUM(a.balance) FROM Account a WHERE a.user = :user AND a.category = :category AND a.active = true")
     BigDecimal getTotalBalanceByUserAndCategory(@Param("user") User user, @Param("category") String category);
     
+    @Query("SELECT new com.example.myfinances.repository.CurrencyAmount(a.currency, SUM(a.balance)) " +
+           "FROM Account a WHERE a.user = :user AND a.category = :category AND a.active = true GROUP BY a.currency")
+    List<CurrencyAmount> getBalancesByCurrencyAndCategory(@Param("user") User user, @Param("category") String category);
+    
+    @Query("SELECT DISTINCT a.currency FROM Account a WHERE a.currency IS NOT NULL")
+    List<String> findDistinctCurrencies();
+    
     @Query("SELECT COUNT(a) FROM Account a WHERE a.user = :user AND a.active = true")
     long countActiveAccountsByUser(@Param("user") User user);
     
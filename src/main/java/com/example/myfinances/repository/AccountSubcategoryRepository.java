@@ -2,8 +2,11 @@ package com.example.myfinances.repository;
 
 import com.example.myfinances.model.AccountCategory;
 import com.example.myfinances.model.AccountSubcategory;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -18,6 +21,10 @@ public interface AccountSubcategoryRepository extends JpaRepository<AccountSubca
      * @param code the unique subcategory code
      * @return optional subcategory
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     Optional<AccountSubcategory> findByCode(String code);
     
     /**
@@ -25,6 +32,10 @@ public interface AccountSubcategoryRepository extends JpaRepository<AccountSubca
      * @param name the subcategory name
      * @return optional subcategory
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     Optional<AccountSubcategory> findByName(String name);
     
     /**
@@ -55,6 +66,10 @@ public interface AccountSubcategoryRepository extends JpaRepository<AccountSubca
      * @param categoryCode the parent category code
      * @return list of active subcategories
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     @Query("SELECT s FROM AccountSubcategory s WHERE s.category.code = :categoryCode AND s.active = true ORDER BY s.displayOrder ASC, s.name ASC")
     List<AccountSubcategory> findActiveByCategoryCodeOrderedByDisplayOrder(@Param("categoryCode") String categoryCode);
     
@@ -64,6 +79,10 @@ public interface AccountSubcategoryRepository extends JpaRepository<AccountSubca
      * @param categoryCode the parent category code
      * @return optional subcategory
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
     @Query("SELECT s FROM AccountSubcategory s WHERE s.code = :code AND s.category.code = :categoryCode")
     Optional<AccountSubcategory> findByCodeAndCategoryCode(@Param("code") String code, @Param("categoryCode") String categoryCode);
     
@@ -95,4 +114,15 @@ public interface AccountSubcategoryRepository extends JpaRepository<AccountSubca
      * @return list of subcategories
      */
     List<AccountSubcategory> findByActiveOrderByDisplayOrderAscNameAsc(boolean active);
-}
\ No newline at end of file
+    
+    /**
+     * Find all subcategories with their category, in display order
+     * @return list of subcategories
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
+    @Query("SELECT s FROM AccountSubcategory s JOIN FETCH s.category ORDER BY s.displayOrder ASC, s.name ASC")
+    List<AccountSubcategory> findAllWithCategoryOrderedByDisplayOrder();
+}
@@ -0,0 +1,14 @@
+package com.example.myfinances.repository;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * An amount in one currency, typically a per-currency sum computed by the database.
+ */
+@Value
+public class CurrencyAmount {
+    String currency;
+    BigDecimal amount;
+}
@@ -0,0 +1,9 @@
+package com.example.myfinances.repository;
+
+import com.example.myfinances.model.FxRate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FxRateRepository extends JpaRepository<FxRate, String> {
+}
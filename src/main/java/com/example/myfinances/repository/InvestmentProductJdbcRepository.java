@@ -0,0 +1,276 @@
+package com.example.myfinances.repository;
+
+import com.example.myfinances.model.InvestmentProduct;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based writes on investment_products that would cost one statement per row through JPA
+ * (identity ids keep Hibernate from batching inserts).
+ *
+ * These writes bypass Hibernate, so the rows they change are evicted from the
+ * second-level cache: at once, and again after commit in case a concurrent read
+ * cached the old row in between.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InvestmentProductJdbcRepository {
+
+    /**
+     * Rows per UPDATE ... FROM (VALUES ...) statement; 9 parameters per row keeps
+     * each statement well below the driver's bind parameter limit
+     */
+    static final int PRICE_UPDATE_CHUNK = 1000;
+
+    private static final String PRICE_COLUMNS =
+            "id, current_price, market_cap, pe_ratio, dividend_yield, beta, " +
+            "fifty_two_week_low, fifty_two_week_high, avg_volume";
+
+    private static final String VALUES_ROW =
+            "(?::bigint, ?::numeric, ?::bigint, ?::numeric, ?::numeric, ?::numeric, ?::numeric, ?::numeric, ?::bigint)";
+
+    private static final String SINGLE_ROW_UPDATE =
+            "UPDATE investment_products SET current_price = ?, market_cap = ?, pe_ratio = ?, dividend_yield = ?, " +
+            "beta = ?, fifty_two_week_low = ?, fifty_two_week_high = ?, avg_volume = ?, " +
+            "last_updated = ?, updated_at = ?, failed_refreshes = 0 WHERE id = ?";
+
+    private static final String PRODUCT_INSERT =
+            "INSERT INTO investment_products (symbol, name, type, description, currency, exchange, sector, region, " +
+            "current_price, market_cap, pe_ratio, dividend_yield, beta, fifty_two_week_low, fifty_two_week_high, " +
+            "avg_volume, last_updated, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Write new price data for the given products and mark them as refreshed
+     *
+     * @return number of rows updated
+     */
+    public int updatePriceData(List<PriceRow> rows, LocalDateTime refreshedAt) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(refreshedAt);
+
+        if (!dialect.isPostgres()) {
+            int[][] counts = jdbcTemplate.batchUpdate(SINGLE_ROW_UPDATE, rows, PRICE_UPDATE_CHUNK, (ps, row) -> {
+                int index = bindPriceData(ps, 1, row);
+                ps.setTimestamp(index++, timestamp);
+                ps.setTimestamp(index++, timestamp);
+                ps.setLong(index, row.getId());
+            });
+            int updated = 0;
+            for (int[] chunk : counts) {
+                for (int count : chunk) {
+                    updated += Math.max(count, 0);
+                }
+            }
+            evictFromCache(rows.stream().map(PriceRow::getId).toList());
+            return updated;
+        }
+
+        int updated = 0;
+        for (int from = 0; from < rows.size(); from += PRICE_UPDATE_CHUNK) {
+            List<PriceRow> chunk = rows.subList(from, Math.min(from + PRICE_UPDATE_CHUNK, rows.size()));
+            updated += jdbcTemplate.update(priceUpdateSql(chunk.size()), ps -> {
+                int index = 1;
+                ps.setTimestamp(index++, timestamp);
+                ps.setTimestamp(index++, timestamp);
+                for (PriceRow row : chunk) {
+                    ps.setLong(index++, row.getId());
+                    index = bindPriceData(ps, index, row);
+                }
+            });
+        }
+        evictFromCache(rows.stream().map(PriceRow::getId).toList());
+        return updated;
+    }
+
+    /**
+     * Mark products as refreshed without touching their price data, in a single statement
+     *
+     * @return number of rows updated
+     */
+    public int touchLastUpdated(Collection<Long> productIds, LocalDateTime refreshedAt) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+
+        int updated = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "UPDATE investment_products SET last_updated = ?, failed_refreshes = 0 WHERE id = ANY(?)");
+            Array ids = connection.createArrayOf("BIGINT", productIds.toArray());
+            ps.setTimestamp(1, Timestamp.valueOf(refreshedAt));
+            ps.setArray(2, ids);
+            return ps;
+        });
+        evictFromCache(productIds);
+        return updated;
+    }
+
+    /**
+     * Record a refresh that found no quote for the products, in a single statement;
+     * their price and last_updated stay as they were
+     *
+     * @return number of rows updated
+     */
+    public int recordMissingQuotes(Collection<Long> productIds, LocalDateTime attemptedAt) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+
+        int updated = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "UPDATE investment_products SET last_refresh_attempt = ?, " +
+                    "failed_refreshes = failed_refreshes + 1 WHERE id = ANY(?)");
+            Array ids = connection.createArrayOf("BIGINT", productIds.toArray());
+            ps.setTimestamp(1, Timestamp.valueOf(attemptedAt));
+            ps.setArray(2, ids);
+            return ps;
+        });
+        evictFromCache(productIds);
+        return updated;
+    }
+
+    /**
+     * Insert new products as one JDBC batch. Generated ids are not read back; callers
+     * reload the rows by symbol.
+     *
+     * @return number of rows inserted
+     */
+    public int insertProducts(List<InvestmentProduct> products, LocalDateTime createdAt) {
+        if (products.isEmpty()) {
+            return 0;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(createdAt);
+        int[][] counts = jdbcTemplate.batchUpdate(PRODUCT_INSERT, products, PRICE_UPDATE_CHUNK, (ps, product) -> {
+            ps.setString(1, product.getSymbol());
+            ps.setString(2, product.getName());
+            ps.setString(3, (product.getType() != null ? product.getType() : InvestmentProduct.InvestmentType.OTHER).name());
+            ps.setString(4, product.getDescription());
+            ps.setString(5, product.getCurrency());
+            ps.setString(6, product.getExchange());
+            ps.setString(7, product.getSector());
+            ps.setString(8, product.getRegion());
+            setDecimal(ps, 9, product.getCurrentPrice());
+            setLong(ps, 10, product.getMarketCap());
+            setDecimal(ps, 11, product.getPeRatio());
+            setDecimal(ps, 12, product.getDividendYield());
+            setDecimal(ps, 13, product.getBeta());
+            setDecimal(ps, 14, product.getFiftyTwoWeekLow());
+            setDecimal(ps, 15, product.getFiftyTwoWeekHigh());
+            setLong(ps, 16, product.getAvgVolume());
+            ps.setTimestamp(17, timestamp);
+            ps.setTimestamp(18, timestamp);
+            ps.setTimestamp(19, timestamp);
+        });
+
+        int inserted = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for batched statements
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        return inserted;
+    }
+
+    private void evictFromCache(Collection<Long> productIds) {
+        Cache cache = entityManagerFactory.getCache();
+        List<Long> ids = List.copyOf(productIds);
+        Runnable evict = () -> ids.forEach(id -> cache.evict(InvestmentProduct.class, id));
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    private static String priceUpdateSql(int rowCount) {
+        StringBuilder sql = new StringBuilder(256 + rowCount * (VALUES_ROW.length() + 2));
+        sql.append("UPDATE investment_products AS p SET ")
+                .append("current_price = v.current_price, market_cap = v.market_cap, pe_ratio = v.pe_ratio, ")
+                .append("dividend_yield = v.dividend_yield, beta = v.beta, ")
+                .append("fifty_two_week_low = v.fifty_two_week_low, fifty_two_week_high = v.fifty_two_week_high, ")
+                .append("avg_volume = v.avg_volume, last_updated = ?, updated_at = ?, failed_refreshes = 0 ")
+                .append("FROM (VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(VALUES_ROW);
+        }
+        sql.append(") AS v(").append(PRICE_COLUMNS).append(") WHERE p.id = v.id");
+        return sql.toString();
+    }
+
+    private static int bindPriceData(PreparedStatement ps, int index, PriceRow row) throws SQLException {
+        setDecimal(ps, index++, row.getCurrentPrice());
+        setLong(ps, index++, row.getMarketCap());
+        setDecimal(ps, index++, row.getPeRatio());
+        setDecimal(ps, index++, row.getDividendYield());
+        setDecimal(ps, index++, row.getBeta());
+        setDecimal(ps, index++, row.getFiftyTwoWeekLow());
+        setDecimal(ps, index++, row.getFiftyTwoWeekHigh());
+        setLong(ps, index++, row.getAvgVolume());
+        return index;
+    }
+
+    private static void setDecimal(PreparedStatement ps, int index, BigDecimal value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.NUMERIC);
+        } else {
+            ps.setBigDecimal(index, value);
+        }
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+
+    /**
+     * Price and statistics columns of one product, as they should be after a refresh
+     */
+    @Value
+    public static class PriceRow {
+        long id;
+        BigDecimal currentPrice;
+        Long marketCap;
+        BigDecimal peRatio;
+        BigDecimal dividendYield;
+        BigDecimal beta;
+        BigDecimal fiftyTwoWeekLow;
+        BigDecimal fiftyTwoWeekHigh;
+        Long avgVolume;
+    }
+}
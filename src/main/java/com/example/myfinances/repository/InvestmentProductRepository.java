@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,9 @@ public interface InvestmentProductRepository extends JpaRepository<InvestmentPro
     // Find by symbol (all currencies)
     List<InvestmentProduct> findBySymbolIgnoreCaseOrderByCurrency(String symbol);
     
+    // Find all listings of several symbols in one query
+    List<InvestmentProduct> findBySymbolIn(Collection<String> symbols);
+    
     // Search products by various criteria
     @Query("SELECT p FROM InvestmentProduct p WHERE " +
            "LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
@@ -30,6 +34,10 @@ public interface InvestmentProductRepository extends JpaRepository<InvestmentPro
            "ORDER BY p.symbol ASC")
     List<InvestmentProduct> searchProducts(@Param("search") String search);
     
+    // Id, symbol and name of every product, for the in-memory search index
+    @Query("SELECT p.id, p.symbol, p.name FROM InvestmentProduct p")
+    List<Object[]> findSearchDocuments();
+    
     // Find by type
     List<InvestmentProduct> findByTypeOrderBySymbolAsc(InvestmentProduct.InvestmentType type);
     
@@ -49,6 +57,15 @@ public interface InvestmentProductRepository extends JpaRepository<InvestmentPro
     @Query("SELECT p FROM InvestmentProduct p WHERE p.lastUpdated < :threshold ORDER BY p.lastUpdated ASC")
     List<InvestmentProduct> findProductsNeedingUpdate(@Param("threshold") LocalDateTime threshold);
     
+    // Id, exchange, last update, last failed attempt and failures in a row of the products
+    // someone holds or saved, least recently updated first
+    @Query("SELECT p.id, p.exchange, p.lastUpdated, p.lastRefreshAttempt, p.failedRefreshes " +
+           "FROM InvestmentProduct p WHERE " +
+           "EXISTS (SELECT i.id FROM Investment i WHERE i.product = p) OR " +
+           "EXISTS (SELECT uip.id FROM UserInvestmentProduct uip WHERE uip.product = p) " +
+           "ORDER BY p.lastUpdated ASC")
+    List<Object[]> findTrackedProductRefreshRows();
+    
     // Get distinct values for filtering
     @Query("SELECT DISTINCT p.type FROM InvestmentProduct p ORDER BY p.type")
     List<InvestmentProduct.InvestmentType> findDistinctTypes();
@@ -70,9 +87,9 @@ public interface InvestmentProductRepository extends JpaRepository<InvestmentPro
     
     long countByCurrency(String currency);
     
-    // Find most popular products (by number of investments)
-    @Query("SELECT p FROM InvestmentProduct p JOIN p.investments i GROUP BY p ORDER BY COUNT(i) DESC")
-    List<InvestmentProduct> findMostPopularProducts();
+    // Facet values of every product, for the in-memory catalogue statistics
+    @Query("SELECT p.id, p.type, p.currency, p.exchange, p.sector, p.region FROM InvestmentProduct p")
+    List<Object[]> findFacetRows();
     
     // Find recently added products
     @Query("SELECT p FROM InvestmentProduct p ORDER BY p.createdAt DESC")
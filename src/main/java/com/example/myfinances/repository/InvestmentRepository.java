@@ -5,6 +5,7 @@ import com.example.myfinances.model.InvestmentProduct;
 import com.example.myfinances.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
@@ -21,10 +22,24 @@ import java.util.Optional;
 @Repository
 public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     
+    // Per-holding valuation expressions, rounded like the Investment helpers
+    String INVESTED = "ROUND(i.quantity * i.purchasePrice, 2)";
+    String CURRENT_VALUE = "ROUND(i.quantity * COALESCE(p.currentPrice, 0BD), 2)";
+    String INVESTED_BASE = "ROUND(" + INVESTED + " / COALESCE(i.exchangeRate, 1BD), 2)";
+    String CURRENT_VALUE_BASE = "ROUND(" + CURRENT_VALUE + " / COALESCE(i.exchangeRate, 1BD), 2)";
+    
+    String VALUATION_SELECT = "SELECT new com.example.myfinances.repository.InvestmentValuation(" +
+           "i.id, p.id, p.symbol, p.name, p.type, p.currency, i.quantity, i.purchasePrice, i.purchaseDate, " +
+           "p.currentPrice, " + INVESTED + ", " + CURRENT_VALUE + ", " + CURRENT_VALUE + " - " + INVESTED + ", " +
+           INVESTED_BASE + ", " + CURRENT_VALUE_BASE + ") " +
+           "FROM Investment i JOIN i.product p WHERE i.user = :user ";
+    
     // Find investments by user
+    @EntityGraph(Investment.WITH_PRODUCT)
     List<Investment> findByUserOrderByPurchaseDateDesc(User user);
     
     // Find investments by user with pagination
+    @EntityGraph(Investment.WITH_PRODUCT)
     @Query("SELECT i FROM Investment i WHERE i.user = :user ORDER BY i.purchaseDate DESC")
     @QueryHints({
         @QueryHint(name = "org.hibernate.fetchSize", value = "20"),
@@ -36,14 +51,17 @@ public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     Optional<Investment> findByIdAndUser(Long id, User user);
     
     // Find investments by user and product
+    @EntityGraph(Investment.WITH_PRODUCT)
     List<Investment> findByUserAndProductOrderByPurchaseDateDesc(User user, InvestmentProduct product);
     
     // Find investments by user and product type
+    @EntityGraph(Investment.WITH_PRODUCT)
     @Query("SELECT i FROM Investment i JOIN i.product p WHERE i.user = :user AND p.type = :type ORDER BY i.purchaseDate DESC")
     List<Investment> findByUserAndProductTypeOrderByPurchaseDateDesc(@Param("user") User user, 
                                                                      @Param("type") InvestmentProduct.InvestmentType type);
     
     // Search investments
+    @EntityGraph(Investment.WITH_PRODUCT)
     @Query("SELECT i FROM Investment i JOIN i.product p WHERE i.user = :user AND " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(p.symbol) LIKE LOWER(CONCAT('%', :search, '%'))) " +
@@ -55,6 +73,7 @@ public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     List<Investment> searchInvestmentsByUser(@Param("user") User user, @Param("search") String search);
     
     // Search investments with pagination
+    @EntityGraph(Investment.WITH_PRODUCT)
     @Query("SELECT i FROM Investment i JOIN i.product p WHERE i.user = :user AND " +
            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(p.symbol) LIKE LOWER(CONCAT('%', :search, '%'))) " +
@@ -85,6 +104,33 @@ public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     @Query("SELECT COALESCE(SUM(i.quantity * i.purchasePrice / i.exchangeRate), 0) FROM Investment i WHERE i.user = :user")
     BigDecimal getTotalInvestedInBaseCurrencyByUser(@Param("user") User user);
     
+    // Valuation of every holding, computed in the database
+    @Query(VALUATION_SELECT + "ORDER BY i.purchaseDate DESC")
+    List<InvestmentValuation> findValuationsByUser(@Param("user") User user);
+    
+    // Holdings currently above their purchase value
+    @Query(VALUATION_SELECT + "AND " + CURRENT_VALUE + " > " + INVESTED + " ORDER BY i.purchaseDate DESC")
+    List<InvestmentValuation> findProfitableValuationsByUser(@Param("user") User user);
+    
+    // Holdings currently below their purchase value
+    @Query(VALUATION_SELECT + "AND " + CURRENT_VALUE + " < " + INVESTED + " ORDER BY i.purchaseDate DESC")
+    List<InvestmentValuation> findLosingValuationsByUser(@Param("user") User user);
+    
+    // Portfolio totals per quote currency in a single aggregate query
+    @Query("SELECT new com.example.myfinances.repository.PortfolioTotals(p.currency, COUNT(i), " +
+           "SUM(" + INVESTED + "), SUM(" + CURRENT_VALUE + "), " +
+           "SUM(" + INVESTED_BASE + "), SUM(" + CURRENT_VALUE_BASE + ")) " +
+           "FROM Investment i JOIN i.product p WHERE i.user = :user GROUP BY p.currency")
+    List<PortfolioTotals> getPortfolioTotalsByCurrency(@Param("user") User user);
+    
+    // Ids of the products the user holds
+    @Query("SELECT DISTINCT i.product.id FROM Investment i WHERE i.user = :user")
+    List<Long> findProductIdsByUser(@Param("user") User user);
+    
+    // Number of investments per product, across all users
+    @Query("SELECT i.product.id, COUNT(i) FROM Investment i GROUP BY i.product.id")
+    List<Object[]> countInvestmentsByProduct();
+    
     // Get portfolio allocation by type
     @Query("SELECT p.type as type, COUNT(i) as count, " +
            "COALESCE(SUM(i.quantity * i.purchasePrice / i.exchangeRate), 0) as totalInvested " +
@@ -98,10 +144,12 @@ public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     List<Object[]> getPortfolioAllocationByCurrency(@Param("user") User user);
     
     // Find investments by purchase date range
+    @EntityGraph(Investment.WITH_PRODUCT)
     List<Investment> findByUserAndPurchaseDateBetweenOrderByPurchaseDateDesc(
             User user, LocalDate startDate, LocalDate endDate);
     
     // Find recent investments
+    @EntityGraph(Investment.WITH_PRODUCT)
     @Query("SELECT i FROM Investment i WHERE i.user = :user ORDER BY i.createdAt DESC")
     List<Investment> findRecentInvestmentsByUser(@Param("user") User user);
     
@@ -117,6 +165,7 @@ public interface InvestmentRepository extends JpaRepository<Investment, Long> {
     boolean existsByUserAndProduct(User user, InvestmentProduct product);
     
     // Find investments that need price updates (products with old prices)
+    @EntityGraph(Investment.WITH_PRODUCT)
     @Query("SELECT i FROM Investment i JOIN i.product p WHERE i.user = :user AND " +
            "p.lastUpdated < :threshold ORDER BY p.lastUpdated ASC")
     List<Investment> findInvestmentsNeedingPriceUpdate(@Param("user") User user, 
@@ -0,0 +1,52 @@
+package com.example.myfinances.repository;
+
+import com.example.myfinances.model.InvestmentProduct;
+import lombok.Value;
+import lombok.With;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Read-only valuation of one holding, computed by the database.
+ * Amounts are rounded to 2 decimals the same way as the {@code Investment} helpers.
+ * Base currency amounts use the purchase exchange rate until revalued with
+ * {@link #withCurrentValueBaseCurrency}.
+ */
+@Value
+public class InvestmentValuation {
+    Long investmentId;
+    Long productId;
+    String symbol;
+    String name;
+    InvestmentProduct.InvestmentType type;
+    String currency;
+    BigDecimal quantity;
+    BigDecimal purchasePrice;
+    LocalDate purchaseDate;
+    BigDecimal currentPrice;
+    BigDecimal totalInvested;
+    BigDecimal currentValue;
+    BigDecimal totalGainLoss;
+    BigDecimal totalInvestedBaseCurrency;
+    @With
+    BigDecimal currentValueBaseCurrency;
+
+    public BigDecimal getTotalGainLossBaseCurrency() {
+        return currentValueBaseCurrency.subtract(totalInvestedBaseCurrency);
+    }
+
+    public BigDecimal getPercentageGainLoss() {
+        if (totalInvested.compareTo(BigDecimal.ZERO) == 0) {
+            return BigDecimal.ZERO;
+        }
+        return totalGainLoss.divide(totalInvested, 4, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(100))
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    public boolean isProfitable() {
+        return totalGainLoss.compareTo(BigDecimal.ZERO) > 0;
+    }
+}
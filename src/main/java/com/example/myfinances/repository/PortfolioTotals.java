@@ -0,0 +1,20 @@
+package com.example.myfinances.repository;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Sums of the per-holding valuation for the holdings quoted in one currency,
+ * computed by the database. Base currency amounts use each holding's purchase
+ * exchange rate.
+ */
+@Value
+public class PortfolioTotals {
+    String currency;
+    Long holdings;
+    BigDecimal totalInvested;
+    BigDecimal currentValue;
+    BigDecimal totalInvestedBaseCurrency;
+    BigDecimal currentValueBaseCurrency;
+}
@@ -0,0 +1,221 @@
+package com.example.myfinances.repository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only price history (product_price_history), partitioned by month.
+ *
+ * Writes create the monthly partitions they need first; reads aggregate on the
+ * database into OHLC bars so charts never pull raw samples.
+ *
+ * The partitioned table comes from the PostgreSQL migrations. Elsewhere (H2) a plain
+ * table with the same columns is created at startup, before any transaction runs,
+ * since H2 commits the current transaction on DDL.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductPriceHistoryRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    /** Months whose partition is known to be committed, so DDL is issued once per month and JVM */
+    private final Set<YearMonth> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void createPortableSchema() {
+        if (dialect.isPostgres()) {
+            return;
+        }
+        jdbcTemplate.execute(
+                "CREATE TABLE IF NOT EXISTS product_price_history (" +
+                "product_id BIGINT NOT NULL, " +
+                "ts TIMESTAMP NOT NULL, " +
+                "price DECIMAL(15,4) NOT NULL, " +
+                "PRIMARY KEY (product_id, ts))");
+    }
+
+    /**
+     * Append price samples; a sample for an existing (product, ts) is ignored
+     */
+    public void append(List<PricePoint> points) {
+        if (points.isEmpty()) {
+            return;
+        }
+
+        Set<YearMonth> months = new TreeSet<>();
+        for (PricePoint point : points) {
+            months.add(YearMonth.from(point.getTs()));
+        }
+        ensurePartitions(months);
+
+        String sql = dialect.isPostgres()
+                ? "INSERT INTO product_price_history (product_id, ts, price) VALUES (?, ?, ?) ON CONFLICT DO NOTHING"
+                : "MERGE INTO product_price_history h " +
+                  "USING (VALUES (CAST(? AS BIGINT), CAST(? AS TIMESTAMP), CAST(? AS DECIMAL(15,4)))) s(product_id, ts, price) " +
+                  "ON h.product_id = s.product_id AND h.ts = s.ts " +
+                  "WHEN NOT MATCHED THEN INSERT (product_id, ts, price) VALUES (s.product_id, s.ts, s.price)";
+
+        jdbcTemplate.batchUpdate(sql, points, BATCH_SIZE, (ps, point) -> {
+            ps.setLong(1, point.getProductId());
+            ps.setTimestamp(2, Timestamp.valueOf(point.getTs()));
+            ps.setBigDecimal(3, point.getPrice());
+        });
+    }
+
+    /**
+     * Create the monthly partitions for the given months if they do not exist yet
+     */
+    public void ensurePartitions(Collection<YearMonth> months) {
+        if (!dialect.isPostgres()) {
+            return;
+        }
+
+        for (YearMonth month : months) {
+            if (knownPartitions.contains(month)) {
+                continue;
+            }
+            jdbcTemplate.execute(String.format(
+                    "CREATE TABLE IF NOT EXISTS product_price_history_%d_%02d PARTITION OF product_price_history " +
+                    "FOR VALUES FROM ('%s') TO ('%s')",
+                    month.getYear(), month.getMonthValue(),
+                    month.atDay(1), month.plusMonths(1).atDay(1)));
+            rememberAfterCommit(month);
+        }
+    }
+
+    /**
+     * The CREATE TABLE is undone if the caller's transaction rolls back, so the month
+     * only counts as known once it commits; until then it is simply created again
+     */
+    private void rememberAfterCommit(YearMonth month) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    knownPartitions.add(month);
+                }
+            });
+        } else {
+            knownPartitions.add(month);
+        }
+    }
+
+    /**
+     * OHLC bars for one product, aggregated by the database
+     *
+     * @param from inclusive lower bound
+     * @param to exclusive upper bound
+     */
+    public List<PriceBar> findBars(long productId, Resolution resolution, LocalDateTime from, LocalDateTime to) {
+        String sql =
+                "SELECT date_trunc('" + resolution.getField() + "', ts) AS bucket, " +
+                "       (array_agg(price ORDER BY ts))[1] AS open_price, " +
+                "       max(price) AS high_price, " +
+                "       min(price) AS low_price, " +
+                "       (array_agg(price ORDER BY ts DESC))[1] AS close_price " +
+                "FROM product_price_history " +
+                "WHERE product_id = ? AND ts >= ? AND ts < ? " +
+                "GROUP BY bucket " +
+                "ORDER BY bucket";
+
+        return jdbcTemplate.query(sql,
+                (rs, rowNum) -> new PriceBar(
+                        rs.getTimestamp("bucket").toLocalDateTime().toLocalDate(),
+                        rs.getBigDecimal("open_price"),
+                        rs.getBigDecimal("high_price"),
+                        rs.getBigDecimal("low_price"),
+                        rs.getBigDecimal("close_price")),
+                productId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    /**
+     * Last price of each bucket for several products, ordered by product and bucket
+     *
+     * @param from inclusive lower bound
+     * @param to exclusive upper bound
+     */
+    public List<PriceClose> findCloses(Collection<Long> productIds, Resolution resolution,
+                                       LocalDateTime from, LocalDateTime to) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+
+        String sql =
+                "SELECT product_id, date_trunc('" + resolution.getField() + "', ts) AS bucket, " +
+                "       (array_agg(price ORDER BY ts DESC))[1] AS close_price " +
+                "FROM product_price_history " +
+                "WHERE product_id = ANY(?) AND ts >= ? AND ts < ? " +
+                "GROUP BY product_id, bucket " +
+                "ORDER BY product_id, bucket";
+
+        return jdbcTemplate.query(connection -> {
+                    PreparedStatement ps = connection.prepareStatement(sql);
+                    ps.setArray(1, connection.createArrayOf("BIGINT", productIds.toArray()));
+                    ps.setTimestamp(2, Timestamp.valueOf(from));
+                    ps.setTimestamp(3, Timestamp.valueOf(to));
+                    return ps;
+                },
+                (rs, rowNum) -> new PriceClose(
+                        rs.getLong("product_id"),
+                        rs.getTimestamp("bucket").toLocalDateTime().toLocalDate(),
+                        rs.getBigDecimal("close_price")));
+    }
+
+    @Getter
+    public enum Resolution {
+        DAILY("day"),
+        WEEKLY("week"),
+        MONTHLY("month");
+
+        private final String field;
+
+        Resolution(String field) {
+            this.field = field;
+        }
+    }
+
+    @Value
+    public static class PricePoint {
+        long productId;
+        LocalDateTime ts;
+        BigDecimal price;
+    }
+
+    @Value
+    public static class PriceClose {
+        long productId;
+        LocalDate date;
+        BigDecimal close;
+    }
+
+    @Value
+    public static class PriceBar {
+        LocalDate date;
+        BigDecimal open;
+        BigDecimal high;
+        BigDecimal low;
+        BigDecimal close;
+    }
+}
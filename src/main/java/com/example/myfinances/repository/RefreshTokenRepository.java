@@ -0,0 +1,29 @@
+package com.example.myfinances.repository;
+
+import com.example.myfinances.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, String> {
+
+    /**
+     * Single statement, so of two concurrent exchanges of the same token only one deletes it
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.id = :id AND t.userId = :userId")
+    int deleteByIdAndUserId(@Param("id") String id, @Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt <= :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,8 +2,11 @@ package com.example.myfinances.repository;
 
 import com.example.myfinances.model.TransactionCategory;
 import com.example.myfinances.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +17,13 @@ import java.util.Optional;
 public interface TransactionCategoryRepository extends JpaRepository<TransactionCategory, Long> {
     
     List<TransactionCategory> findByUser(User user);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "reference-queries")
+    })
+    @Query("SELECT c FROM TransactionCategory c LEFT JOIN FETCH c.parent WHERE c.user.id = :userId ORDER BY c.id ASC")
+    List<TransactionCategory> findAllWithParentByUserId(@Param("userId") Long userId);
     
     @Query("SELECT c FROM TransactionCategory c WHERE c.user = :user AND c.type = :type ORDER BY c.name ASC")
     List<TransactionCategory> findByUserAndType(@Param("user") User user, @Param("type") TransactionCategory.CategoryType type);
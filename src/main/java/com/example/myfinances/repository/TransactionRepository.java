@@ -33,6 +33,21 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT t FROM Transaction t WHERE t.account.user = :user AND (LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) ORDER BY t.transactionDate DESC")
     Page<Transaction> searchTransactions(@Param("user") User user, @Param("searchTerm") String searchTerm, Pageable pageable);
     
+    @Query(value = "SELECT t FROM Transaction t JOIN FETCH t.account a LEFT JOIN FETCH t.category c WHERE a.user = :user" +
+            " AND (:type IS NULL OR t.type = :type)" +
+            " AND (:accountId IS NULL OR a.id = :accountId)" +
+            " AND (:categoryId IS NULL OR c.id = :categoryId)" +
+            " AND (:searchTerm IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))",
+           countQuery = "SELECT COUNT(t) FROM Transaction t JOIN t.account a LEFT JOIN t.category c WHERE a.user = :user" +
+            " AND (:type IS NULL OR t.type = :type)" +
+            " AND (:accountId IS NULL OR a.id = :accountId)" +
+            " AND (:categoryId IS NULL OR c.id = :categoryId)" +
+            " AND (:searchTerm IS NULL OR LOWER(t.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')))")
+    Page<Transaction> filterTransactions(@Param("user") User user, @Param("searchTerm") String searchTerm,
+                                         @Param("type") Transaction.TransactionType type,
+                                         @Param("accountId") Long accountId, @Param("categoryId") Long categoryId,
+                                         Pageable pageable);
+    
     @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.account.user = :user AND t.type = 'INCOME'")
     BigDecimal getTotalIncomeByUser(@Param("user") User user);
     
@@ -0,0 +1,54 @@
+package com.example.myfinances.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Batched writes on user_investment_products
+ */
+@Repository
+@RequiredArgsConstructor
+public class UserInvestmentProductJdbcRepository {
+
+    static final int INSERT_CHUNK = 1000;
+
+    private static final String INSERT =
+            "INSERT INTO user_investment_products (user_id, product_id, saved_at, is_favorite) VALUES (?, ?, ?, FALSE)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+
+    /**
+     * Save the products to the user's list as one JDBC batch. On PostgreSQL, products
+     * saved concurrently by another request are skipped instead of failing the batch.
+     *
+     * @return number of rows inserted
+     */
+    public int insertSavedProducts(long userId, List<Long> productIds, LocalDateTime savedAt) {
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+
+        String sql = dialect.isPostgres() ? INSERT + " ON CONFLICT (user_id, product_id) DO NOTHING" : INSERT;
+        Timestamp timestamp = Timestamp.valueOf(savedAt);
+        int[][] counts = jdbcTemplate.batchUpdate(sql, productIds, INSERT_CHUNK, (ps, productId) -> {
+            ps.setLong(1, userId);
+            ps.setLong(2, productId);
+            ps.setTimestamp(3, timestamp);
+        });
+
+        int inserted = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                inserted += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        return inserted;
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -72,4 +73,17 @@ public interface UserInvestmentProductRepository extends JpaRepository<UserInves
      * Check if exists by user and product
      */
     boolean existsByUserAndProduct(@Param("user") User user, @Param("product") InvestmentProduct product);
-}
\ No newline at end of file
+    
+    /**
+     * Ids of the given products that the user has already saved
+     */
+    @Query("SELECT uip.product.id FROM UserInvestmentProduct uip " +
+           "WHERE uip.user = :user AND uip.product.id IN :productIds")
+    List<Long> findSavedProductIds(@Param("user") User user, @Param("productIds") Collection<Long> productIds);
+
+    /**
+     * Ids of all products saved by the user
+     */
+    @Query("SELECT uip.product.id FROM UserInvestmentProduct uip WHERE uip.user = :user")
+    List<Long> findProductIdsByUser(@Param("user") User user);
+}
@@ -0,0 +1,121 @@
+package com.example.myfinances.security;
+
+import com.example.myfinances.config.ApplicationProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Issues and verifies the JSON Web Tokens of the stateless {@code /api/**} chain.
+ *
+ * Access tokens are short-lived and carry everything the principal needs (id, email,
+ * name), so a request is authenticated by checking the signature against the key
+ * derived once at startup, without a session or a database lookup. Refresh tokens
+ * live longer and only carry the user id and a token id ({@code jti}); exchanging one
+ * reloads the user, so a disabled account stops getting access tokens within one
+ * access token lifetime. Which refresh tokens may still be exchanged is tracked by
+ * {@link com.example.myfinances.service.RefreshTokenService}.
+ */
+@Service
+@Slf4j
+public class JwtTokenService {
+
+    static final String ISSUER = "myfinances";
+    static final String TYPE_CLAIM = "typ";
+    static final String ACCESS = "access";
+    static final String REFRESH = "refresh";
+
+    private final SecretKey key;
+    private final JwtParser parser;
+    private final long accessExpirationMillis;
+    private final long refreshExpirationMillis;
+
+    public JwtTokenService(ApplicationProperties properties) {
+        ApplicationProperties.Security.Jwt jwt = properties.getSecurity().getJwt();
+        this.key = Keys.hmacShaKeyFor(jwt.getSecret().getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(key).requireIssuer(ISSUER).build();
+        this.accessExpirationMillis = jwt.getAccessExpiration();
+        this.refreshExpirationMillis = jwt.getExpiration();
+    }
+
+    /**
+     * @param refreshTokenId id ({@code jti}) of the refresh token, as recorded by the caller
+     */
+    public TokenPair issueTokens(UserPrincipal user, String refreshTokenId) {
+        long now = System.currentTimeMillis();
+        String accessToken = Jwts.builder()
+                .issuer(ISSUER)
+                .subject(user.id().toString())
+                .claim(TYPE_CLAIM, ACCESS)
+                .claim("email", user.email())
+                .claim("name", user.name())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + accessExpirationMillis))
+                .signWith(key)
+                .compact();
+        String refreshToken = Jwts.builder()
+                .issuer(ISSUER)
+                .subject(user.id().toString())
+                .id(refreshTokenId)
+                .claim(TYPE_CLAIM, REFRESH)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + refreshExpirationMillis))
+                .signWith(key)
+                .compact();
+        return new TokenPair(accessToken, refreshToken, "Bearer", accessExpirationMillis / 1000);
+    }
+
+    /**
+     * The principal of a valid access token, built from its claims alone
+     */
+    public Optional<UserPrincipal> parseAccessToken(String token) {
+        return parse(token, ACCESS).map(claims -> new UserPrincipal(
+                Long.valueOf(claims.getSubject()),
+                claims.get("email", String.class),
+                claims.get("name", String.class),
+                List.of()));
+    }
+
+    /**
+     * The user and token id of a validly signed, unexpired refresh token
+     */
+    public Optional<RefreshClaims> parseRefreshToken(String token) {
+        return parse(token, REFRESH)
+                .filter(claims -> claims.getId() != null)
+                .map(claims -> new RefreshClaims(Long.valueOf(claims.getSubject()), claims.getId()));
+    }
+
+    private Optional<Claims> parse(String token, String type) {
+        if (token == null || token.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Claims claims = parser.parseSignedClaims(token).getPayload();
+            return type.equals(claims.get(TYPE_CLAIM, String.class)) ? Optional.of(claims) : Optional.empty();
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Rejected {} token: {}", type, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public record RefreshClaims(Long userId, String tokenId) {
+    }
+
+    @lombok.Value
+    public static class TokenPair {
+        String accessToken;
+        String refreshToken;
+        String tokenType;
+        long expiresIn;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.myfinances.security;
+
+import com.example.myfinances.model.User;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Password authentication against the users table that hands back a
+ * {@link UserPrincipal} instead of the loaded {@link User} entity, so the entity
+ * never reaches the session.
+ *
+ * Users whose email is listed as an administrator are granted {@link #ADMIN}.
+ */
+public class PrincipalAuthenticationProvider extends DaoAuthenticationProvider {
+
+    public static final String ADMIN = "ROLE_ADMIN";
+
+    private final Set<String> adminEmails;
+
+    public PrincipalAuthenticationProvider() {
+        this(List.of());
+    }
+
+    public PrincipalAuthenticationProvider(Collection<String> adminEmails) {
+        this.adminEmails = adminEmails.stream()
+                .filter(email -> email != null && !email.isBlank())
+                .map(email -> email.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         UserDetails user) {
+        Authentication success = super.createSuccessAuthentication(principal, authentication, user);
+        if (!(user instanceof User entity)) {
+            return success;
+        }
+
+        List<GrantedAuthority> authorities = new ArrayList<>(success.getAuthorities());
+        if (entity.getEmail() != null && adminEmails.contains(entity.getEmail().toLowerCase(Locale.ROOT))) {
+            authorities.add(new SimpleGrantedAuthority(ADMIN));
+        }
+        UserPrincipal compact = new UserPrincipal(entity.getId(), entity.getEmail(), entity.getName(), authorities);
+        UsernamePasswordAuthenticationToken result =
+                UsernamePasswordAuthenticationToken.authenticated(compact, null, authorities);
+        result.setDetails(success.getDetails());
+        return result;
+    }
+}
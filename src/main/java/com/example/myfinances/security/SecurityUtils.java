@@ -29,8 +29,10 @@ public final class SecurityUtils {
     /**
      * Safely extracts the user from the given authentication object
      * 
+     * For a {@link UserPrincipal} this is a reference carrying only id, email and name
+     * 
      * @param authentication the authentication object
-     * @return Optional containing the authenticated User, or empty if not a User
+     * @return Optional containing the authenticated User, or empty if not a User or UserPrincipal
      */
     public static Optional<User> getCurrentUser(Authentication authentication) {
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -41,6 +43,42 @@ public final class SecurityUtils {
         if (principal instanceof User user) {
             return Optional.of(user);
         }
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return Optional.of(userPrincipal.toUserReference());
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Safely extracts the compact principal of the current authenticated user
+     * 
+     * @return Optional containing the UserPrincipal, or empty if not authenticated
+     */
+    public static Optional<UserPrincipal> getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return getCurrentPrincipal(authentication);
+    }
+
+    /**
+     * Safely extracts the compact principal from the given authentication object,
+     * whether it holds a UserPrincipal or a User
+     * 
+     * @param authentication the authentication object
+     * @return Optional containing the UserPrincipal, or empty if not a User or UserPrincipal
+     */
+    public static Optional<UserPrincipal> getCurrentPrincipal(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return Optional.empty();
+        }
+
+        Object principal = authentication.getPrincipal();
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return Optional.of(userPrincipal);
+        }
+        if (principal instanceof User user) {
+            return Optional.of(UserPrincipal.from(user));
+        }
 
         return Optional.empty();
     }
@@ -85,7 +123,7 @@ public final class SecurityUtils {
      * @return Optional containing the user ID, or empty if not authenticated
      */
     public static Optional<Long> getCurrentUserId() {
-        return getCurrentUser().map(User::getId);
+        return getCurrentPrincipal().map(UserPrincipal::id);
     }
 
     /**
@@ -94,6 +132,6 @@ public final class SecurityUtils {
      * @return Optional containing the user email, or empty if not authenticated
      */
     public static Optional<String> getCurrentUserEmail() {
-        return getCurrentUser().map(User::getEmail);
+        return getCurrentPrincipal().map(UserPrincipal::email);
     }
 }
\ No newline at end of file
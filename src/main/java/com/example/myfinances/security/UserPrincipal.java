@@ -0,0 +1,51 @@
+package com.example.myfinances.security;
+
+import com.example.myfinances.model.User;
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * What an authenticated request knows about its user, kept in the session and in
+ * access tokens instead of the {@link User} entity.
+ *
+ * The entity drags its lazy collections, password hash and account flags into every
+ * session; this is four small immutable fields. Services still taking a {@link User}
+ * get a reference from {@link #toUserReference()}, which is only good for its id,
+ * email and name, like any detached user.
+ */
+public record UserPrincipal(Long id, String email, String name,
+                            List<GrantedAuthority> authorities) implements AuthenticatedPrincipal, Serializable {
+
+    public UserPrincipal {
+        authorities = authorities != null ? List.copyOf(authorities) : List.of();
+    }
+
+    public static UserPrincipal from(User user) {
+        return new UserPrincipal(user.getId(), user.getEmail(), user.getName(),
+                List.<GrantedAuthority>copyOf(user.getAuthorities()));
+    }
+
+    /**
+     * The authentication name Spring Security reports: the login email, as with the
+     * {@link User} principal. The display name is {@link #name()}.
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    public User toUserReference() {
+        return User.builder()
+                .id(id)
+                .email(email)
+                .name(name)
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .build();
+    }
+}
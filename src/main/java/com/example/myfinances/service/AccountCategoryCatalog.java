@@ -0,0 +1,172 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.AccountCategory;
+import com.example.myfinances.model.AccountSubcategory;
+import com.example.myfinances.repository.AccountCategoryRepository;
+import com.example.myfinances.repository.AccountSubcategoryRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory snapshot of the account categories and subcategories, the reference
+ * data behind every account form.
+ *
+ * Loaded with two queries at startup and again on the first read after
+ * {@link #invalidate()}, which category writes call after commit. The snapshot is
+ * immutable and replaced as a whole, so readers never see a half-built one. Its
+ * entities are detached and shared: fit to be referenced from accounts, not to be
+ * modified.
+ *
+ * Reads are counted as {@code cache.gets} with {@code cache=accountCategories} and
+ * {@code result=hit|miss}, a miss being a read that had to load the snapshot.
+ */
+@Component
+@Slf4j
+public class AccountCategoryCatalog {
+
+    static final String CACHE_NAME = "accountCategories";
+
+    private final AccountCategoryRepository categoryRepository;
+    private final AccountSubcategoryRepository subcategoryRepository;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    /** Bumped by every invalidation, so a load that raced with one is not kept */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    public AccountCategoryCatalog(AccountCategoryRepository categoryRepository,
+                                  AccountSubcategoryRepository subcategoryRepository,
+                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        this.categoryRepository = categoryRepository;
+        this.subcategoryRepository = subcategoryRepository;
+        meterRegistry.ifAvailable(this::registerMetrics);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            loadAndKeep();
+        } catch (DataAccessException e) {
+            log.warn("Could not preload account categories, loading on first use: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drop the snapshot; it is reloaded on next read
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            hits.incrementAndGet();
+            return current;
+        }
+        misses.incrementAndGet();
+        synchronized (this) {
+            current = snapshot;
+            return current != null ? current : loadAndKeep();
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    private Snapshot loadAndKeep() {
+        long loadedGeneration = generation.get();
+        Snapshot loaded = load();
+        if (generation.get() == loadedGeneration) {
+            snapshot = loaded;
+        }
+        return loaded;
+    }
+
+    private Snapshot load() {
+        List<AccountCategory> categories = categoryRepository.findAllOrderedByDisplayOrder();
+        List<AccountSubcategory> subcategories = subcategoryRepository.findAllWithCategoryOrderedByDisplayOrder();
+
+        Map<Long, List<AccountSubcategory>> activeSubcategories = new HashMap<>();
+        Map<String, AccountSubcategory> subcategoriesByName = new HashMap<>();
+        for (AccountSubcategory subcategory : subcategories) {
+            subcategoriesByName.putIfAbsent(subcategory.getName(), subcategory);
+            if (subcategory.isActive()) {
+                activeSubcategories.computeIfAbsent(subcategory.getCategory().getId(), id -> new ArrayList<>())
+                        .add(subcategory);
+            }
+        }
+
+        List<AccountCategory> activeCategories = new ArrayList<>();
+        Map<String, AccountCategory> categoriesByName = new HashMap<>();
+        Map<AccountCategory, List<AccountSubcategory>> withSubcategories = new LinkedHashMap<>();
+        Map<String, List<String>> namesWithSubcategoryNames = new LinkedHashMap<>();
+        for (AccountCategory category : categories) {
+            categoriesByName.putIfAbsent(category.getName(), category);
+            if (!category.isActive()) {
+                continue;
+            }
+            List<AccountSubcategory> active = List.copyOf(activeSubcategories.getOrDefault(category.getId(), List.of()));
+            activeCategories.add(category);
+            withSubcategories.put(category, active);
+            namesWithSubcategoryNames.put(category.getName(),
+                    active.stream().map(AccountSubcategory::getName).toList());
+        }
+
+        log.debug("Account categories loaded: {} categories, {} subcategories", categories.size(), subcategories.size());
+        return new Snapshot(
+                List.copyOf(activeCategories),
+                activeCategories.stream().map(AccountCategory::getName).toList(),
+                Collections.unmodifiableMap(withSubcategories),
+                Collections.unmodifiableMap(namesWithSubcategoryNames),
+                Map.copyOf(categoriesByName),
+                Map.copyOf(subcategoriesByName));
+    }
+
+    private void registerMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Account category reads served from memory")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, AtomicLong::get)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Account category reads that loaded the catalogue")
+                .register(registry);
+    }
+
+    /**
+     * The reference data at one point in time. Categories are in display order,
+     * lists only hold active entries; the name lookups cover inactive ones too.
+     */
+    @lombok.Value
+    public static class Snapshot {
+        List<AccountCategory> activeCategories;
+        List<String> categoryNames;
+        Map<AccountCategory, List<AccountSubcategory>> categoriesWithActiveSubcategories;
+        Map<String, List<String>> categoryNamesWithSubcategoryNames;
+        Map<String, AccountCategory> categoriesByName;
+        Map<String, AccountSubcategory> subcategoriesByName;
+    }
+}
@@ -14,7 +14,6 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +23,7 @@ public class AccountCategoryService {
     
     private final AccountCategoryRepository accountCategoryRepository;
     private final AccountSubcategoryRepository accountSubcategoryRepository;
+    private final AccountCategoryCatalog catalog;
     
     /**
      * Get all active categories ordered by display order
@@ -31,7 +31,7 @@ public class AccountCategoryService {
      */
     public List<AccountCategory> getAllActiveCategories() {
         try {
-            return accountCategoryRepository.findAllActiveOrderedByDisplayOrder();
+            return catalog.get().getActiveCategories();
         } catch (Exception e) {
             log.error("Error retrieving active categories", e);
             return new ArrayList<>();
@@ -61,7 +61,7 @@ public class AccountCategoryService {
      * @return optional category
      */
     public Optional<AccountCategory> findCategoryByName(String name) {
-        return accountCategoryRepository.findByName(name);
+        return Optional.ofNullable(name).map(catalog.get().getCategoriesByName()::get);
     }
     
     /**
@@ -97,7 +97,7 @@ public class AccountCategoryService {
      * @return optional subcategory
      */
     public Optional<AccountSubcategory> findSubcategoryByName(String name) {
-        return accountSubcategoryRepository.findByName(name);
+        return Optional.ofNullable(name).map(catalog.get().getSubcategoriesByName()::get);
     }
     
     /**
@@ -105,13 +105,7 @@ public class AccountCategoryService {
      * @return map of category to list of subcategories
      */
     public Map<AccountCategory, List<AccountSubcategory>> getCategoriesWithActiveSubcategories() {
-        List<AccountCategory> categories = getAllActiveCategories();
-        Map<AccountCategory, List<AccountSubcategory>> result = new LinkedHashMap<>();
-        for (AccountCategory category : categories) {
-            List<AccountSubcategory> subcategories = getActiveSubcategoriesByCategory(category.getCode());
-            result.put(category, subcategories);
-        }
-        return result;
+        return catalog.get().getCategoriesWithActiveSubcategories();
     }
     
     /**
@@ -119,9 +113,7 @@ public class AccountCategoryService {
      * @return list of category names
      */
     public List<String> getCategoryNames() {
-        return getAllActiveCategories().stream()
-                .map(AccountCategory::getName)
-                .collect(Collectors.toList());
+        return catalog.get().getCategoryNames();
     }
     
     /**
@@ -130,23 +122,7 @@ public class AccountCategoryService {
      */
     public Map<String, List<String>> getCategoriesWithSubcategoriesAsStrings() {
         try {
-            List<AccountCategory> categories = getAllActiveCategories();
-            Map<String, List<String>> result = new LinkedHashMap<>();
-            for (AccountCategory category : categories) {
-                try {
-                    List<AccountSubcategory> subcategories = getActiveSubcategoriesByCategory(category.getCode());
-                    List<String> subcategoryNames = new ArrayList<>();
-                    for (AccountSubcategory subcategory : subcategories) {
-                        subcategoryNames.add(subcategory.getName());
-                    }
-                    result.put(category.getName(), subcategoryNames);
-                } catch (Exception e) {
-                    log.warn("Error processing subcategories for category: {}", category.getName(), e);
-                    // Still add the category with an empty list of subcategories
-                    result.put(category.getName(), new ArrayList<>());
-                }
-            }
-            return result;
+            return catalog.get().getCategoryNamesWithSubcategoryNames();
         } catch (Exception e) {
             log.error("Error retrieving categories with subcategories", e);
             return new LinkedHashMap<>();
@@ -173,7 +149,9 @@ public class AccountCategoryService {
                 .active(true)
                 .build();
         
-        return accountCategoryRepository.save(category);
+        AccountCategory saved = accountCategoryRepository.save(category);
+        AfterCommit.run(catalog::invalidate);
+        return saved;
     }
     
     /**
@@ -201,6 +179,8 @@ public class AccountCategoryService {
                 .active(true)
                 .build();
         
-        return accountSubcategoryRepository.save(subcategory);
+        AccountSubcategory saved = accountSubcategoryRepository.save(subcategory);
+        AfterCommit.run(catalog::invalidate);
+        return saved;
     }
 }
\ No newline at end of file
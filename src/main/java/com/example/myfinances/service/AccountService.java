@@ -22,6 +22,8 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final AccountCategoryService accountCategoryService;
+    private final FxRateService fxRateService;
+    private final UserDataVersion userDataVersion;
 
     public Account createAccount(User user, String name, String category, String subcategory, String currency, BigDecimal initialBalance) {
         log.info("Creating account '{}' with category '{}' for user ID: {}", name, category, user.getId());
@@ -54,6 +56,7 @@ public class AccountService {
                 .build();
 
         Account savedAccount = accountRepository.save(account);
+        userDataVersion.bumpAfterCommit(user.getId());
         log.info("Account created successfully with ID: {}", savedAccount.getId());
         
         return savedAccount;
@@ -77,7 +80,7 @@ public class AccountService {
     @Transactional(readOnly = true)
     public Optional<Account> findByIdAndUser(Long accountId, User user) {
         return accountRepository.findById(accountId)
-                .filter(account -> account.getUser().equals(user));
+                .filter(account -> account.getUser().getId().equals(user.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -85,19 +88,29 @@ public class AccountService {
         return findByIdAndUser(accountId, user);
     }
 
+    /**
+     * Total balance of the active non-credit accounts, converted to the base currency.
+     * Balances in a currency without an exchange rate yet are left out and listed.
+     */
     @Transactional(readOnly = true)
-    public BigDecimal getTotalBalance(User user) {
-        return accountRepository.getTotalBalanceByUser(user);
+    public FxRates.BaseTotal getTotalBalance(User user) {
+        return fxRateService.current().sumInBase(accountRepository.getBalancesByCurrency(user));
     }
 
+    /**
+     * Total balance of the active accounts in a category, converted to the base currency.
+     * Balances in a currency without an exchange rate yet are left out, as in {@link #getTotalBalance}.
+     */
     @Transactional(readOnly = true)
     public BigDecimal getTotalBalanceByCategory(User user, String category) {
-        return accountRepository.getTotalBalanceByUserAndCategory(user, category);
+        return fxRateService.current().sumInBase(accountRepository.getBalancesByCurrencyAndCategory(user, category)).total();
     }
 
     public Account updateAccount(Account account) {
         log.info("Updating account ID: {}", account.getId());
-        return accountRepository.save(account);
+        Account savedAccount = accountRepository.save(account);
+        userDataVersion.bumpAfterCommit(savedAccount.getUser().getId());
+        return savedAccount;
     }
 
     public void updateBalance(Long accountId, BigDecimal newBalance) {
@@ -109,6 +122,7 @@ public class AccountService {
         
         account.setBalance(newBalance);
         accountRepository.save(account);
+        userDataVersion.bumpAfterCommit(account.getUser().getId());
     }
 
     public void adjustBalance(Long accountId, BigDecimal amount) {
@@ -121,6 +135,7 @@ public class AccountService {
         
         account.setBalance(newBalance);
         accountRepository.save(account);
+        userDataVersion.bumpAfterCommit(account.getUser().getId());
     }
 
     public void deactivateAccount(Long accountId, User user) {
@@ -129,6 +144,7 @@ public class AccountService {
         
         account.setActive(false);
         accountRepository.save(account);
+        userDataVersion.bumpAfterCommit(user.getId());
         log.info("Account deactivated: {}", accountId);
     }
 
@@ -138,6 +154,7 @@ public class AccountService {
         
         account.setActive(true);
         accountRepository.save(account);
+        userDataVersion.bumpAfterCommit(user.getId());
         log.info("Account reactivated: {}", accountId);
     }
 
@@ -161,6 +178,7 @@ public class AccountService {
 
         accountRepository.save(fromAccount);
         accountRepository.save(toAccount);
+        userDataVersion.bumpAfterCommit(user.getId());
 
         log.info("Transfer completed: {} {} from account {} to account {}", 
                 amount, fromAccount.getCurrency(), fromAccountId, toAccountId);
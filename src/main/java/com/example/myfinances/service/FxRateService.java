@@ -0,0 +1,153 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.FxRate;
+import com.example.myfinances.repository.AccountRepository;
+import com.example.myfinances.repository.FxRateRepository;
+import com.example.myfinances.repository.InvestmentProductRepository;
+import com.example.myfinances.repository.InvestmentValuation;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Current exchange rates against the base currency.
+ *
+ * The rates live in the {@code fx_rates} table and in an in-memory {@link FxRates}
+ * snapshot that conversions read without touching the database. The snapshot is
+ * loaded from the table at startup and replaced after every refresh from the
+ * {@link FxRateSource}, which covers every currency used by an account or product.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FxRateService {
+
+    private final FxRateRepository fxRateRepository;
+    private final FxRateSource fxRateSource;
+    private final AccountRepository accountRepository;
+    private final InvestmentProductRepository investmentProductRepository;
+    private final ApplicationProperties applicationProperties;
+    private final PriceDataVersion priceDataVersion;
+
+    private volatile FxRates snapshot;
+
+    public FxRates current() {
+        FxRates rates = snapshot;
+        if (rates == null) {
+            rates = FxRates.empty(baseCurrency());
+            snapshot = rates;
+        }
+        return rates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadStoredRates() {
+        try {
+            Map<String, BigDecimal> rates = new HashMap<>();
+            LocalDateTime asOf = null;
+            for (FxRate rate : fxRateRepository.findAll()) {
+                rates.put(rate.getCurrency(), rate.getRate());
+                if (asOf == null || rate.getUpdatedAt().isAfter(asOf)) {
+                    asOf = rate.getUpdatedAt();
+                }
+            }
+            snapshot = FxRates.of(baseCurrency(), rates, asOf);
+            log.info("Loaded {} exchange rates (as of {})", rates.size(), asOf);
+        } catch (DataAccessException e) {
+            log.warn("Could not load stored exchange rates: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.fx.refresh-interval:PT1H}", initialDelayString = "PT30S")
+    public void scheduledRefresh() {
+        if (applicationProperties.getFx().isRefreshEnabled()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Fetch the rates of every currency in use, store them and publish a new snapshot
+     *
+     * @return number of rates refreshed
+     */
+    public int refresh() {
+        String base = baseCurrency();
+        Set<String> currencies = new TreeSet<>();
+        for (String currency : accountRepository.findDistinctCurrencies()) {
+            currencies.add(FxRates.rateCurrency(currency));
+        }
+        for (String currency : investmentProductRepository.findDistinctCurrencies()) {
+            currencies.add(FxRates.rateCurrency(currency));
+        }
+        currencies.remove(base);
+        if (currencies.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, BigDecimal> fetched = fxRateSource.fetchRates(base, currencies);
+        if (fetched.isEmpty()) {
+            log.warn("No exchange rates returned for {}", currencies);
+            return 0;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, BigDecimal> rates = new HashMap<>();
+        List<FxRate> rows = new ArrayList<>(fetched.size());
+        fetched.forEach((currency, rate) -> {
+            BigDecimal stored = rate.setScale(8, RoundingMode.HALF_UP);
+            rates.put(currency, stored);
+            rows.add(FxRate.builder().currency(currency).rate(stored).updatedAt(now).build());
+        });
+        fxRateRepository.saveAll(rows);
+
+        snapshot = current().with(rates, now);
+        priceDataVersion.bump();
+        log.info("Refreshed {} of {} exchange rates against {}", rates.size(), currencies.size(), base);
+        return rates.size();
+    }
+
+    /**
+     * The valuations with their current value in base currency at today's rates.
+     * Holdings in a currency without a known rate keep the value at their purchase rate.
+     */
+    public List<InvestmentValuation> atCurrentRates(List<InvestmentValuation> valuations) {
+        int n = valuations.size();
+        String[] currencies = new String[n];
+        double[] values = new double[n];
+        double[] atPurchaseRate = new double[n];
+        for (int i = 0; i < n; i++) {
+            InvestmentValuation valuation = valuations.get(i);
+            currencies[i] = valuation.getCurrency();
+            values[i] = valuation.getCurrentValue().doubleValue();
+            atPurchaseRate[i] = valuation.getCurrentValueBaseCurrency().doubleValue();
+        }
+
+        double[] converted = current().toBase(currencies, values, atPurchaseRate);
+
+        List<InvestmentValuation> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(valuations.get(i).withCurrentValueBaseCurrency(
+                    BigDecimal.valueOf(converted[i]).setScale(2, RoundingMode.HALF_UP)));
+        }
+        return result;
+    }
+
+    public String baseCurrency() {
+        return applicationProperties.getFx().getBaseCurrency();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.myfinances.service;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Source of current exchange rates
+ */
+public interface FxRateSource {
+
+    /**
+     * @return units of each currency per one unit of {@code baseCurrency}; currencies
+     *         the source has no rate for are left out
+     */
+    Map<String, BigDecimal> fetchRates(String baseCurrency, Collection<String> currencies);
+}
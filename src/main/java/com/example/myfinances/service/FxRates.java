@@ -0,0 +1,201 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.repository.CurrencyAmount;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable snapshot of exchange rates against the base currency.
+ *
+ * Rates are held as a dense array of units per one unit of base currency, so any
+ * cross rate is {@code perBase[to] / perBase[from]} and a batch of amounts is
+ * converted in one pass over primitive arrays. A refresh publishes a new snapshot
+ * instead of mutating this one, so readers never see a half-updated rate set.
+ */
+public final class FxRates {
+
+    /** Quote currencies expressed in minor units (e.g. London prices in pence) */
+    private static final Map<String, String> MINOR_UNITS = Map.of(
+            "GBp", "GBP",
+            "GBX", "GBP",
+            "ZAc", "ZAR",
+            "ILA", "ILS");
+
+    private final String baseCurrency;
+    private final LocalDateTime asOf;
+    private final Map<String, Integer> index;
+    private final double[] perBase;
+
+    private FxRates(String baseCurrency, LocalDateTime asOf, Map<String, Integer> index, double[] perBase) {
+        this.baseCurrency = baseCurrency;
+        this.asOf = asOf;
+        this.index = index;
+        this.perBase = perBase;
+    }
+
+    public static FxRates empty(String baseCurrency) {
+        return of(baseCurrency, Map.of(), null);
+    }
+
+    /**
+     * @param ratesPerBase units of each currency per one unit of base currency
+     */
+    public static FxRates of(String baseCurrency, Map<String, BigDecimal> ratesPerBase, LocalDateTime asOf) {
+        Map<String, Integer> index = new HashMap<>();
+        double[] perBase = new double[ratesPerBase.size() + 1];
+
+        index.put(baseCurrency, 0);
+        perBase[0] = 1.0;
+        for (Map.Entry<String, BigDecimal> entry : ratesPerBase.entrySet()) {
+            String currency = entry.getKey().toUpperCase();
+            BigDecimal rate = entry.getValue();
+            if (rate == null || rate.signum() <= 0 || currency.equals(baseCurrency) || index.containsKey(currency)) {
+                continue;
+            }
+            int slot = index.size();
+            index.put(currency, slot);
+            perBase[slot] = rate.doubleValue();
+        }
+
+        return new FxRates(baseCurrency, asOf, Collections.unmodifiableMap(index),
+                Arrays.copyOf(perBase, index.size()));
+    }
+
+    /**
+     * A new snapshot with the given rates added or replaced
+     */
+    public FxRates with(Map<String, BigDecimal> updates, LocalDateTime asOf) {
+        Map<String, BigDecimal> merged = new HashMap<>(toMap());
+        merged.putAll(updates);
+        return of(baseCurrency, merged, asOf);
+    }
+
+    public String getBaseCurrency() {
+        return baseCurrency;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public int size() {
+        return index.size() - 1;
+    }
+
+    public boolean hasRate(String currency) {
+        return !Double.isNaN(toBaseFactor(currency));
+    }
+
+    /**
+     * Multiplier that converts an amount in {@code currency} to the base currency,
+     * or NaN when there is no rate for it
+     */
+    public double toBaseFactor(String currency) {
+        if (currency == null) {
+            return Double.NaN;
+        }
+        double scale = 1.0;
+        String major = MINOR_UNITS.get(currency);
+        if (major != null) {
+            currency = major;
+            scale = 0.01;
+        }
+        Integer slot = index.get(currency.toUpperCase());
+        return slot != null ? scale / perBase[slot] : Double.NaN;
+    }
+
+    /**
+     * Cross rate between two currencies, or NaN when either rate is unknown
+     */
+    public double convert(double amount, String from, String to) {
+        return amount * toBaseFactor(from) / toBaseFactor(to);
+    }
+
+    /**
+     * Converts {@code amounts[i]}, quoted in {@code currencies[i]}, to the base currency.
+     * Where no rate is known the result is {@code fallback[i]} (already in base currency)
+     * when a fallback array is given, NaN otherwise.
+     */
+    public double[] toBase(String[] currencies, double[] amounts, double[] fallback) {
+        int n = amounts.length;
+
+        // Resolve each distinct currency once, then convert in a single pass
+        double[] factors = new double[n];
+        Map<String, Double> resolved = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            factors[i] = resolved.computeIfAbsent(currencies[i], this::toBaseFactor);
+        }
+
+        double[] result = new double[n];
+        for (int i = 0; i < n; i++) {
+            double converted = amounts[i] * factors[i];
+            result[i] = Double.isNaN(converted) && fallback != null ? fallback[i] : converted;
+        }
+        return result;
+    }
+
+    /**
+     * Sum of the amounts in base currency, rounded to 2 decimals. Amounts in a currency
+     * without a known rate are left out of the total and their currencies listed,
+     * never added at par.
+     */
+    public BaseTotal sumInBase(List<CurrencyAmount> amounts) {
+        int n = amounts.size();
+        String[] currencies = new String[n];
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++) {
+            CurrencyAmount amount = amounts.get(i);
+            currencies[i] = amount.getCurrency();
+            values[i] = amount.getAmount() != null ? amount.getAmount().doubleValue() : 0;
+        }
+
+        double[] converted = toBase(currencies, values, null);
+        double sum = 0;
+        Set<String> unconverted = new TreeSet<>();
+        for (int i = 0; i < n; i++) {
+            if (!Double.isNaN(converted[i])) {
+                sum += converted[i];
+            } else if (values[i] != 0) {
+                unconverted.add(currencies[i]);
+            }
+        }
+        return new BaseTotal(BigDecimal.valueOf(sum).setScale(2, RoundingMode.HALF_UP), List.copyOf(unconverted));
+    }
+
+    /**
+     * Currency whose exchange rate prices {@code currency}, i.e. GBP for pence quotes
+     */
+    public static String rateCurrency(String currency) {
+        String major = MINOR_UNITS.get(currency);
+        return major != null ? major : currency.toUpperCase();
+    }
+
+    /**
+     * A total in base currency, and the currencies left out of it for lack of a rate
+     */
+    public record BaseTotal(BigDecimal total, List<String> unconverted) {
+
+        public boolean isComplete() {
+            return unconverted.isEmpty();
+        }
+    }
+
+    private Map<String, BigDecimal> toMap() {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        index.forEach((currency, slot) -> {
+            if (slot > 0) {
+                rates.put(currency, BigDecimal.valueOf(perBase[slot]));
+            }
+        });
+        return rates;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.myfinances.service;
 
 import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.repository.InvestmentProductJdbcRepository;
 import com.example.myfinances.repository.InvestmentProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -10,8 +11,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -21,6 +27,16 @@ public class InvestmentProductService {
 
     private final InvestmentProductRepository productRepository;
     private final YahooFinanceApiService yahooFinanceApiService;
+    private final ProductPriceWriteBack priceWriteBack;
+    private final InvestmentProductJdbcRepository productJdbcRepository;
+    private final ProductSearchIndex searchIndex;
+    private final ProductCatalogueStats catalogueStats;
+    
+    /** Maximum number of products returned by a catalogue search */
+    static final int SEARCH_LIMIT = 20;
+    
+    /** Size of the most popular products list */
+    static final int MOST_POPULAR_LIMIT = 10;
     
     // API Integration Methods
     
@@ -96,44 +112,50 @@ public class InvestmentProductService {
     
     /**
      * Search for products via Yahoo Finance API and optionally save them
-     * First checks database for existing products to return persisted entities
+     * First checks database for existing products to return persisted entities.
+     *
+     * Symbols are resolved in bulk: one query for the symbols already in the database,
+     * one API call for the rest and one batched write for the products found.
      */
     public List<InvestmentProduct> searchProductsFromApi(List<String> symbols, String region, boolean saveToDatabase) {
         log.info("Searching for products from API: {} in region: {}", symbols, region);
         
-        List<InvestmentProduct> results = new ArrayList<>();
-        List<String> symbolsToSearchFromApi = new ArrayList<>();
-        
-        // First, check which products already exist in database
+        Set<String> requested = new LinkedHashSet<>();
         for (String symbol : symbols) {
             String upperSymbol = symbol.trim().toUpperCase();
-            
-            // Try to find existing product (assume USD currency for now, adjust as needed)
-            Optional<InvestmentProduct> existing = findBySymbolAndCurrency(upperSymbol, "USD");
-            if (existing.isEmpty() && !"USD".equals("EUR")) {
-                // Try EUR if USD not found
-                existing = findBySymbolAndCurrency(upperSymbol, "EUR");
+            if (!upperSymbol.isEmpty()) {
+                requested.add(upperSymbol);
             }
-            
-            if (existing.isPresent()) {
-                log.debug("Found existing product in database: {}", upperSymbol);
-                results.add(existing.get());
+        }
+        if (requested.isEmpty()) {
+            return List.of();
+        }
+        
+        // First, check which products already exist in database
+        Map<String, List<InvestmentProduct>> listings = groupBySymbol(productRepository.findBySymbolIn(requested));
+        
+        List<InvestmentProduct> results = new ArrayList<>();
+        List<String> symbolsToSearchFromApi = new ArrayList<>();
+        for (String symbol : requested) {
+            InvestmentProduct existing = preferredListing(listings.get(symbol));
+            if (existing != null) {
+                log.debug("Found existing product in database: {}", symbol);
+                results.add(existing);
             } else {
-                log.debug("Product not in database, will search API: {}", upperSymbol);
-                symbolsToSearchFromApi.add(upperSymbol);
+                log.debug("Product not in database, will search API: {}", symbol);
+                symbolsToSearchFromApi.add(symbol);
             }
         }
         
         // Search API only for products not found in database
         if (!symbolsToSearchFromApi.isEmpty()) {
+            // Looked up without a match, so the upsert need not query them again
+            symbolsToSearchFromApi.forEach(symbol -> listings.put(symbol, List.of()));
             List<InvestmentProduct> productsFromApi = yahooFinanceApiService.searchBySymbols(symbolsToSearchFromApi, region);
             
             if (saveToDatabase && !productsFromApi.isEmpty()) {
                 // Save or update products in database and add persisted entities to results
-                for (InvestmentProduct product : productsFromApi) {
-                    InvestmentProduct saved = saveOrUpdateProduct(product);
-                    results.add(saved);
-                }
+                results.addAll(saveOrUpdateProducts(productsFromApi, listings));
                 log.info("Saved {} new products to database", productsFromApi.size());
             } else {
                 // Add API results without saving
@@ -142,11 +164,98 @@ public class InvestmentProductService {
         }
         
         log.info("Returning {} total products ({} from database, {} from API)", 
-                results.size(), results.size() - symbolsToSearchFromApi.size(), symbolsToSearchFromApi.size());
+                results.size(), requested.size() - symbolsToSearchFromApi.size(), symbolsToSearchFromApi.size());
         
         return results;
     }
     
+    /**
+     * Listing returned for a symbol search: USD first, then EUR, then any other currency
+     */
+    private static InvestmentProduct preferredListing(List<InvestmentProduct> listings) {
+        if (listings == null || listings.isEmpty()) {
+            return null;
+        }
+        for (String currency : List.of("USD", "EUR")) {
+            for (InvestmentProduct listing : listings) {
+                if (currency.equals(listing.getCurrency())) {
+                    return listing;
+                }
+            }
+        }
+        return listings.get(0);
+    }
+    
+    private static Map<String, List<InvestmentProduct>> groupBySymbol(List<InvestmentProduct> products) {
+        Map<String, List<InvestmentProduct>> bySymbol = new HashMap<>();
+        for (InvestmentProduct product : products) {
+            bySymbol.computeIfAbsent(product.getSymbol(), k -> new ArrayList<>()).add(product);
+        }
+        return bySymbol;
+    }
+    
+    /**
+     * Upsert products fetched from the API: listings that already exist (same symbol and
+     * currency) are updated in place and flushed as a JDBC batch, new ones are inserted
+     * in one batch and reloaded with a single query.
+     *
+     * @param listings existing products of the same symbols, by symbol
+     */
+    private List<InvestmentProduct> saveOrUpdateProducts(List<InvestmentProduct> products,
+                                                         Map<String, List<InvestmentProduct>> listings) {
+        List<InvestmentProduct> saved = new ArrayList<>(products.size());
+        List<InvestmentProduct> toInsert = new ArrayList<>();
+        
+        // The API may answer with a different symbol than requested (e.g. with an exchange suffix)
+        Set<String> unknownSymbols = new HashSet<>();
+        for (InvestmentProduct product : products) {
+            if (!listings.containsKey(product.getSymbol())) {
+                unknownSymbols.add(product.getSymbol());
+            }
+        }
+        if (!unknownSymbols.isEmpty()) {
+            listings = new HashMap<>(listings);
+            listings.putAll(groupBySymbol(productRepository.findBySymbolIn(unknownSymbols)));
+        }
+        
+        for (InvestmentProduct product : products) {
+            InvestmentProduct existing = null;
+            for (InvestmentProduct listing : listings.getOrDefault(product.getSymbol(), List.of())) {
+                if (listing.getCurrency().equals(product.getCurrency())) {
+                    existing = listing;
+                }
+            }
+            if (existing != null) {
+                updateProductData(existing, product);
+                saved.add(existing);
+            } else {
+                toInsert.add(product);
+            }
+        }
+        
+        if (!toInsert.isEmpty()) {
+            productJdbcRepository.insertProducts(toInsert, LocalDateTime.now());
+            
+            Set<String> inserted = new HashSet<>();
+            for (InvestmentProduct product : toInsert) {
+                inserted.add(product.getSymbol() + '\0' + product.getCurrency());
+            }
+            Set<String> symbols = new HashSet<>();
+            toInsert.forEach(product -> symbols.add(product.getSymbol()));
+            for (InvestmentProduct product : productRepository.findBySymbolIn(symbols)) {
+                if (inserted.contains(product.getSymbol() + '\0' + product.getCurrency())) {
+                    saved.add(product);
+                }
+            }
+        }
+        
+        for (InvestmentProduct product : saved) {
+            searchIndex.index(product);
+            catalogueStats.productSaved(product);
+        }
+        return saved;
+    }
+    
     /**
      * Get single product from API
      */
@@ -170,17 +279,32 @@ public class InvestmentProductService {
     public void updateProductPricesFromApi(List<InvestmentProduct> products) {
         if (products.isEmpty()) return;
         
-        log.info("Updating prices for {} products", products.size());
-        
         try {
-            yahooFinanceApiService.updatePrices(products);
-            productRepository.saveAll(products);
-            log.info("Successfully updated prices for {} products", products.size());
+            refreshPrices(products);
         } catch (Exception e) {
             log.error("Error updating product prices from API", e);
         }
     }
     
+    /**
+     * Fetch quotes for the products in one API call and write them back, on the calling thread
+     */
+    public ProductPriceWriteBack.Result refreshPrices(List<InvestmentProduct> products) {
+        log.info("Updating prices for {} products", products.size());
+        
+        List<String> symbols = products.stream()
+                .map(InvestmentProduct::getSymbol)
+                .distinct()
+                .toList();
+        
+        // Group by region if needed, for now use US as default
+        Map<String, QuoteUpdate> quotes = yahooFinanceApiService.fetchQuotes(symbols, "US");
+        ProductPriceWriteBack.Result result = priceWriteBack.apply(products, quotes);
+        log.info("Successfully updated prices for {} products ({} changed, {} unchanged, {} without quote)",
+                products.size(), result.getChanged(), result.getUnchanged(), result.getMissing());
+        return result;
+    }
+    
     /**
      * Update prices for products that haven't been updated recently
      */
@@ -202,15 +326,19 @@ public class InvestmentProductService {
         Optional<InvestmentProduct> existingProduct = productRepository
                 .findBySymbolAndCurrency(product.getSymbol(), product.getCurrency());
         
+        InvestmentProduct saved;
         if (existingProduct.isPresent()) {
             // Update existing product
             InvestmentProduct existing = existingProduct.get();
             updateProductData(existing, product);
-            return productRepository.save(existing);
+            saved = productRepository.save(existing);
         } else {
             // Save new product
-            return productRepository.save(product);
+            saved = productRepository.save(product);
         }
+        searchIndex.index(saved);
+        catalogueStats.productSaved(saved);
+        return saved;
     }
     
     private void updateProductData(InvestmentProduct existing, InvestmentProduct newData) {
@@ -246,12 +374,42 @@ public class InvestmentProductService {
         return productRepository.findBySymbolIgnoreCaseOrderByCurrency(symbol);
     }
     
+    /**
+     * Best matching products for a search term, best first, from the in-memory
+     * search index (or the database while the index is not built)
+     */
     @Transactional(readOnly = true)
     public List<InvestmentProduct> searchProducts(String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return productRepository.findAll();
         }
-        return productRepository.searchProducts(searchTerm.trim());
+        if (!searchIndex.isReady()) {
+            return productRepository.searchProducts(searchTerm.trim());
+        }
+        
+        return findAllInOrder(searchIndex.search(searchTerm, SEARCH_LIMIT));
+    }
+    
+    /**
+     * Load products in one query, in the order of the given ids
+     */
+    private List<InvestmentProduct> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, InvestmentProduct> byId = new HashMap<>();
+        for (InvestmentProduct product : productRepository.findAllById(ids)) {
+            byId.put(product.getId(), product);
+        }
+        List<InvestmentProduct> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            InvestmentProduct product = byId.get(id);
+            if (product != null) {
+                results.add(product);
+            }
+        }
+        return results;
     }
     
     @Transactional(readOnly = true)
@@ -281,7 +439,7 @@ public class InvestmentProductService {
     
     @Transactional(readOnly = true)
     public List<InvestmentProduct> findMostPopular() {
-        return productRepository.findMostPopularProducts();
+        return findAllInOrder(catalogueStats.mostPopular(MOST_POPULAR_LIMIT));
     }
     
     @Transactional(readOnly = true)
@@ -293,39 +451,39 @@ public class InvestmentProductService {
     
     @Transactional(readOnly = true)
     public List<InvestmentProduct.InvestmentType> getDistinctTypes() {
-        return productRepository.findDistinctTypes();
+        return catalogueStats.types();
     }
     
     @Transactional(readOnly = true)
     public List<String> getDistinctCurrencies() {
-        return productRepository.findDistinctCurrencies();
+        return catalogueStats.currencies();
     }
     
     @Transactional(readOnly = true)
     public List<String> getDistinctExchanges() {
-        return productRepository.findDistinctExchanges();
+        return catalogueStats.exchanges();
     }
     
     @Transactional(readOnly = true)
     public List<String> getDistinctSectors() {
-        return productRepository.findDistinctSectors();
+        return catalogueStats.sectors();
     }
     
     @Transactional(readOnly = true)
     public List<String> getDistinctRegions() {
-        return productRepository.findDistinctRegions();
+        return catalogueStats.regions();
     }
     
     // Statistics
     
     @Transactional(readOnly = true)
     public long countByType(InvestmentProduct.InvestmentType type) {
-        return productRepository.countByType(type);
+        return catalogueStats.countByType(type);
     }
     
     @Transactional(readOnly = true)
     public long countByCurrency(String currency) {
-        return productRepository.countByCurrency(currency);
+        return catalogueStats.countByCurrency(currency);
     }
     
     @Transactional(readOnly = true)
@@ -335,6 +493,8 @@ public class InvestmentProductService {
     
     public void deleteProduct(InvestmentProduct product) {
         productRepository.delete(product);
+        searchIndex.remove(product.getId());
+        catalogueStats.productRemoved(product.getId());
     }
     
     // Batch operations for API data
@@ -355,11 +515,11 @@ public class InvestmentProductService {
     }
     
     /**
-     * Get summary statistics about products in the database
+     * Get summary statistics about products in the database, from the in-memory catalogue statistics
      */
     @Transactional(readOnly = true)
     public ProductSummary getProductSummary() {
-        long totalProducts = productRepository.count();
+        long totalProducts = catalogueStats.totalProducts();
         List<InvestmentProduct.InvestmentType> types = getDistinctTypes();
         List<String> currencies = getDistinctCurrencies();
         List<String> exchanges = getDistinctExchanges();
@@ -4,6 +4,8 @@ import com.example.myfinances.model.Investment;
 import com.example.myfinances.model.InvestmentProduct;
 import com.example.myfinances.model.User;
 import com.example.myfinances.repository.InvestmentRepository;
+import com.example.myfinances.repository.InvestmentValuation;
+import com.example.myfinances.repository.PortfolioTotals;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -11,10 +13,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +28,14 @@ public class InvestmentService {
 
     private final InvestmentRepository investmentRepository;
     private final InvestmentProductService investmentProductService;
+    private final PortfolioPerformanceService portfolioPerformanceService;
+    private final PortfolioProjectionService portfolioProjectionService;
+    private final PortfolioRiskService portfolioRiskService;
+    private final FxRateService fxRateService;
+    private final ProductCatalogueStats catalogueStats;
+    private final PriceRefreshScheduler priceRefreshScheduler;
+    private final PriceRefreshQueue priceRefreshQueue;
+    private final UserDataVersion userDataVersion;
     
     // CRUD Operations
     
@@ -44,7 +56,10 @@ public class InvestmentService {
                 .notes(notes)
                 .build();
         
-        return investmentRepository.save(investment);
+        Investment saved = investmentRepository.save(investment);
+        investmentsChanged(user.getId());
+        catalogueStats.investmentAdded(product.getId());
+        return saved;
     }
     
     public Investment createInvestment(User user, InvestmentProduct product, BigDecimal quantity, 
@@ -54,12 +69,27 @@ public class InvestmentService {
     
     public Investment updateInvestment(Investment investment) {
         log.info("Updating investment: {}", investment.getId());
-        return investmentRepository.save(investment);
+        Investment saved = investmentRepository.save(investment);
+        investmentsChanged(investment.getUser().getId());
+        return saved;
     }
     
     public void deleteInvestment(Investment investment) {
         log.info("Deleting investment: {}", investment.getId());
         investmentRepository.delete(investment);
+        investmentsChanged(investment.getUser().getId());
+        catalogueStats.investmentRemoved(investment.getProduct().getId());
+    }
+    
+    /**
+     * Invalidate everything derived from the user's holdings, once the write commits.
+     * Every investment write goes through here, so a new per-user cache is added once.
+     */
+    private void investmentsChanged(Long userId) {
+        portfolioPerformanceService.evict(userId);
+        portfolioProjectionService.evict(userId);
+        portfolioRiskService.evict(userId);
+        userDataVersion.bumpAfterCommit(userId);
     }
     
     // Finder methods
@@ -116,19 +146,33 @@ public class InvestmentService {
     
     @Transactional(readOnly = true)
     public PortfolioSummary getPortfolioSummary(User user) {
-        List<Investment> investments = findByUser(user);
+        List<PortfolioTotals> totalsByCurrency = investmentRepository.getPortfolioTotalsByCurrency(user);
         
+        // Cost stays at the purchase exchange rates; current value is converted at today's rates
+        int n = totalsByCurrency.size();
+        String[] currencies = new String[n];
+        double[] currentValues = new double[n];
+        double[] currentValuesAtPurchaseRate = new double[n];
+        long holdings = 0;
         BigDecimal totalInvested = BigDecimal.ZERO;
         BigDecimal currentValue = BigDecimal.ZERO;
         BigDecimal totalInvestedBaseCurrency = BigDecimal.ZERO;
-        BigDecimal currentValueBaseCurrency = BigDecimal.ZERO;
+        for (int i = 0; i < n; i++) {
+            PortfolioTotals totals = totalsByCurrency.get(i);
+            holdings += totals.getHoldings();
+            totalInvested = totalInvested.add(orZero(totals.getTotalInvested()));
+            currentValue = currentValue.add(orZero(totals.getCurrentValue()));
+            totalInvestedBaseCurrency = totalInvestedBaseCurrency.add(orZero(totals.getTotalInvestedBaseCurrency()));
+            currencies[i] = totals.getCurrency();
+            currentValues[i] = orZero(totals.getCurrentValue()).doubleValue();
+            currentValuesAtPurchaseRate[i] = orZero(totals.getCurrentValueBaseCurrency()).doubleValue();
+        }
         
-        for (Investment investment : investments) {
-            totalInvested = totalInvested.add(investment.getTotalInvested());
-            currentValue = currentValue.add(investment.getCurrentValue());
-            totalInvestedBaseCurrency = totalInvestedBaseCurrency.add(investment.getTotalInvestedInBaseCurrency());
-            currentValueBaseCurrency = currentValueBaseCurrency.add(investment.getCurrentValueInBaseCurrency());
+        double currentValueInBase = 0;
+        for (double value : fxRateService.current().toBase(currencies, currentValues, currentValuesAtPurchaseRate)) {
+            currentValueInBase += value;
         }
+        BigDecimal currentValueBaseCurrency = BigDecimal.valueOf(currentValueInBase).setScale(2, RoundingMode.HALF_UP);
         
         BigDecimal totalGainLoss = currentValue.subtract(totalInvested);
         BigDecimal totalGainLossBaseCurrency = currentValueBaseCurrency.subtract(totalInvestedBaseCurrency);
@@ -140,7 +184,7 @@ public class InvestmentService {
         }
         
         return PortfolioSummary.builder()
-                .totalInvestments(investments.size())
+                .totalInvestments(holdings)
                 .totalInvested(totalInvested)
                 .currentValue(currentValue)
                 .totalInvestedBaseCurrency(totalInvestedBaseCurrency)
@@ -195,18 +239,23 @@ public class InvestmentService {
         return investmentRepository.findInvestmentsNeedingPriceUpdate(user, threshold);
     }
     
-    public void updateInvestmentPrices(User user) {
-        List<Investment> investments = findInvestmentsNeedingPriceUpdate(user, 4); // 4 hours threshold
+    /**
+     * Queue a refresh of the user's held products whose market has moved
+     *
+     * @return completes once those prices have been refreshed
+     */
+    public CompletableFuture<Void> updateInvestmentPrices(User user) {
+        List<InvestmentProduct> held = investmentRepository.findByUserOrderByPurchaseDateDesc(user).stream()
+                .map(Investment::getProduct)
+                .distinct()
+                .toList();
+        // Only products whose market has moved since their last refresh
+        List<InvestmentProduct> products = priceRefreshScheduler.filterDue(held, Instant.now());
         
-        if (!investments.isEmpty()) {
-            List<InvestmentProduct> products = investments.stream()
-                    .map(Investment::getProduct)
-                    .distinct()
-                    .toList();
-            
-            investmentProductService.updateProductPricesFromApi(products);
-            log.info("Triggered price update for {} products for user {}", products.size(), user.getId());
+        if (!products.isEmpty()) {
+            log.info("Queued price update for {} products for user {}", products.size(), user.getId());
         }
+        return priceRefreshQueue.submit(products);
     }
     
     // Helper methods for validation
@@ -219,18 +268,22 @@ public class InvestmentService {
     // Portfolio performance tracking
     
     @Transactional(readOnly = true)
-    public List<Investment> getProfitableInvestments(User user) {
-        return findByUser(user).stream()
-                .filter(Investment::isProfitable)
-                .toList();
+    public List<InvestmentValuation> getInvestmentValuations(User user) {
+        return fxRateService.atCurrentRates(investmentRepository.findValuationsByUser(user));
     }
     
     @Transactional(readOnly = true)
-    public List<Investment> getLosingInvestments(User user) {
-        return findByUser(user).stream()
-                .filter(investment -> !investment.isProfitable() && 
-                        investment.getTotalGainLoss().compareTo(BigDecimal.ZERO) < 0)
-                .toList();
+    public List<InvestmentValuation> getProfitableInvestments(User user) {
+        return fxRateService.atCurrentRates(investmentRepository.findProfitableValuationsByUser(user));
+    }
+    
+    @Transactional(readOnly = true)
+    public List<InvestmentValuation> getLosingInvestments(User user) {
+        return fxRateService.atCurrentRates(investmentRepository.findLosingValuationsByUser(user));
+    }
+    
+    private static BigDecimal orZero(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
     }
     
     // DTOs for portfolio analytics
@@ -0,0 +1,355 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fan-out hub for the per-user Server-Sent Events channel.
+ *
+ * Each open page holds one connection with a small bounded frame buffer, drained by
+ * a few shared sender threads; a connection whose buffer fills up (a client not
+ * reading) is closed rather than buffered further, and the browser reconnects.
+ * Connections of the same user share one channel, which also records the products
+ * the user watches, so a price tick is only rendered once per user and the same
+ * frame is queued to all of that user's tabs.
+ *
+ * Rendering runs on its own threads, so a send blocked on a client's full socket
+ * never holds up the fragments of other users; both pools have bounded queues and
+ * drop work rather than pile it up. A send still blocked after {@code send-timeout}
+ * gives its connection up: nothing more is queued for it, and the emitter, whose
+ * methods lock against the blocked send, is completed by the sender thread once the
+ * container's write timeout releases it. Producers never touch an emitter directly.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LiveUpdateHub {
+
+    private static final String EVENT_NAME = "update";
+
+    private static final Set<DataWithMediaType> HEARTBEAT = SseEmitter.event().comment("").build();
+
+    private final ApplicationProperties properties;
+
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    private final Map<Long, Set<UserChannel>> watchers = new ConcurrentHashMap<>();
+
+    private ExecutorService sender;
+    private ExecutorService renderer;
+
+    @PostConstruct
+    void start() {
+        ApplicationProperties.Live live = properties.getLive();
+        start(boundedPool(live.getSenderThreads(), live.getQueueCapacity(), "live-updates-"),
+                boundedPool(live.getRenderThreads(), live.getQueueCapacity(), "live-render-"));
+    }
+
+    void start(ExecutorService sendExecutor, ExecutorService renderExecutor) {
+        sender = sendExecutor;
+        renderer = renderExecutor;
+    }
+
+    @PreDestroy
+    void stop() {
+        renderer.shutdownNow();
+        sender.shutdownNow();
+        channels.values().forEach(channel -> channel.connections.forEach(c -> c.emitter.complete()));
+    }
+
+    private static ExecutorService boundedPool(int threads, int queueCapacity, String threadNamePrefix) {
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory(threadNamePrefix));
+    }
+
+    /**
+     * Open a connection for the user, watching price ticks of the given products.
+     * The product set replaces the one recorded by the user's other connections.
+     */
+    public SseEmitter connect(long userId, Collection<Long> productIds, Locale locale) {
+        ApplicationProperties.Live live = properties.getLive();
+        Connection connection = new Connection(userId,
+                new SseEmitter(live.getConnectionTimeout().toMillis()), live.getBufferSize());
+        connection.emitter.onCompletion(() -> disconnect(connection));
+        connection.emitter.onTimeout(connection.emitter::complete);
+        connection.emitter.onError(e -> disconnect(connection));
+
+        UserChannel channel = channels.compute(userId, (id, existing) -> {
+            UserChannel current = existing != null ? existing : new UserChannel(userId);
+            current.locale = locale;
+            watch(current, Set.copyOf(productIds));
+            current.connections.add(connection);
+            return current;
+        });
+
+        // Keep the per-user footprint bounded: the oldest tabs are usually gone anyway
+        while (channel.connections.size() > live.getMaxConnectionsPerUser()) {
+            close(channel.connections.get(0));
+        }
+
+        enqueue(connection, SseEmitter.event()
+                .reconnectTime(live.getHeartbeatInterval().toMillis())
+                .comment("connected")
+                .build());
+        log.debug("Live connection opened for user {} ({} products)", userId, productIds.size());
+        return connection.emitter;
+    }
+
+    public boolean isConnected(long userId) {
+        return channels.containsKey(userId);
+    }
+
+    public boolean hasConnections() {
+        return !channels.isEmpty();
+    }
+
+    public boolean isWatched(long productId) {
+        return watchers.containsKey(productId);
+    }
+
+    public int connectionCount() {
+        return channels.values().stream().mapToInt(channel -> channel.connections.size()).sum();
+    }
+
+    /**
+     * Locale of the user's latest connection, used to format pushed fragments
+     */
+    public Locale localeOf(long userId) {
+        UserChannel channel = channels.get(userId);
+        return channel != null && channel.locale != null ? channel.locale : Locale.getDefault();
+    }
+
+    /**
+     * Push an HTML fragment to every open page of the user
+     */
+    public void sendToUser(long userId, String html) {
+        UserChannel channel = channels.get(userId);
+        if (channel != null) {
+            publish(channel, html);
+        }
+    }
+
+    /**
+     * Push per-product fragments to the users watching those products, one frame
+     * per user holding all of that user's fragments
+     */
+    public void sendToWatchers(Map<Long, String> fragmentsByProduct) {
+        Map<UserChannel, StringBuilder> frames = new HashMap<>();
+        fragmentsByProduct.forEach((productId, html) -> {
+            Set<UserChannel> watching = watchers.get(productId);
+            if (watching != null) {
+                for (UserChannel channel : watching) {
+                    frames.computeIfAbsent(channel, c -> new StringBuilder()).append(html);
+                }
+            }
+        });
+        frames.forEach((channel, html) -> publish(channel, html.toString()));
+    }
+
+    /**
+     * Run rendering work off the calling thread, on the hub's render threads
+     *
+     * @return false if the task was dropped, the queue being full or the hub
+     *         shutting down
+     */
+    public boolean execute(Runnable task) {
+        try {
+            renderer.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("Live update task dropped, render queue full or hub shutting down");
+            return false;
+        }
+    }
+
+    /**
+     * Comment frame keeping idle connections open through proxies; also how
+     * connections of clients that went away without closing are found
+     */
+    @Scheduled(fixedDelayString = "${app.live.heartbeat-interval:PT25S}")
+    public void heartbeat() {
+        channels.values().forEach(channel -> channel.connections.forEach(c -> enqueue(c, HEARTBEAT)));
+    }
+
+    /**
+     * Give up connections whose send has been blocked longer than the send timeout
+     */
+    @Scheduled(fixedDelayString = "${app.live.send-timeout:PT10S}")
+    public void closeStalledConnections() {
+        long now = System.nanoTime();
+        long timeout = properties.getLive().getSendTimeout().toNanos();
+        channels.values().forEach(channel -> channel.connections.forEach(connection -> {
+            long since = connection.sendingSince;
+            if (since != 0 && now - since > timeout) {
+                log.debug("Live send to user {} blocked for over {}, closing", connection.userId,
+                        properties.getLive().getSendTimeout());
+                close(connection);
+            }
+        }));
+    }
+
+    private void publish(UserChannel channel, String html) {
+        // SSE data lines cannot contain line breaks; the fragments do not need them
+        Set<DataWithMediaType> frame = SseEmitter.event()
+                .name(EVENT_NAME)
+                .data(html.replace('\r', ' ').replace('\n', ' '))
+                .build();
+        channel.connections.forEach(connection -> enqueue(connection, frame));
+    }
+
+    private void enqueue(Connection connection, Set<DataWithMediaType> frame) {
+        if (connection.closed) {
+            return;
+        }
+        if (!connection.buffer.offer(frame)) {
+            log.debug("Dropping slow live connection of user {}", connection.userId);
+            close(connection);
+            return;
+        }
+        scheduleDrain(connection);
+    }
+
+    /**
+     * Close a connection from any thread: it is disconnected at once, and its emitter
+     * completed on a sender thread
+     */
+    private void close(Connection connection) {
+        disconnect(connection);
+        connection.completing = true;
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) {
+        if (!connection.draining.compareAndSet(false, true)) {
+            // The running drain picks the work up
+            return;
+        }
+        try {
+            sender.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            connection.draining.set(false);
+            if (!connection.closed) {
+                log.debug("Send queue full, dropping live connection of user {}", connection.userId);
+                disconnect(connection);
+            }
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            Set<DataWithMediaType> frame;
+            while (!connection.closed && (frame = connection.buffer.poll()) != null) {
+                connection.sendingSince = System.nanoTime();
+                connection.emitter.send(frame);
+                connection.sendingSince = 0;
+            }
+            if (connection.completing && !connection.completed) {
+                connection.completed = true;
+                connection.emitter.complete();
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away, or the emitter already completed
+            disconnect(connection);
+        } finally {
+            connection.sendingSince = 0;
+            connection.draining.set(false);
+        }
+        // A frame queued, or a close requested, after the last check but before the flag was cleared
+        if (connection.completing ? !connection.completed : !connection.closed && !connection.buffer.isEmpty()) {
+            scheduleDrain(connection);
+        }
+    }
+
+    private void disconnect(Connection connection) {
+        if (connection.closed) {
+            return;
+        }
+        connection.closed = true;
+        connection.buffer.clear();
+        channels.computeIfPresent(connection.userId, (id, channel) -> {
+            channel.connections.remove(connection);
+            if (!channel.connections.isEmpty()) {
+                return channel;
+            }
+            watch(channel, Set.of());
+            return null;
+        });
+    }
+
+    /**
+     * Replace the channel's watched products; called under the channel's map entry lock
+     */
+    private void watch(UserChannel channel, Set<Long> productIds) {
+        for (Long productId : channel.productIds) {
+            if (!productIds.contains(productId)) {
+                watchers.computeIfPresent(productId, (id, set) -> {
+                    set.remove(channel);
+                    return set.isEmpty() ? null : set;
+                });
+            }
+        }
+        for (Long productId : productIds) {
+            // Add inside the map's atomic update: another user's unwatch may be emptying and removing this set
+            watchers.compute(productId, (id, set) -> {
+                set = set != null ? set : ConcurrentHashMap.newKeySet();
+                set.add(channel);
+                return set;
+            });
+        }
+        channel.productIds = productIds;
+    }
+
+    private static final class UserChannel {
+        final long userId;
+        final List<Connection> connections = new CopyOnWriteArrayList<>();
+        volatile Set<Long> productIds = Set.of();
+        volatile Locale locale;
+
+        UserChannel(long userId) {
+            this.userId = userId;
+        }
+    }
+
+    private static final class Connection {
+        final long userId;
+        final SseEmitter emitter;
+        final BlockingQueue<Set<DataWithMediaType>> buffer;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean closed;
+        /** Closed by the hub, the emitter still to be completed by a sender thread */
+        volatile boolean completing;
+        volatile boolean completed;
+        /** System.nanoTime() when the send in progress started, 0 when none is */
+        volatile long sendingSince;
+
+        Connection(long userId, SseEmitter emitter, int bufferSize) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.Transaction;
+import com.example.myfinances.model.User;
+import com.example.myfinances.repository.InvestmentRepository;
+import com.example.myfinances.repository.TransactionRepository;
+import com.example.myfinances.repository.UserInvestmentProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Live page updates over Server-Sent Events: price ticks of the products a user
+ * holds or saved, and the dashboard balances after their transactions change.
+ *
+ * Updates are pushed as HTMX out-of-band fragments (templates/fragments/live.html)
+ * that replace the elements marked with the matching {@code live-*} class. They
+ * are rendered after commit on the hub's threads, and only when someone is
+ * listening.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveUpdateService {
+
+    private static final String TEMPLATE = "fragments/live";
+
+    private final LiveUpdateHub hub;
+    private final InvestmentRepository investmentRepository;
+    private final UserInvestmentProductRepository userInvestmentProductRepository;
+    private final AccountService accountService;
+    private final TransactionRepository transactionRepository;
+    private final ITemplateEngine templateEngine;
+
+    /** Users with a dashboard refresh already queued, so bursts of writes render once */
+    private final Set<Long> pendingDashboards = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Open the live channel of a page, watching the products the user holds or saved
+     */
+    @Transactional(readOnly = true)
+    public SseEmitter subscribe(User user, Locale locale) {
+        Set<Long> productIds = new HashSet<>(investmentRepository.findProductIdsByUser(user));
+        productIds.addAll(userInvestmentProductRepository.findProductIdsByUser(user));
+        return hub.connect(user.getId(), productIds, locale);
+    }
+
+    /**
+     * Push new prices to the pages watching those products
+     */
+    public void pricesChanged(List<PriceTick> ticks) {
+        if (ticks.isEmpty() || !hub.hasConnections()) {
+            return;
+        }
+        AfterCommit.run(() -> hub.execute(() -> publishPrices(ticks)));
+    }
+
+    /**
+     * Push the user's balance and monthly totals to their open pages
+     */
+    public void balancesChanged(User user) {
+        Long userId = user.getId();
+        if (userId == null || !hub.isConnected(userId)) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            if (pendingDashboards.add(userId) && !hub.execute(() -> {
+                pendingDashboards.remove(userId);
+                publishDashboard(user);
+            })) {
+                // Dropped: let the next write queue it again
+                pendingDashboards.remove(userId);
+            }
+        });
+    }
+
+    private void publishPrices(List<PriceTick> ticks) {
+        Map<Long, String> fragments = new HashMap<>();
+        for (PriceTick tick : ticks) {
+            if (hub.isWatched(tick.getProductId())) {
+                Context context = new Context(Locale.getDefault());
+                context.setVariable("tick", tick);
+                fragments.put(tick.getProductId(), templateEngine.process(TEMPLATE, Set.of("price"), context));
+            }
+        }
+        if (!fragments.isEmpty()) {
+            hub.sendToWatchers(fragments);
+            log.debug("Pushed {} live price ticks", fragments.size());
+        }
+    }
+
+    private void publishDashboard(User user) {
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate startOfMonth = today.withDayOfMonth(1);
+            LocalDate endOfMonth = today.withDayOfMonth(today.lengthOfMonth());
+            BigDecimal income = transactionRepository.getTotalByUserDateRangeAndType(
+                    user, startOfMonth, endOfMonth, Transaction.TransactionType.INCOME);
+            BigDecimal expenses = transactionRepository.getTotalByUserDateRangeAndType(
+                    user, startOfMonth, endOfMonth, Transaction.TransactionType.EXPENSE);
+
+            Context context = new Context(hub.localeOf(user.getId()));
+            FxRates.BaseTotal totalBalance = accountService.getTotalBalance(user);
+            context.setVariable("totalBalance", totalBalance.total());
+            context.setVariable("unconvertedCurrencies", totalBalance.unconverted());
+            context.setVariable("monthlyIncome", income);
+            context.setVariable("monthlyExpenses", expenses);
+            context.setVariable("monthlyNet", income.subtract(expenses));
+            hub.sendToUser(user.getId(), templateEngine.process(TEMPLATE, Set.of("balances"), context));
+        } catch (RuntimeException e) {
+            log.warn("Could not push live balances for user {}: {}", user.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * New price of a product, as pushed to the pages showing it
+     */
+    @Value
+    public static class PriceTick {
+        long productId;
+        BigDecimal price;
+        String currency;
+
+        /** Same format as {@link com.example.myfinances.model.InvestmentProduct#getFormattedPrice()} */
+        public String getFormattedPrice() {
+            return String.format("%.2f %s", price, currency);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Trading hours and holidays of the exchanges products are listed on, read from
+ * the bundled calendar file (market-calendar.json by default).
+ *
+ * Products are matched to a market by their {@code exchange}, as reported by the
+ * quote API. Sessions are assumed to run Monday to Friday within a single day in
+ * the market's time zone; holidays close the market for the day and early closes
+ * replace the closing time.
+ */
+@Component
+@Slf4j
+public class MarketCalendar {
+
+    /** How far back to look for the previous session, enough to cover any run of holidays */
+    private static final int MAX_DAYS_BACK = 14;
+
+    private final Map<String, Market> marketsByExchange = new HashMap<>();
+
+    @Autowired
+    public MarketCalendar(ResourceLoader resourceLoader, ObjectMapper objectMapper,
+                          ApplicationProperties applicationProperties) {
+        String location = applicationProperties.getPriceRefresh().getCalendar();
+        try (InputStream in = resourceLoader.getResource(location).getInputStream()) {
+            register(read(in, objectMapper));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read market calendar " + location, e);
+        }
+        log.info("Market calendar loaded with {} exchanges", marketsByExchange.size());
+    }
+
+    MarketCalendar(InputStream in, ObjectMapper objectMapper) throws IOException {
+        register(read(in, objectMapper));
+    }
+
+    public Optional<Market> marketFor(String exchange) {
+        if (exchange == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(marketsByExchange.get(exchange.trim().toLowerCase(Locale.ROOT)));
+    }
+
+    private static List<Market> read(InputStream in, ObjectMapper objectMapper) throws IOException {
+        CalendarFile file = objectMapper.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .readValue(in, CalendarFile.class);
+        List<Market> markets = new ArrayList<>();
+        for (Definition definition : file.getMarkets()) {
+            markets.add(new Market(definition));
+        }
+        return markets;
+    }
+
+    private void register(List<Market> markets) {
+        for (Market market : markets) {
+            for (String exchange : market.exchanges) {
+                Market previous = marketsByExchange.put(exchange.toLowerCase(Locale.ROOT), market);
+                if (previous != null) {
+                    log.warn("Exchange {} is listed by both {} and {}", exchange, previous.getId(), market.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * A market's regular sessions
+     */
+    public static final class Market {
+
+        @Getter
+        private final String id;
+        private final List<String> exchanges;
+        private final boolean alwaysOpen;
+        private final ZoneId zone;
+        private final LocalTime open;
+        private final LocalTime close;
+        private final Set<LocalDate> holidays = new HashSet<>();
+        private final Map<LocalDate, LocalTime> earlyCloses = new HashMap<>();
+
+        private Market(Definition definition) {
+            this.id = definition.getId();
+            this.exchanges = definition.getExchanges();
+            this.alwaysOpen = definition.isAlwaysOpen();
+            this.zone = alwaysOpen ? ZoneId.of("UTC") : ZoneId.of(definition.getTimeZone());
+            this.open = alwaysOpen ? LocalTime.MIN : LocalTime.parse(definition.getOpen());
+            this.close = alwaysOpen ? LocalTime.MAX : LocalTime.parse(definition.getClose());
+            definition.getHolidays().forEach(day -> holidays.add(LocalDate.parse(day)));
+            definition.getEarlyCloses().forEach((day, time) -> earlyCloses.put(LocalDate.parse(day), LocalTime.parse(time)));
+        }
+
+        public boolean isOpen(Instant instant) {
+            if (alwaysOpen) {
+                return true;
+            }
+            ZonedDateTime local = instant.atZone(zone);
+            LocalDate day = local.toLocalDate();
+            LocalTime time = local.toLocalTime();
+            return isTradingDay(day) && !time.isBefore(open) && time.isBefore(closeOn(day));
+        }
+
+        /**
+         * End of the latest session that closed at or before the given instant, or
+         * {@code null} for markets that never close
+         */
+        public Instant lastClose(Instant instant) {
+            if (alwaysOpen) {
+                return null;
+            }
+            LocalDate day = instant.atZone(zone).toLocalDate();
+            for (int i = 0; i < MAX_DAYS_BACK; i++, day = day.minusDays(1)) {
+                if (isTradingDay(day)) {
+                    Instant sessionClose = ZonedDateTime.of(day, closeOn(day), zone).toInstant();
+                    if (!sessionClose.isAfter(instant)) {
+                        return sessionClose;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private boolean isTradingDay(LocalDate day) {
+            DayOfWeek dayOfWeek = day.getDayOfWeek();
+            return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY && !holidays.contains(day);
+        }
+
+        private LocalTime closeOn(LocalDate day) {
+            return earlyCloses.getOrDefault(day, close);
+        }
+    }
+
+    @lombok.Data
+    static class CalendarFile {
+        private List<Definition> markets = new ArrayList<>();
+    }
+
+    @lombok.Data
+    static class Definition {
+        private String id;
+        private String name;
+        private List<String> exchanges = new ArrayList<>();
+        private String timeZone;
+        private String open;
+        private String close;
+        private boolean alwaysOpen;
+        private List<String> holidays = new ArrayList<>();
+        private Map<String, String> earlyCloses = new HashMap<>();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.myfinances.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Monte Carlo projection of a portfolio value by bootstrapping monthly log returns.
+ *
+ * Each path starts at the initial value and compounds returns drawn, with
+ * replacement, from the given history, month by month; the value at every year end
+ * is kept. Path ranges are split across a {@link ForkJoinPool}, each task with its
+ * own {@link SplittableRandom} split off its parent's, so results only depend on the
+ * seed and not on the number of threads. Values live in one flat primitive array,
+ * each task writing its own paths.
+ */
+public final class MonteCarloSimulator {
+
+    /** Paths simulated by one leaf task */
+    static final int PATHS_PER_TASK = 256;
+
+    private final ForkJoinPool pool;
+
+    public MonteCarloSimulator(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Quantiles of the portfolio value at each year end
+     *
+     * @param initialValue value today
+     * @param monthlyLogReturns historical monthly log returns to draw from, not empty
+     * @param years projection horizon
+     * @param paths number of simulated paths
+     * @param quantiles quantiles to report, each in [0, 1]
+     * @param seed random seed
+     * @return {@code [year][quantile]}, year 0 being today
+     */
+    public double[][] project(double initialValue, double[] monthlyLogReturns, int years, int paths,
+                              double[] quantiles, long seed) {
+        if (monthlyLogReturns.length == 0) {
+            throw new IllegalArgumentException("No returns to draw from");
+        }
+        if (years < 1 || paths < 1) {
+            throw new IllegalArgumentException("Years and paths must be positive");
+        }
+
+        // Year-major: the values of year y are at [y * paths, (y + 1) * paths)
+        double[] values = new double[(years + 1) * paths];
+        pool.invoke(new PathTask(values, paths, years, initialValue, monthlyLogReturns,
+                0, paths, new SplittableRandom(seed)));
+
+        double[][] result = new double[years + 1][];
+        ForkJoinTask<?>[] sorts = new ForkJoinTask<?>[years + 1];
+        for (int y = 0; y <= years; y++) {
+            int year = y;
+            sorts[y] = ForkJoinTask.adapt(() -> result[year] = quantiles(values, year * paths, paths, quantiles));
+        }
+        pool.invoke(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                invokeAll(sorts);
+            }
+        });
+        return result;
+    }
+
+    private static double[] quantiles(double[] values, int from, int count, double[] quantiles) {
+        Arrays.sort(values, from, from + count);
+        double[] result = new double[quantiles.length];
+        for (int i = 0; i < quantiles.length; i++) {
+            result[i] = values[from + (int) Math.round(quantiles[i] * (count - 1))];
+        }
+        return result;
+    }
+
+    private static final class PathTask extends RecursiveAction {
+
+        private final double[] values;
+        private final int paths;
+        private final int years;
+        private final double initialValue;
+        private final double[] returns;
+        private final int from;
+        private final int to;
+        private final SplittableRandom random;
+
+        PathTask(double[] values, int paths, int years, double initialValue, double[] returns,
+                 int from, int to, SplittableRandom random) {
+            this.values = values;
+            this.paths = paths;
+            this.years = years;
+            this.initialValue = initialValue;
+            this.returns = returns;
+            this.from = from;
+            this.to = to;
+            this.random = random;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > PATHS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                // Split before forking, so the streams do not depend on scheduling
+                PathTask left = new PathTask(values, paths, years, initialValue, returns, from, middle, random.split());
+                PathTask right = new PathTask(values, paths, years, initialValue, returns, middle, to, random.split());
+                invokeAll(left, right);
+                return;
+            }
+
+            int n = returns.length;
+            for (int path = from; path < to; path++) {
+                // Summed in log space, one exp per year
+                double logValue = 0;
+                values[path] = initialValue;
+                for (int year = 1; year <= years; year++) {
+                    for (int month = 0; month < 12; month++) {
+                        logValue += returns[random.nextInt(n)];
+                    }
+                    values[year * paths + path] = initialValue * Math.exp(logValue);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.User;
+import com.example.myfinances.repository.InvestmentRepository;
+import com.example.myfinances.repository.InvestmentValuation;
+import com.example.myfinances.repository.ProductPriceHistoryRepository;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PriceClose;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Money-weighted (XIRR) and time-weighted returns of a user's portfolio.
+ *
+ * Every lot is a contribution on its purchase date, in base currency; the current
+ * value of all lots at today's exchange rates is the terminal flow. The time-weighted return values the
+ * holdings at each month end from the price history (lots without a price yet are
+ * valued at cost) and chain-links the monthly returns.
+ *
+ * Results are cached per user together with the {@link PriceDataVersion} (bumped by
+ * price and exchange rate refreshes) and the day they were computed for, in a
+ * {@link PortfolioResultCache}; investment writes evict the user's entry once they
+ * commit.
+ *
+ * Not transactional on purpose: the price history lookup may fail on schemas
+ * without the history table, and must not poison the valuation query's transaction.
+ */
+@Service
+@Slf4j
+public class PortfolioPerformanceService {
+
+    private final InvestmentRepository investmentRepository;
+    private final ProductPriceHistoryRepository priceHistoryRepository;
+    private final PriceDataVersion priceDataVersion;
+    private final FxRateService fxRateService;
+    private final PortfolioResultCache<PortfolioPerformance> cache;
+
+    public PortfolioPerformanceService(InvestmentRepository investmentRepository,
+                                       ProductPriceHistoryRepository priceHistoryRepository,
+                                       PriceDataVersion priceDataVersion,
+                                       FxRateService fxRateService,
+                                       ApplicationProperties properties) {
+        this.investmentRepository = investmentRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.priceDataVersion = priceDataVersion;
+        this.fxRateService = fxRateService;
+        this.cache = new PortfolioResultCache<>(properties.getPortfolioCache().getMaxUsers());
+    }
+
+    public PortfolioPerformance getPerformance(User user) {
+        LocalDate today = LocalDate.now();
+        return cache.get(user.getId(), priceDataVersion.current(), today, () -> calculate(
+                fxRateService.atCurrentRates(investmentRepository.findValuationsByUser(user)), today));
+    }
+
+    /**
+     * Drop the user's result once the current transaction commits
+     */
+    public void evict(Long userId) {
+        cache.evictAfterCommit(userId);
+    }
+
+    PortfolioPerformance calculate(List<InvestmentValuation> lots, LocalDate today) {
+        if (lots.isEmpty()) {
+            return PortfolioPerformance.builder().lots(0).build();
+        }
+
+        // Lots sorted oldest first
+        InvestmentValuation[] sorted = lots.toArray(new InvestmentValuation[0]);
+        Arrays.sort(sorted, (a, b) -> a.getPurchaseDate().compareTo(b.getPurchaseDate()));
+        LocalDate since = sorted[0].getPurchaseDate();
+        long days = ChronoUnit.DAYS.between(since, today);
+
+        Double moneyWeighted = null;
+        Double timeWeighted = null;
+        Double annualizedTimeWeighted = null;
+
+        if (days > 0) {
+            double xirr = moneyWeightedReturn(sorted, since, today);
+            moneyWeighted = Double.isFinite(xirr) ? xirr : null;
+
+            double twr = timeWeightedReturn(sorted, today);
+            if (Double.isFinite(twr)) {
+                timeWeighted = twr;
+                annualizedTimeWeighted = days >= 365 ? ReturnCalculator.annualize(twr, days) : null;
+            }
+        }
+
+        return PortfolioPerformance.builder()
+                .lots(sorted.length)
+                .since(since)
+                .moneyWeightedReturn(moneyWeighted)
+                .timeWeightedReturn(timeWeighted)
+                .annualizedTimeWeightedReturn(annualizedTimeWeighted)
+                .build();
+    }
+
+    private double moneyWeightedReturn(InvestmentValuation[] lots, LocalDate since, LocalDate today) {
+        // One flow per distinct purchase day, plus the terminal value
+        double[] amounts = new double[lots.length + 1];
+        double[] years = new double[lots.length + 1];
+        int n = 0;
+        long previousDay = Long.MIN_VALUE;
+        double terminalValue = 0;
+
+        for (InvestmentValuation lot : lots) {
+            long day = ChronoUnit.DAYS.between(since, lot.getPurchaseDate());
+            if (day != previousDay) {
+                years[n] = day / 365.0;
+                n++;
+                previousDay = day;
+            }
+            amounts[n - 1] -= lot.getTotalInvestedBaseCurrency().doubleValue();
+            terminalValue += lot.getCurrentValueBaseCurrency().doubleValue();
+        }
+
+        amounts[n] = terminalValue;
+        years[n] = ChronoUnit.DAYS.between(since, today) / 365.0;
+        return ReturnCalculator.xirr(amounts, years, n + 1);
+    }
+
+    private double timeWeightedReturn(InvestmentValuation[] lots, LocalDate today) {
+        YearMonth first = YearMonth.from(lots[0].getPurchaseDate());
+        YearMonth last = YearMonth.from(today);
+        int periods = (int) ChronoUnit.MONTHS.between(first, last) + 1;
+
+        // Dense product index
+        Map<Long, Integer> productIndex = new HashMap<>();
+        for (InvestmentValuation lot : lots) {
+            productIndex.putIfAbsent(lot.getProductId(), productIndex.size());
+        }
+        int products = productIndex.size();
+
+        // Month-end close per product, carried forward; NaN until the first known close
+        double[][] closes = new double[products][periods];
+        for (double[] row : closes) {
+            Arrays.fill(row, Double.NaN);
+        }
+        List<PriceClose> history;
+        try {
+            history = priceHistoryRepository.findCloses(productIndex.keySet(),
+                    ProductPriceHistoryRepository.Resolution.MONTHLY,
+                    first.atDay(1).atStartOfDay(), today.plusDays(1).atStartOfDay());
+        } catch (DataAccessException e) {
+            log.warn("Price history unavailable, time-weighted return not calculated: {}", e.getMessage());
+            return Double.NaN;
+        }
+        for (PriceClose close : history) {
+            int period = (int) ChronoUnit.MONTHS.between(first, YearMonth.from(close.getDate()));
+            if (period >= 0 && period < periods) {
+                closes[productIndex.get(close.getProductId())][period] = close.getClose().doubleValue();
+            }
+        }
+
+        // Units (in base currency per unit of price) and cost bought per product and period
+        double[][] units = new double[products][periods];
+        double[][] cost = new double[products][periods];
+        double[] contributions = new double[periods];
+        double currentValue = 0;
+        for (InvestmentValuation lot : lots) {
+            int product = productIndex.get(lot.getProductId());
+            int period = Math.min(periods - 1,
+                    (int) ChronoUnit.MONTHS.between(first, YearMonth.from(lot.getPurchaseDate())));
+            BigDecimal invested = lot.getTotalInvestedBaseCurrency();
+            double rate = lot.getTotalInvested().signum() != 0
+                    ? invested.doubleValue() / lot.getTotalInvested().doubleValue()
+                    : 1;
+            units[product][period] += lot.getQuantity().doubleValue() * rate;
+            cost[product][period] += invested.doubleValue();
+            contributions[period] += invested.doubleValue();
+            currentValue += lot.getCurrentValueBaseCurrency().doubleValue();
+        }
+
+        double[] values = new double[periods];
+        for (int p = 0; p < products; p++) {
+            double heldUnits = 0;
+            double heldCost = 0;
+            double price = Double.NaN;
+            for (int k = 0; k < periods - 1; k++) {
+                heldUnits += units[p][k];
+                heldCost += cost[p][k];
+                if (!Double.isNaN(closes[p][k])) {
+                    price = closes[p][k];
+                }
+                values[k] += Double.isNaN(price) ? heldCost : heldUnits * price;
+            }
+        }
+        // The current month is valued at current prices
+        values[periods - 1] = currentValue;
+
+        return ReturnCalculator.timeWeightedReturn(values, contributions, periods);
+    }
+
+    @lombok.Builder
+    @lombok.Data
+    public static class PortfolioPerformance {
+        private int lots;
+        private LocalDate since;
+        private Double moneyWeightedReturn;
+        private Double timeWeightedReturn;
+        private Double annualizedTimeWeightedReturn;
+
+        public String getFormattedMoneyWeightedReturn() {
+            return formatPercentage(moneyWeightedReturn);
+        }
+
+        public String getFormattedTimeWeightedReturn() {
+            return formatPercentage(timeWeightedReturn);
+        }
+
+        public String getFormattedAnnualizedTimeWeightedReturn() {
+            return formatPercentage(annualizedTimeWeightedReturn);
+        }
+
+        public String getMoneyWeightedCssClass() {
+            return cssClass(moneyWeightedReturn);
+        }
+
+        public String getTimeWeightedCssClass() {
+            return cssClass(timeWeightedReturn);
+        }
+
+        private static String formatPercentage(Double value) {
+            if (value == null) {
+                return "—";
+            }
+            return String.format("%s%.2f%%", value >= 0 ? "+" : "", value * 100);
+        }
+
+        private static String cssClass(Double value) {
+            if (value == null || value == 0) {
+                return "text-muted";
+            }
+            return value > 0 ? "text-success" : "text-danger";
+        }
+    }
+}
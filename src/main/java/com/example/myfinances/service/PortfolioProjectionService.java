@@ -0,0 +1,256 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.User;
+import com.example.myfinances.repository.InvestmentRepository;
+import com.example.myfinances.repository.InvestmentValuation;
+import com.example.myfinances.repository.ProductPriceHistoryRepository;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PriceClose;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Forward projection of a user's portfolio value, with percentile bands per year.
+ *
+ * The portfolio's monthly returns are rebuilt from the price history with today's
+ * weights (each month averages the returns of the products priced in it and the
+ * month before), and {@link MonteCarloSimulator} compounds months drawn from them.
+ * The projection therefore assumes the future looks like the portfolio's own past,
+ * without rebalancing, contributions or withdrawals.
+ *
+ * Results are cached per user like {@link PortfolioPerformanceService}: together with
+ * the {@link PriceDataVersion} and the day, evicted once investment writes commit.
+ */
+@Service
+@Slf4j
+public class PortfolioProjectionService {
+
+    static final double[] QUANTILES = {0.05, 0.25, 0.5, 0.75, 0.95};
+
+    /** Share of today's value that must be priced in a month for it to count */
+    private static final double MIN_COVERED_WEIGHT = 0.5;
+
+    private final InvestmentRepository investmentRepository;
+    private final ProductPriceHistoryRepository priceHistoryRepository;
+    private final PriceDataVersion priceDataVersion;
+    private final FxRateService fxRateService;
+    private final ApplicationProperties properties;
+    private final PortfolioResultCache<PortfolioProjection> cache;
+
+    private ForkJoinPool pool;
+    private MonteCarloSimulator simulator;
+
+    public PortfolioProjectionService(InvestmentRepository investmentRepository,
+                                      ProductPriceHistoryRepository priceHistoryRepository,
+                                      PriceDataVersion priceDataVersion,
+                                      FxRateService fxRateService,
+                                      ApplicationProperties properties) {
+        this.investmentRepository = investmentRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.priceDataVersion = priceDataVersion;
+        this.fxRateService = fxRateService;
+        this.properties = properties;
+        this.cache = new PortfolioResultCache<>(properties.getPortfolioCache().getMaxUsers());
+    }
+
+    @PostConstruct
+    void start() {
+        int parallelism = properties.getProjection().getParallelism();
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        simulator = new MonteCarloSimulator(pool);
+    }
+
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+    }
+
+    public PortfolioProjection getProjection(User user) {
+        LocalDate today = LocalDate.now();
+        return cache.get(user.getId(), priceDataVersion.current(), today, () -> {
+            List<InvestmentValuation> lots =
+                    fxRateService.atCurrentRates(investmentRepository.findValuationsByUser(user));
+            // Same seed for the day, so the bands do not jitter between evictions
+            return calculate(lots, today, user.getId() * 31 + today.toEpochDay());
+        });
+    }
+
+    /**
+     * Drop the user's projection once the current transaction commits
+     */
+    public void evict(Long userId) {
+        cache.evictAfterCommit(userId);
+    }
+
+    PortfolioProjection calculate(List<InvestmentValuation> lots, LocalDate today, long seed) {
+        ApplicationProperties.Projection settings = properties.getProjection();
+
+        // Current value per product, in base currency
+        Map<Long, Double> valueByProduct = new HashMap<>();
+        for (InvestmentValuation lot : lots) {
+            valueByProduct.merge(lot.getProductId(), lot.getCurrentValueBaseCurrency().doubleValue(), Double::sum);
+        }
+        double initialValue = valueByProduct.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (initialValue <= 0) {
+            return PortfolioProjection.unavailable(0);
+        }
+
+        double[] returns = monthlyLogReturns(valueByProduct, initialValue, today, settings.getHistoryYears());
+        if (returns.length < settings.getMinHistoryMonths()) {
+            return PortfolioProjection.unavailable(returns.length);
+        }
+
+        double[][] quantiles = simulator.project(initialValue, returns, settings.getYears(), settings.getPaths(),
+                QUANTILES, seed);
+
+        List<Band> bands = new ArrayList<>(quantiles.length);
+        for (int year = 0; year < quantiles.length; year++) {
+            double[] q = quantiles[year];
+            bands.add(new Band(year, q[0], q[1], q[2], q[3], q[4]));
+        }
+
+        double mean = Arrays.stream(returns).average().orElse(0);
+        double variance = Arrays.stream(returns).map(r -> (r - mean) * (r - mean)).sum() / Math.max(1, returns.length - 1);
+        return PortfolioProjection.builder()
+                .available(true)
+                .initialValue(initialValue)
+                .historyMonths(returns.length)
+                .paths(settings.getPaths())
+                .years(settings.getYears())
+                .expectedAnnualReturn(Math.expm1(12 * mean))
+                .annualVolatility(Math.sqrt(12 * variance))
+                .bands(bands)
+                .build();
+    }
+
+    /**
+     * Monthly log returns of the current holdings over the history window, oldest first
+     */
+    private double[] monthlyLogReturns(Map<Long, Double> valueByProduct, double totalValue,
+                                       LocalDate today, int historyYears) {
+        YearMonth first = YearMonth.from(today).minusYears(historyYears);
+        int months = (int) ChronoUnit.MONTHS.between(first, YearMonth.from(today)) + 1;
+
+        // Dense product index and weights
+        Map<Long, Integer> productIndex = new HashMap<>();
+        double[] weights = new double[valueByProduct.size()];
+        valueByProduct.forEach((productId, value) -> {
+            int index = productIndex.size();
+            productIndex.put(productId, index);
+            weights[index] = value / totalValue;
+        });
+
+        double[][] closes = new double[weights.length][months];
+        for (double[] row : closes) {
+            Arrays.fill(row, Double.NaN);
+        }
+        List<PriceClose> history;
+        try {
+            history = priceHistoryRepository.findCloses(productIndex.keySet(),
+                    ProductPriceHistoryRepository.Resolution.MONTHLY,
+                    first.atDay(1).atStartOfDay(), today.plusDays(1).atStartOfDay());
+        } catch (DataAccessException e) {
+            log.warn("Price history unavailable, projection not calculated: {}", e.getMessage());
+            return new double[0];
+        }
+        for (PriceClose close : history) {
+            int month = (int) ChronoUnit.MONTHS.between(first, YearMonth.from(close.getDate()));
+            if (month >= 0 && month < months && close.getClose().signum() > 0) {
+                closes[productIndex.get(close.getProductId())][month] = close.getClose().doubleValue();
+            }
+        }
+
+        double[] returns = new double[months - 1];
+        int n = 0;
+        for (int month = 1; month < months; month++) {
+            double weighted = 0;
+            double covered = 0;
+            for (int p = 0; p < weights.length; p++) {
+                double previous = closes[p][month - 1];
+                double current = closes[p][month];
+                if (!Double.isNaN(previous) && !Double.isNaN(current)) {
+                    weighted += weights[p] * (current / previous - 1);
+                    covered += weights[p];
+                }
+            }
+            if (covered >= MIN_COVERED_WEIGHT) {
+                returns[n++] = Math.log1p(weighted / covered);
+            }
+        }
+        return Arrays.copyOf(returns, n);
+    }
+
+    /**
+     * Portfolio value quantiles at a year end
+     */
+    @lombok.Value
+    public static class Band {
+        int year;
+        double p5;
+        double p25;
+        double p50;
+        double p75;
+        double p95;
+
+        public String getFormattedP5() {
+            return String.format("%.2f €", p5);
+        }
+
+        public String getFormattedP50() {
+            return String.format("%.2f €", p50);
+        }
+
+        public String getFormattedP95() {
+            return String.format("%.2f €", p95);
+        }
+    }
+
+    @lombok.Builder
+    @lombok.Data
+    public static class PortfolioProjection {
+        private boolean available;
+        private double initialValue;
+        private int historyMonths;
+        private int paths;
+        private int years;
+        private double expectedAnnualReturn;
+        private double annualVolatility;
+        @lombok.Builder.Default
+        private List<Band> bands = List.of();
+
+        static PortfolioProjection unavailable(int historyMonths) {
+            return PortfolioProjection.builder().historyMonths(historyMonths).build();
+        }
+
+        /**
+         * Bands of the milestone years shown in the table: 1, 5, 10, ... and the last
+         */
+        public List<Band> getMilestones() {
+            return bands.stream()
+                    .filter(band -> band.getYear() == 1 || band.getYear() % 5 == 0 || band.getYear() == years)
+                    .filter(band -> band.getYear() > 0)
+                    .toList();
+        }
+
+        public String getFormattedExpectedAnnualReturn() {
+            return String.format("%s%.2f%%", expectedAnnualReturn >= 0 ? "+" : "", expectedAnnualReturn * 100);
+        }
+
+        public String getFormattedAnnualVolatility() {
+            return String.format("%.2f%%", annualVolatility * 100);
+        }
+    }
+}
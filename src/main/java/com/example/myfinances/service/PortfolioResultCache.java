@@ -0,0 +1,72 @@
+package com.example.myfinances.service;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Per-user portfolio results, valid for one {@link PriceDataVersion} and one day.
+ *
+ * At most {@code maxUsers} entries are kept, the least recently read dropped first.
+ * Evictions wait for the investment write's commit, and a result computed while one
+ * happened is returned but not kept, so a read racing a write never caches the old
+ * holdings.
+ */
+final class PortfolioResultCache<V> {
+
+    private final Map<Long, Entry<V>> entries;
+    /** Bumped by every eviction, so a calculation that raced with one is not kept */
+    private final AtomicLong generation = new AtomicLong();
+
+    PortfolioResultCache(int maxUsers) {
+        // Access order, so the eldest entry is the least recently read
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<V>> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    V get(Long userId, long version, LocalDate day, Supplier<V> calculation) {
+        synchronized (entries) {
+            Entry<V> cached = entries.get(userId);
+            if (cached != null && cached.version == version && cached.day.equals(day)) {
+                return cached.value;
+            }
+        }
+
+        // Calculated outside the lock, so one user's portfolio does not hold up the others
+        long calculatedGeneration = generation.get();
+        V value = calculation.get();
+        synchronized (entries) {
+            if (generation.get() == calculatedGeneration) {
+                entries.put(userId, new Entry<>(version, day, value));
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Drop a user's result once the surrounding transaction commits
+     */
+    void evictAfterCommit(Long userId) {
+        AfterCommit.run(() -> {
+            synchronized (entries) {
+                generation.incrementAndGet();
+                entries.remove(userId);
+            }
+        });
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private record Entry<V>(long version, LocalDate day, V value) {
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.User;
+import com.example.myfinances.repository.InvestmentRepository;
+import com.example.myfinances.repository.InvestmentValuation;
+import com.example.myfinances.repository.ProductPriceHistoryRepository;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PriceClose;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Risk metrics of a user's portfolio from the daily price history of its products:
+ * annualised volatility, one-day value at risk (historical and parametric), maximum
+ * drawdown and the correlation matrix of the holdings.
+ *
+ * Closes are aligned on the weekdays any held product traded, carrying each price
+ * forward over its own market's holidays. Weekend closes of markets that never
+ * close (crypto) are left out, so their weekend moves land in Monday's return and
+ * equities get no zero-return weekends; every product is then annualised over
+ * {@link RiskCalculator#TRADING_DAYS} alike. Products with fewer than
+ * {@code min-observations} returns are left out and the remaining weights rescaled;
+ * the share of the portfolio value covered is reported. The portfolio return of a
+ * day uses today's weights.
+ *
+ * Results are cached per user together with the {@link PriceDataVersion} and the
+ * day, like {@link PortfolioPerformanceService}; investment writes evict them once
+ * they commit.
+ */
+@Service
+@Slf4j
+public class PortfolioRiskService {
+
+    private final InvestmentRepository investmentRepository;
+    private final ProductPriceHistoryRepository priceHistoryRepository;
+    private final PriceDataVersion priceDataVersion;
+    private final FxRateService fxRateService;
+    private final ApplicationProperties properties;
+    private final PortfolioResultCache<PortfolioRisk> cache;
+
+    public PortfolioRiskService(InvestmentRepository investmentRepository,
+                                ProductPriceHistoryRepository priceHistoryRepository,
+                                PriceDataVersion priceDataVersion,
+                                FxRateService fxRateService,
+                                ApplicationProperties properties) {
+        this.investmentRepository = investmentRepository;
+        this.priceHistoryRepository = priceHistoryRepository;
+        this.priceDataVersion = priceDataVersion;
+        this.fxRateService = fxRateService;
+        this.properties = properties;
+        this.cache = new PortfolioResultCache<>(properties.getPortfolioCache().getMaxUsers());
+    }
+
+    public PortfolioRisk getRisk(User user) {
+        LocalDate today = LocalDate.now();
+        return cache.get(user.getId(), priceDataVersion.current(), today, () -> calculate(
+                fxRateService.atCurrentRates(investmentRepository.findValuationsByUser(user)), today));
+    }
+
+    /**
+     * Drop the user's risk metrics once the current transaction commits
+     */
+    public void evict(Long userId) {
+        cache.evictAfterCommit(userId);
+    }
+
+    PortfolioRisk calculate(List<InvestmentValuation> lots, LocalDate today) {
+        ApplicationProperties.Risk settings = properties.getRisk();
+
+        // Current value per product in base currency, in a stable order
+        Map<Long, Double> valueByProduct = new LinkedHashMap<>();
+        Map<Long, String> symbols = new HashMap<>();
+        for (InvestmentValuation lot : lots) {
+            valueByProduct.merge(lot.getProductId(), lot.getCurrentValueBaseCurrency().doubleValue(), Double::sum);
+            symbols.putIfAbsent(lot.getProductId(), lot.getSymbol());
+        }
+        double totalValue = valueByProduct.values().stream().mapToDouble(Double::doubleValue).sum();
+        if (totalValue <= 0) {
+            return PortfolioRisk.unavailable();
+        }
+
+        List<PriceClose> history;
+        try {
+            history = priceHistoryRepository.findCloses(valueByProduct.keySet(),
+                    ProductPriceHistoryRepository.Resolution.DAILY,
+                    today.minusDays(settings.getHistoryDays()).atStartOfDay(), today.plusDays(1).atStartOfDay());
+        } catch (DataAccessException e) {
+            log.warn("Price history unavailable, risk metrics not calculated: {}", e.getMessage());
+            return PortfolioRisk.unavailable();
+        }
+
+        // Trading weekdays of any held product
+        TreeSet<LocalDate> days = new TreeSet<>();
+        for (PriceClose close : history) {
+            if (!isWeekend(close.getDate())) {
+                days.add(close.getDate());
+            }
+        }
+        Map<LocalDate, Integer> dayIndex = new HashMap<>();
+        for (LocalDate day : days) {
+            dayIndex.put(day, dayIndex.size());
+        }
+        int periods = days.size();
+
+        Map<Long, Integer> productIndex = new HashMap<>();
+        for (Long productId : valueByProduct.keySet()) {
+            productIndex.put(productId, productIndex.size());
+        }
+        double[][] closes = new double[productIndex.size()][periods];
+        for (double[] row : closes) {
+            Arrays.fill(row, Double.NaN);
+        }
+        for (PriceClose close : history) {
+            if (close.getClose().signum() > 0 && !isWeekend(close.getDate())) {
+                closes[productIndex.get(close.getProductId())][dayIndex.get(close.getDate())] = close.getClose().doubleValue();
+            }
+        }
+
+        // Products with enough history, and the first day all of them have a price
+        List<Long> included = new ArrayList<>();
+        int start = 0;
+        for (Map.Entry<Long, Integer> entry : productIndex.entrySet()) {
+            double[] row = closes[entry.getValue()];
+            int first = 0;
+            while (first < periods && Double.isNaN(row[first])) {
+                first++;
+            }
+            if (periods - 1 - first >= settings.getMinObservations()) {
+                included.add(entry.getKey());
+                start = Math.max(start, first);
+            }
+        }
+        int n = periods - 1 - start;
+        if (included.isEmpty() || n < settings.getMinObservations()) {
+            return PortfolioRisk.unavailable();
+        }
+        // Keep the order of valueByProduct for display
+        included.sort((a, b) -> Integer.compare(productIndex.get(a), productIndex.get(b)));
+
+        double coveredValue = 0;
+        for (Long productId : included) {
+            coveredValue += valueByProduct.get(productId);
+        }
+
+        double[][] returns = new double[included.size()][n];
+        double[] portfolio = new double[n];
+        for (int k = 0; k < included.size(); k++) {
+            Long productId = included.get(k);
+            double[] row = closes[productIndex.get(productId)];
+            double weight = valueByProduct.get(productId) / coveredValue;
+            // Last close at or before the start, as the product may not have traded that day
+            int seed = start;
+            while (Double.isNaN(row[seed])) {
+                seed--;
+            }
+            double previous = row[seed];
+            for (int t = 0; t < n; t++) {
+                double current = row[start + t + 1];
+                if (Double.isNaN(current)) {
+                    // Closed that day: carry the price forward
+                    current = previous;
+                }
+                double r = current / previous - 1;
+                returns[k][t] = r;
+                portfolio[t] += weight * r;
+                previous = current;
+            }
+        }
+
+        List<String> includedSymbols = included.stream().map(symbols::get).toList();
+        return PortfolioRisk.builder()
+                .available(true)
+                .value(totalValue)
+                .coverage(coveredValue / totalValue)
+                .observations(n)
+                .annualVolatility(RiskCalculator.standardDeviation(portfolio, n) * Math.sqrt(RiskCalculator.TRADING_DAYS))
+                .historicalVar95(RiskCalculator.historicalVar(portfolio, n, 0.95) * coveredValue)
+                .historicalVar99(RiskCalculator.historicalVar(portfolio, n, 0.99) * coveredValue)
+                .parametricVar95(RiskCalculator.parametricVar(portfolio, n, 0.95) * coveredValue)
+                .parametricVar99(RiskCalculator.parametricVar(portfolio, n, 0.99) * coveredValue)
+                .maxDrawdown(RiskCalculator.maxDrawdown(portfolio, n))
+                .symbols(includedSymbols)
+                .correlations(RiskCalculator.correlationMatrix(returns, n))
+                .build();
+    }
+
+    private static boolean isWeekend(LocalDate day) {
+        DayOfWeek dayOfWeek = day.getDayOfWeek();
+        return dayOfWeek == DayOfWeek.SATURDAY || dayOfWeek == DayOfWeek.SUNDAY;
+    }
+
+    /**
+     * One row of the correlation table
+     */
+    @lombok.Value
+    public static class CorrelationRow {
+        String symbol;
+        List<String> values;
+    }
+
+    @lombok.Builder
+    @lombok.Data
+    public static class PortfolioRisk {
+        private boolean available;
+        private double value;
+        /** Share of the portfolio value with enough price history to be included */
+        private double coverage;
+        /** Daily returns the figures are based on */
+        private int observations;
+        private double annualVolatility;
+        /** One-day losses, in base currency */
+        private double historicalVar95;
+        private double historicalVar99;
+        private double parametricVar95;
+        private double parametricVar99;
+        private double maxDrawdown;
+        @lombok.Builder.Default
+        private List<String> symbols = List.of();
+        @lombok.Builder.Default
+        private double[][] correlations = new double[0][0];
+
+        static PortfolioRisk unavailable() {
+            return PortfolioRisk.builder().build();
+        }
+
+        public List<CorrelationRow> getCorrelationRows() {
+            List<CorrelationRow> rows = new ArrayList<>(symbols.size());
+            for (int i = 0; i < symbols.size(); i++) {
+                List<String> values = new ArrayList<>(symbols.size());
+                for (double correlation : correlations[i]) {
+                    values.add(Double.isNaN(correlation) ? "—" : String.format("%.2f", correlation));
+                }
+                rows.add(new CorrelationRow(symbols.get(i), values));
+            }
+            return rows;
+        }
+
+        public String getFormattedAnnualVolatility() {
+            return String.format("%.2f%%", annualVolatility * 100);
+        }
+
+        public String getFormattedMaxDrawdown() {
+            return String.format("-%.2f%%", maxDrawdown * 100);
+        }
+
+        public String getFormattedCoverage() {
+            return String.format("%.0f%%", coverage * 100);
+        }
+
+        public String getFormattedHistoricalVar95() {
+            return String.format("%.2f €", historicalVar95);
+        }
+
+        public String getFormattedHistoricalVar99() {
+            return String.format("%.2f €", historicalVar99);
+        }
+
+        public String getFormattedParametricVar95() {
+            return String.format("%.2f €", parametricVar95);
+        }
+
+        public String getFormattedParametricVar99() {
+            return String.format("%.2f €", parametricVar99);
+        }
+    }
+}
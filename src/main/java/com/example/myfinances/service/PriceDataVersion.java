@@ -0,0 +1,24 @@
+package com.example.myfinances.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of the product price data (current prices and price history).
+ * Bumped after every price write, so results derived from prices can be cached
+ * against the version they were computed with.
+ */
+@Component
+public class PriceDataVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public long bump() {
+        return version.incrementAndGet();
+    }
+}
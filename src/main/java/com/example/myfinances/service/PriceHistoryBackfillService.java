@@ -0,0 +1,338 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.repository.DatabaseDialect;
+import com.example.myfinances.repository.ProductPriceHistoryRepository;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PricePoint;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Seeds product_price_history from local CSV archives ({@code symbol,date,close})
+ * without going through the quote API.
+ *
+ * Each file is read twice through {@link PriceHistoryCsvReader}: a first pass
+ * collects the months present so their partitions can be created up front, the
+ * second streams the rows to the database. On PostgreSQL rows are written as COPY
+ * text straight from the mapped bytes into a staging table, then merged into the
+ * history with ON CONFLICT DO NOTHING so re-running a file is harmless. Elsewhere
+ * (H2) they go through batched inserts.
+ *
+ * Symbols are resolved against a symbol-to-id table loaded once per run; rows for
+ * symbols that are not in the catalogue are skipped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceHistoryBackfillService {
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabaseDialect dialect;
+    private final ProductPriceHistoryRepository priceHistoryRepository;
+    private final PriceDataVersion priceDataVersion;
+
+    /**
+     * Load one CSV file in a single transaction
+     */
+    @Transactional
+    public Result backfill(Path file, SymbolTable symbols) throws IOException {
+        PriceHistoryCsvReader reader = new PriceHistoryCsvReader();
+
+        priceHistoryRepository.ensurePartitions(scanMonths(reader, file));
+
+        Result result = dialect.isPostgres()
+                ? copyLoad(reader, file, symbols)
+                : batchLoad(reader, file, symbols);
+        priceDataVersion.bump();
+        return result;
+    }
+
+    /**
+     * Load the catalogue's symbol-to-id mapping; when a symbol is listed in
+     * several currencies the oldest product wins
+     */
+    public SymbolTable loadSymbols() {
+        SymbolTable table = new SymbolTable();
+        jdbcTemplate.query("SELECT id, symbol FROM investment_products ORDER BY id", rs -> {
+            table.putIfAbsent(rs.getString("symbol").getBytes(StandardCharsets.UTF_8), rs.getLong("id"));
+        });
+        return table;
+    }
+
+    private List<YearMonth> scanMonths(PriceHistoryCsvReader reader, Path file) throws IOException {
+        BitSet months = new BitSet();
+        reader.read(file, row -> months.set((row.year() - PriceHistoryCsvReader.MIN_YEAR) * 12 + row.month() - 1));
+
+        List<YearMonth> result = new ArrayList<>(months.cardinality());
+        for (int i = months.nextSetBit(0); i >= 0; i = months.nextSetBit(i + 1)) {
+            result.add(YearMonth.of(PriceHistoryCsvReader.MIN_YEAR + i / 12, i % 12 + 1));
+        }
+        return result;
+    }
+
+    private Result copyLoad(PriceHistoryCsvReader reader, Path file, SymbolTable symbols) {
+        return jdbcTemplate.execute((ConnectionCallback<Result>) connection -> {
+            try (var statement = connection.createStatement()) {
+                statement.execute("CREATE TEMP TABLE product_price_history_stage " +
+                        "(product_id BIGINT, ts TIMESTAMP, price DECIMAL(15,4)) ON COMMIT DROP");
+            }
+
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn("COPY product_price_history_stage (product_id, ts, price) FROM STDIN");
+            CopyWriter writer = new CopyWriter(copy, symbols);
+            long malformed;
+            try {
+                malformed = reader.read(file, writer::write);
+                writer.flush();
+                copy.endCopy();
+            } catch (IOException | SQLException e) {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+                throw e instanceof SQLException sql ? sql : new SQLException("Price backfill failed for " + file, e);
+            }
+
+            try (var statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO product_price_history (product_id, ts, price) " +
+                        "SELECT product_id, ts, price FROM product_price_history_stage ON CONFLICT DO NOTHING");
+                statement.execute("DROP TABLE product_price_history_stage");
+            }
+
+            return new Result(writer.rows, writer.unknownSymbol, malformed);
+        });
+    }
+
+    private Result batchLoad(PriceHistoryCsvReader reader, Path file, SymbolTable symbols) throws IOException {
+        List<PricePoint> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        long[] counts = new long[2];
+        char[] price = new char[32];
+
+        long malformed = reader.read(file, row -> {
+            long productId = symbols.get(row.buffer(), row.symbolStart(), row.symbolEnd());
+            if (productId < 0) {
+                counts[1]++;
+                return;
+            }
+            int length = row.priceEnd() - row.priceStart();
+            for (int i = 0; i < length; i++) {
+                price[i] = (char) row.buffer().get(row.priceStart() + i);
+            }
+            batch.add(new PricePoint(productId,
+                    LocalDate.of(row.year(), row.month(), row.day()).atStartOfDay(),
+                    new BigDecimal(price, 0, length)));
+            counts[0]++;
+            if (batch.size() == INSERT_BATCH_SIZE) {
+                priceHistoryRepository.append(batch);
+                batch.clear();
+            }
+        });
+        priceHistoryRepository.append(batch);
+
+        return new Result(counts[0], counts[1], malformed);
+    }
+
+    /**
+     * Encodes rows as COPY text ({@code id \t yyyy-MM-dd \t price \n}) into a
+     * fixed buffer, copying date and price bytes as they are in the file
+     */
+    private static final class CopyWriter {
+
+        private final CopyIn copy;
+        private final SymbolTable symbols;
+        private final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        private final byte[] idDigits = new byte[20];
+        private int length;
+
+        private long rows;
+        private long unknownSymbol;
+
+        /** Rows of one symbol are usually contiguous, so the last lookup is reused */
+        private final byte[] lastSymbol = new byte[64];
+        private int lastSymbolLength = -1;
+        private long lastProductId = -1;
+
+        CopyWriter(CopyIn copy, SymbolTable symbols) {
+            this.copy = copy;
+            this.symbols = symbols;
+        }
+
+        void write(PriceHistoryCsvReader.Row row) throws IOException {
+            long productId = resolve(row.buffer(), row.symbolStart(), row.symbolEnd());
+            if (productId < 0) {
+                unknownSymbol++;
+                return;
+            }
+
+            int priceLength = row.priceEnd() - row.priceStart();
+            if (length + 20 + 1 + 10 + 1 + priceLength + 1 > buffer.length) {
+                flush();
+            }
+
+            writeLong(productId);
+            buffer[length++] = '\t';
+            row.buffer().get(row.dateStart(), buffer, length, 10);
+            length += 10;
+            buffer[length++] = '\t';
+            row.buffer().get(row.priceStart(), buffer, length, priceLength);
+            length += priceLength;
+            buffer[length++] = '\n';
+            rows++;
+        }
+
+        void flush() throws IOException {
+            if (length == 0) {
+                return;
+            }
+            try {
+                copy.writeToCopy(buffer, 0, length);
+            } catch (SQLException e) {
+                throw new IOException(e);
+            }
+            length = 0;
+        }
+
+        private long resolve(ByteBuffer source, int start, int end) {
+            int symbolLength = end - start;
+            if (symbolLength == lastSymbolLength && matches(source, start, end, lastSymbol)) {
+                return lastProductId;
+            }
+            long productId = symbols.get(source, start, end);
+            if (symbolLength <= lastSymbol.length) {
+                source.get(start, lastSymbol, 0, symbolLength);
+                lastSymbolLength = symbolLength;
+                lastProductId = productId;
+            }
+            return productId;
+        }
+
+        private void writeLong(long value) {
+            int digits = 0;
+            do {
+                idDigits[digits++] = (byte) ('0' + value % 10);
+                value /= 10;
+            } while (value > 0);
+            while (digits > 0) {
+                buffer[length++] = idDigits[--digits];
+            }
+        }
+    }
+
+    private static boolean matches(ByteBuffer source, int start, int end, byte[] key) {
+        for (int i = start; i < end; i++) {
+            if (source.get(i) != key[i - start]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Open-addressing symbol-to-id map keyed by raw bytes, so lookups can be made
+     * straight from the mapped file without building a String
+     */
+    public static final class SymbolTable {
+
+        private byte[][] keys = new byte[1024][];
+        private long[] ids = new long[1024];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        void putIfAbsent(byte[] key, long id) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while (keys[slot] != null) {
+                if (Arrays.equals(keys[slot], key)) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            ids[slot] = id;
+            size++;
+        }
+
+        /**
+         * @return the product id, or -1 if the symbol is unknown
+         */
+        long get(ByteBuffer source, int start, int end) {
+            int mask = keys.length - 1;
+            int slot = hash(source, start, end) & mask;
+            byte[] key;
+            while ((key = keys[slot]) != null) {
+                if (key.length == end - start && matches(source, start, end, key)) {
+                    return ids[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private void resize() {
+            byte[][] oldKeys = keys;
+            long[] oldIds = ids;
+            keys = new byte[oldKeys.length * 2][];
+            ids = new long[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    putIfAbsent(oldKeys[i], oldIds[i]);
+                }
+            }
+        }
+
+        private static int hash(byte[] key) {
+            int h = 0x811c9dc5;
+            for (byte b : key) {
+                h = (h ^ b) * 0x01000193;
+            }
+            return h ^ (h >>> 16);
+        }
+
+        private static int hash(ByteBuffer source, int start, int end) {
+            int h = 0x811c9dc5;
+            for (int i = start; i < end; i++) {
+                h = (h ^ source.get(i)) * 0x01000193;
+            }
+            return h ^ (h >>> 16);
+        }
+    }
+
+    @Value
+    public static class Result {
+        long rows;
+        long unknownSymbol;
+        long malformed;
+
+        public Result plus(Result other) {
+            return new Result(rows + other.rows, unknownSymbol + other.unknownSymbol, malformed + other.malformed);
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.myfinances.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Month;
+import java.time.Year;
+
+/**
+ * Reader for historical price archives in CSV form: {@code symbol,date,close}, one
+ * row per line, dates as {@code yyyy-MM-dd} (years 1900-2199). Extra trailing columns, a header
+ * line, CRLF line endings and double-quoted fields are tolerated.
+ *
+ * The file is memory-mapped in windows of up to {@value #WINDOW_SIZE} bytes and
+ * parsed in place: each row is handed to the {@link RowHandler} as offsets into
+ * the mapped buffer through a single reused {@link Row}, so no per-line objects
+ * are created. Lines that do not parse are counted and skipped.
+ */
+public class PriceHistoryCsvReader {
+
+    static final int WINDOW_SIZE = 1 << 30;
+
+    private static final int MAX_PRICE_LENGTH = 24;
+
+    /** Dates outside this range are treated as malformed */
+    static final int MIN_YEAR = 1900;
+    static final int MAX_YEAR = 2199;
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(Row row) throws IOException;
+    }
+
+    private final int windowSize;
+
+    public PriceHistoryCsvReader() {
+        this(WINDOW_SIZE);
+    }
+
+    PriceHistoryCsvReader(int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Parse every row of the file
+     *
+     * @return number of lines skipped because they could not be parsed
+     */
+    public long read(Path file, RowHandler handler) throws IOException {
+        Row row = new Row();
+        long skipped = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                boolean lastWindow = position + length == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                row.buffer = buffer;
+                int consumed = readWindow(buffer, length, lastWindow, row, handler);
+                if (consumed == 0) {
+                    throw new IOException("Line at offset " + position + " is longer than the mapping window");
+                }
+                skipped += row.skipped;
+                row.skipped = 0;
+                position += consumed;
+            }
+        }
+
+        return skipped;
+    }
+
+    /**
+     * @return number of bytes consumed, always ending on a line boundary
+     */
+    private int readWindow(ByteBuffer buffer, int length, boolean lastWindow, Row row, RowHandler handler)
+            throws IOException {
+        int lineStart = 0;
+
+        while (lineStart < length) {
+            int lineEnd = indexOf(buffer, (byte) '\n', lineStart, length);
+            int next;
+            if (lineEnd < 0) {
+                if (!lastWindow) {
+                    return lineStart;
+                }
+                lineEnd = length;
+                next = length;
+            } else {
+                next = lineEnd + 1;
+            }
+
+            if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+            if (lineEnd > lineStart) {
+                if (row.parse(lineStart, lineEnd)) {
+                    handler.onRow(row);
+                } else {
+                    row.skipped++;
+                }
+            }
+            lineStart = next;
+        }
+
+        return length;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * One parsed row, as offsets into the current mapping window. Only valid
+     * inside {@link RowHandler#onRow}.
+     */
+    public static final class Row {
+
+        private ByteBuffer buffer;
+        private long skipped;
+
+        private int symbolStart;
+        private int symbolEnd;
+        private int dateStart;
+        private int priceStart;
+        private int priceEnd;
+
+        private int year;
+        private int month;
+        private int day;
+
+        public ByteBuffer buffer() {
+            return buffer;
+        }
+
+        public int symbolStart() {
+            return symbolStart;
+        }
+
+        public int symbolEnd() {
+            return symbolEnd;
+        }
+
+        /** Offset of the 10-byte {@code yyyy-MM-dd} date */
+        public int dateStart() {
+            return dateStart;
+        }
+
+        public int priceStart() {
+            return priceStart;
+        }
+
+        public int priceEnd() {
+            return priceEnd;
+        }
+
+        public int year() {
+            return year;
+        }
+
+        public int month() {
+            return month;
+        }
+
+        public int day() {
+            return day;
+        }
+
+        private boolean parse(int start, int end) {
+            int firstComma = nextComma(start, end);
+            if (firstComma < 0) {
+                return false;
+            }
+            int secondComma = nextComma(firstComma + 1, end);
+            if (secondComma < 0) {
+                return false;
+            }
+            int thirdComma = nextComma(secondComma + 1, end);
+            int closeEnd = thirdComma < 0 ? end : thirdComma;
+
+            symbolStart = start;
+            symbolEnd = firstComma;
+            if (symbolEnd - symbolStart >= 2 && buffer.get(symbolStart) == '"' && buffer.get(symbolEnd - 1) == '"') {
+                symbolStart++;
+                symbolEnd--;
+            }
+            if (symbolEnd <= symbolStart) {
+                return false;
+            }
+
+            return parseDate(firstComma + 1, secondComma) && parsePrice(secondComma + 1, closeEnd);
+        }
+
+        private boolean parseDate(int start, int end) {
+            if (end - start == 12 && buffer.get(start) == '"' && buffer.get(end - 1) == '"') {
+                start++;
+                end--;
+            }
+            if (end - start != 10 || buffer.get(start + 4) != '-' || buffer.get(start + 7) != '-') {
+                return false;
+            }
+            int y = digits(start, 4);
+            int m = digits(start + 5, 2);
+            int d = digits(start + 8, 2);
+            if (y < MIN_YEAR || y > MAX_YEAR || m < 1 || m > 12 || d < 1 || d > Month.of(m).length(Year.isLeap(y))) {
+                return false;
+            }
+            dateStart = start;
+            year = y;
+            month = m;
+            day = d;
+            return true;
+        }
+
+        private boolean parsePrice(int start, int end) {
+            if (end - start >= 2 && buffer.get(start) == '"' && buffer.get(end - 1) == '"') {
+                start++;
+                end--;
+            }
+            int length = end - start;
+            if (length == 0 || length > MAX_PRICE_LENGTH) {
+                return false;
+            }
+            boolean dot = false;
+            boolean digit = false;
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && !dot) {
+                    dot = true;
+                } else if (b >= '0' && b <= '9') {
+                    digit = true;
+                } else {
+                    return false;
+                }
+            }
+            if (!digit) {
+                return false;
+            }
+            priceStart = start;
+            priceEnd = end;
+            return true;
+        }
+
+        private int nextComma(int from, int to) {
+            return indexOf(buffer, (byte) ',', from, to);
+        }
+
+        private int digits(int start, int count) {
+            int value = 0;
+            for (int i = start; i < start + count; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return -1;
+                }
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+    }
+}
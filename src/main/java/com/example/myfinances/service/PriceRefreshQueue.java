@@ -0,0 +1,175 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.InvestmentProduct;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+
+/**
+ * Shared queue of products waiting for a price refresh, so upstream calls scale
+ * with distinct products rather than with the users asking for them.
+ *
+ * A product is queued at most once: submitting it again while it is queued or
+ * being fetched joins the pending refresh. Products are taken most urgent first,
+ * by number of investments in them and price age, and a few worker threads fetch
+ * them in batches of {@code batch-size} symbols per API call. Each submission gets
+ * a future completing once all of its products have been refreshed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PriceRefreshQueue {
+
+    /** Price age beyond which staleness no longer raises priority */
+    private static final long MAX_STALE_MINUTES = Duration.ofDays(7).toMinutes();
+
+    private final InvestmentProductService investmentProductService;
+    private final ProductCatalogueStats catalogueStats;
+    private final ApplicationProperties properties;
+
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final BlockingQueue<Pending> queue = new PriorityBlockingQueue<>(64,
+            Comparator.comparingLong(Pending::priority).reversed());
+
+    private ExecutorService workers;
+
+    @PostConstruct
+    void start() {
+        int threads = properties.getPriceRefresh().getWorkers();
+        start(Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("price-refresh-")), threads);
+    }
+
+    void start(ExecutorService executor, int threads) {
+        workers = executor;
+        for (int i = 0; i < threads; i++) {
+            workers.execute(this::work);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Queue the products for refresh
+     *
+     * @return completes when every given product has been refreshed, exceptionally
+     *         if a batch holding one of them failed
+     */
+    public CompletableFuture<Void> submit(Collection<InvestmentProduct> products) {
+        if (products.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<CompletableFuture<Void>> refreshes = new ArrayList<>(products.size());
+        for (InvestmentProduct product : products) {
+            if (product.getId() == null) {
+                continue;
+            }
+            Pending entry = pending.computeIfAbsent(product.getId(), id -> {
+                Pending created = new Pending(product, priority(product, now));
+                queue.add(created);
+                return created;
+            });
+            refreshes.add(entry.done);
+        }
+        return CompletableFuture.allOf(refreshes.toArray(CompletableFuture[]::new));
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Investments in the product, weighted by how many minutes its price is old
+     */
+    private long priority(InvestmentProduct product, LocalDateTime now) {
+        long staleMinutes = product.getLastUpdated() == null
+                ? MAX_STALE_MINUTES
+                : Math.min(MAX_STALE_MINUTES, Math.max(0, Duration.between(product.getLastUpdated(), now).toMinutes()));
+        return (catalogueStats.investmentCount(product.getId()) + 1) * (staleMinutes + 1);
+    }
+
+    private void work() {
+        int batchSize = properties.getPriceRefresh().getBatchSize();
+        List<Pending> batch = new ArrayList<>(batchSize);
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                queue.drainTo(batch, batchSize - 1);
+                refresh(batch);
+                batch.clear();
+            }
+        } catch (Error e) {
+            // This worker ends with the error; start another so the pool keeps its size
+            if (!workers.isShutdown()) {
+                workers.execute(this::work);
+            }
+            throw e;
+        }
+    }
+
+    private void refresh(List<Pending> batch) {
+        Throwable failure = null;
+        try {
+            investmentProductService.refreshPrices(batch.stream().map(entry -> entry.product).toList());
+        } catch (RuntimeException e) {
+            log.error("Error refreshing prices of {} queued products", batch.size(), e);
+            failure = e;
+        } catch (Error e) {
+            log.error("Error refreshing prices of {} queued products", batch.size(), e);
+            failure = e;
+            throw e;
+        } finally {
+            // Even on an Error: a batch left pending would hang every later submission of its products
+            for (Pending entry : batch) {
+                // Released before completing, so a caller reacting to completion can queue it again
+                pending.remove(entry.product.getId(), entry);
+                if (failure == null) {
+                    entry.done.complete(null);
+                } else {
+                    entry.done.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    private static final class Pending {
+        final InvestmentProduct product;
+        final long priority;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(InvestmentProduct product, long priority) {
+            this.product = product;
+            this.priority = priority;
+        }
+
+        long priority() {
+            return priority;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.repository.InvestmentProductRepository;
+import com.example.myfinances.service.MarketCalendar.Market;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Refreshes prices of the products users hold or saved, following the trading
+ * hours of each product's exchange.
+ *
+ * While a market is open its products are refreshed every {@code open-interval};
+ * once it closes they are refreshed a single time, {@code close-delay} after the
+ * close, to pick up the closing price, and then left alone until the next session.
+ * Products on exchanges missing from the {@link MarketCalendar} keep the old fixed
+ * age threshold.
+ *
+ * A refresh that finds no quote leaves last_updated alone, so such a product would
+ * stay due (and, being the oldest, first in line) on every run. Its failed attempts
+ * are recorded instead, and it is skipped for {@code retry-backoff}, doubled for
+ * each further failure in a row up to {@code max-retry-backoff}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceRefreshScheduler {
+
+    private final MarketCalendar marketCalendar;
+    private final InvestmentProductRepository productRepository;
+    private final PriceRefreshQueue refreshQueue;
+    private final ApplicationProperties applicationProperties;
+
+    @Scheduled(fixedDelayString = "${app.price-refresh.tick:PT1M}", initialDelayString = "PT1M")
+    public void scheduledRefresh() {
+        if (applicationProperties.getPriceRefresh().isEnabled()) {
+            refreshDueProducts(Instant.now());
+        }
+    }
+
+    /**
+     * Refresh the tracked products that are due, least recently updated first
+     *
+     * @return number of products sent for refresh
+     */
+    public int refreshDueProducts(Instant now) {
+        List<Long> due = new ArrayList<>();
+        int maxProducts = applicationProperties.getPriceRefresh().getMaxProductsPerRun();
+        for (Object[] row : productRepository.findTrackedProductRefreshRows()) {
+            if (isDue((String) row[1], (LocalDateTime) row[2], now)
+                    && !isBackingOff((LocalDateTime) row[3], ((Number) row[4]).intValue(), now)) {
+                due.add((Long) row[0]);
+                if (due.size() == maxProducts) {
+                    break;
+                }
+            }
+        }
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<InvestmentProduct> products = productRepository.findAllById(due);
+        refreshQueue.submit(products);
+        log.debug("Queued scheduled price refresh of {} products", products.size());
+        return products.size();
+    }
+
+    /**
+     * The given products whose price should be refreshed now
+     */
+    public List<InvestmentProduct> filterDue(List<InvestmentProduct> products, Instant now) {
+        return products.stream()
+                .filter(product -> isDue(product.getExchange(), product.getLastUpdated(), now)
+                        && !isBackingOff(product.getLastRefreshAttempt(), product.getFailedRefreshes(), now))
+                .toList();
+    }
+
+    /**
+     * Whether a product whose last refreshes found no quote should still be left alone
+     */
+    boolean isBackingOff(LocalDateTime lastAttempt, int failures, Instant now) {
+        if (failures <= 0 || lastAttempt == null) {
+            return false;
+        }
+        ApplicationProperties.PriceRefresh settings = applicationProperties.getPriceRefresh();
+        Duration backoff = settings.getRetryBackoff().multipliedBy(1L << Math.min(failures - 1, 20));
+        if (backoff.compareTo(settings.getMaxRetryBackoff()) > 0) {
+            backoff = settings.getMaxRetryBackoff();
+        }
+        return lastAttempt.atZone(ZoneId.systemDefault()).toInstant().plus(backoff).isAfter(now);
+    }
+
+    boolean isDue(String exchange, LocalDateTime lastUpdated, Instant now) {
+        if (lastUpdated == null) {
+            return true;
+        }
+        ApplicationProperties.PriceRefresh settings = applicationProperties.getPriceRefresh();
+        Instant updated = lastUpdated.atZone(ZoneId.systemDefault()).toInstant();
+
+        Optional<Market> market = marketCalendar.marketFor(exchange);
+        if (market.isEmpty()) {
+            return updated.isBefore(now.minus(settings.getFallbackInterval()));
+        }
+        if (market.get().isOpen(now)) {
+            return updated.isBefore(now.minus(settings.getOpenInterval()));
+        }
+
+        Instant lastClose = market.get().lastClose(now);
+        if (lastClose == null) {
+            return updated.isBefore(now.minus(settings.getFallbackInterval()));
+        }
+        // Once per closed period, after the closing price has settled
+        Instant settled = lastClose.plus(settings.getCloseDelay());
+        return !now.isBefore(settled) && updated.isBefore(settled);
+    }
+}
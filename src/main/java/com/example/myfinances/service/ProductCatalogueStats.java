@@ -0,0 +1,312 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.model.InvestmentProduct.InvestmentType;
+import com.example.myfinances.repository.InvestmentProductRepository;
+import com.example.myfinances.repository.InvestmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * In-memory statistics of the product catalogue: distinct facet values (type,
+ * currency, exchange, sector, region) with their product counts, and the
+ * {@value #LEADERBOARD_SIZE} products with the most investments.
+ *
+ * Built from two aggregate queries on first use or after {@link #invalidate()}, then
+ * kept current by the product and investment write paths (applied after commit), so
+ * the catalogue summary widgets read memory instead of the database. The queries run
+ * outside the lock and the result replaces the statistics as a whole; a build that
+ * raced with a write is used for that read but not kept, since it cannot tell
+ * whether it already counted the write.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCatalogueStats {
+
+    /** Products kept ranked by investments, the most {@link #mostPopular} returns */
+    static final int LEADERBOARD_SIZE = 100;
+
+    private final InvestmentProductRepository productRepository;
+    private final InvestmentRepository investmentRepository;
+
+    /** Bumped by every applied write and invalidation, so a build that raced with one is not kept */
+    private final AtomicLong generation = new AtomicLong();
+    /** Writes registered but not yet committed or rolled back */
+    private final AtomicInteger pendingWrites = new AtomicInteger();
+
+    /** Current statistics, null until built; guarded by this */
+    private Stats stats;
+
+    public void rebuild() {
+        loadAndKeep();
+    }
+
+    /**
+     * Drop the statistics; they are rebuilt on next read
+     */
+    public synchronized void invalidate() {
+        generation.incrementAndGet();
+        stats = null;
+    }
+
+    // Reads
+
+    public long totalProducts() {
+        return read(current -> (long) current.products.size());
+    }
+
+    public List<InvestmentType> types() {
+        return read(current -> new ArrayList<>(current.types.keySet()));
+    }
+
+    public List<String> currencies() {
+        return read(current -> new ArrayList<>(current.currencies.keySet()));
+    }
+
+    public List<String> exchanges() {
+        return read(current -> new ArrayList<>(current.exchanges.keySet()));
+    }
+
+    public List<String> sectors() {
+        return read(current -> new ArrayList<>(current.sectors.keySet()));
+    }
+
+    public List<String> regions() {
+        return read(current -> new ArrayList<>(current.regions.keySet()));
+    }
+
+    public long countByType(InvestmentType type) {
+        return read(current -> (long) current.types.getOrDefault(type, 0));
+    }
+
+    public long countByCurrency(String currency) {
+        return read(current -> currency != null ? (long) current.currencies.getOrDefault(currency, 0) : 0L);
+    }
+
+    public long investmentCount(Long productId) {
+        return read(current -> current.investmentCounts.getOrDefault(productId, 0L));
+    }
+
+    /**
+     * Ids of the products with the most investments, most invested first; at most
+     * {@value #LEADERBOARD_SIZE}
+     */
+    public List<Long> mostPopular(int limit) {
+        return read(current -> {
+            List<Long> ids = new ArrayList<>(Math.min(limit, current.leaderboard.size()));
+            for (Popularity entry : current.leaderboard) {
+                if (ids.size() == limit) {
+                    break;
+                }
+                ids.add(entry.getProductId());
+            }
+            return ids;
+        });
+    }
+
+    // Incremental updates
+
+    public void productSaved(InvestmentProduct product) {
+        if (product.getId() == null) {
+            return;
+        }
+        Long id = product.getId();
+        Facets facets = new Facets(product.getType(), product.getCurrency(), product.getExchange(),
+                product.getSector(), product.getRegion());
+        applyAfterCommit(current -> {
+            current.removeFacets(id);
+            current.addFacets(id, facets);
+        });
+    }
+
+    public void productRemoved(Long productId) {
+        applyAfterCommit(current -> {
+            current.removeFacets(productId);
+            current.setInvestments(productId, 0);
+        });
+    }
+
+    public void investmentAdded(Long productId) {
+        adjustInvestments(productId, 1);
+    }
+
+    public void investmentRemoved(Long productId) {
+        adjustInvestments(productId, -1);
+    }
+
+    private void adjustInvestments(Long productId, int delta) {
+        applyAfterCommit(current -> current.setInvestments(productId,
+                Math.max(0, current.investmentCounts.getOrDefault(productId, 0L) + delta)));
+    }
+
+    /**
+     * Apply a write once its transaction commits. Until it completes it counts as
+     * pending, so a build running meanwhile, which may or may not see the write, is
+     * not kept and the write is never counted twice.
+     */
+    private void applyAfterCommit(Consumer<Stats> write) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(write);
+            return;
+        }
+        pendingWrites.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(write);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                pendingWrites.decrementAndGet();
+            }
+        });
+    }
+
+    private synchronized void apply(Consumer<Stats> write) {
+        generation.incrementAndGet();
+        if (stats != null) {
+            write.accept(stats);
+        }
+    }
+
+    private <T> T read(Function<Stats, T> reader) {
+        synchronized (this) {
+            if (stats != null) {
+                return reader.apply(stats);
+            }
+        }
+        Stats loaded = loadAndKeep();
+        synchronized (this) {
+            return reader.apply(loaded);
+        }
+    }
+
+    private Stats loadAndKeep() {
+        long loadedGeneration = generation.get();
+        Stats loaded = load();
+        synchronized (this) {
+            if (generation.get() == loadedGeneration && pendingWrites.get() == 0) {
+                stats = loaded;
+            }
+        }
+        return loaded;
+    }
+
+    private Stats load() {
+        Stats loaded = new Stats();
+        for (Object[] row : productRepository.findFacetRows()) {
+            loaded.addFacets((Long) row[0], new Facets((InvestmentType) row[1], (String) row[2],
+                    (String) row[3], (String) row[4], (String) row[5]));
+        }
+        for (Object[] row : investmentRepository.countInvestmentsByProduct()) {
+            loaded.setInvestments((Long) row[0], ((Number) row[1]).longValue());
+        }
+        log.debug("Catalogue statistics built: {} products, {} with investments",
+                loaded.products.size(), loaded.investmentCounts.size());
+        return loaded;
+    }
+
+    /**
+     * Statistics at one point in time, updated in place by committed writes
+     */
+    private static class Stats {
+
+        private static final Comparator<Popularity> MOST_INVESTED_FIRST = Comparator
+                .comparingLong(Popularity::getInvestments).reversed()
+                .thenComparingLong(Popularity::getProductId);
+
+        final Map<Long, Facets> products = new HashMap<>();
+        final Map<InvestmentType, Integer> types = new EnumMap<>(InvestmentType.class);
+        final NavigableMap<String, Integer> currencies = new TreeMap<>();
+        final NavigableMap<String, Integer> exchanges = new TreeMap<>();
+        final NavigableMap<String, Integer> sectors = new TreeMap<>();
+        final NavigableMap<String, Integer> regions = new TreeMap<>();
+
+        /** Investment count per product, and the top of them ordered most invested first */
+        final Map<Long, Long> investmentCounts = new HashMap<>();
+        final TreeSet<Popularity> leaderboard = new TreeSet<>(MOST_INVESTED_FIRST);
+
+        void addFacets(Long id, Facets facets) {
+            products.put(id, facets);
+            increment(types, facets.getType(), 1);
+            increment(currencies, facets.getCurrency(), 1);
+            increment(exchanges, facets.getExchange(), 1);
+            increment(sectors, facets.getSector(), 1);
+            increment(regions, facets.getRegion(), 1);
+        }
+
+        void removeFacets(Long id) {
+            Facets facets = products.remove(id);
+            if (facets != null) {
+                increment(types, facets.getType(), -1);
+                increment(currencies, facets.getCurrency(), -1);
+                increment(exchanges, facets.getExchange(), -1);
+                increment(sectors, facets.getSector(), -1);
+                increment(regions, facets.getRegion(), -1);
+            }
+        }
+
+        void setInvestments(Long productId, long count) {
+            Long previous = count > 0 ? investmentCounts.put(productId, count) : investmentCounts.remove(productId);
+            boolean wasRanked = previous != null && leaderboard.remove(new Popularity(productId, previous));
+
+            int unranked = investmentCounts.size() - leaderboard.size() - (count > 0 ? 1 : 0);
+            if (wasRanked && count < previous && unranked > 0) {
+                // A product outside the board may now rank higher
+                leaderboard.clear();
+                investmentCounts.forEach((id, investments) -> rank(new Popularity(id, investments)));
+            } else if (count > 0) {
+                rank(new Popularity(productId, count));
+            }
+        }
+
+        private void rank(Popularity entry) {
+            if (leaderboard.size() < LEADERBOARD_SIZE) {
+                leaderboard.add(entry);
+            } else if (MOST_INVESTED_FIRST.compare(entry, leaderboard.last()) < 0) {
+                leaderboard.pollLast();
+                leaderboard.add(entry);
+            }
+        }
+
+        private static <K> void increment(Map<K, Integer> counts, K key, int delta) {
+            if (key != null) {
+                counts.merge(key, delta, (a, b) -> a + b == 0 ? null : a + b);
+            }
+        }
+    }
+
+    @lombok.Value
+    private static class Facets {
+        InvestmentType type;
+        String currency;
+        String exchange;
+        String sector;
+        String region;
+    }
+
+    @lombok.Value
+    private static class Popularity {
+        long productId;
+        long investments;
+    }
+}
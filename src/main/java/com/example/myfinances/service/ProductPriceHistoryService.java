@@ -0,0 +1,57 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.repository.ProductPriceHistoryRepository;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PriceBar;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PricePoint;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.Resolution;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ProductPriceHistoryService {
+
+    private final ProductPriceHistoryRepository priceHistoryRepository;
+
+    public void recordPrices(List<PricePoint> points) {
+        priceHistoryRepository.append(points);
+    }
+
+    /**
+     * OHLC bars for a product between two dates (both inclusive).
+     * Without an explicit resolution, one is chosen so that the series stays at
+     * a few hundred bars at most: daily up to a year, weekly up to five, monthly beyond.
+     */
+    @Transactional(readOnly = true)
+    public List<PriceBar> getPriceBars(Long productId, LocalDate from, LocalDate to, Resolution resolution) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("Start date must not be after end date");
+        }
+
+        Resolution effective = resolution != null ? resolution : resolutionFor(from, to);
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.plusDays(1).atStartOfDay();
+
+        return priceHistoryRepository.findBars(productId, effective, start, end);
+    }
+
+    static Resolution resolutionFor(LocalDate from, LocalDate to) {
+        long days = ChronoUnit.DAYS.between(from, to);
+        if (days <= 366) {
+            return Resolution.DAILY;
+        }
+        if (days <= 5 * 366) {
+            return Resolution.WEEKLY;
+        }
+        return Resolution.MONTHLY;
+    }
+}
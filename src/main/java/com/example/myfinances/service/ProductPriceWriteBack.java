@@ -0,0 +1,138 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.repository.InvestmentProductJdbcRepository;
+import com.example.myfinances.repository.InvestmentProductJdbcRepository.PriceRow;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PricePoint;
+import com.example.myfinances.service.LiveUpdateService.PriceTick;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes refreshed quotes back to investment_products.
+ *
+ * Incoming values are rounded to the column scale and compared with the current
+ * ones, so only products whose price or statistics actually changed are rewritten
+ * (in batched set-based updates); the rest only get their last_updated bumped, in
+ * a single statement. Products without a quote keep their data; only the failed
+ * attempt is recorded, so the scheduler backs off them. Every quoted
+ * price is also appended to the price history, and new prices are pushed to the
+ * pages showing them.
+ *
+ * The given entities are only read, never modified, so a surrounding persistence
+ * context does not flush them again on commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductPriceWriteBack {
+
+    private final InvestmentProductJdbcRepository productJdbcRepository;
+    private final ProductPriceHistoryService priceHistoryService;
+    private final PriceDataVersion priceDataVersion;
+    private final LiveUpdateService liveUpdates;
+
+    @Transactional
+    public Result apply(List<InvestmentProduct> products, Map<String, QuoteUpdate> quotes) {
+        List<PriceRow> changed = new ArrayList<>();
+        List<Long> unchanged = new ArrayList<>();
+        List<Long> unquoted = new ArrayList<>();
+        List<PricePoint> history = new ArrayList<>();
+        List<PriceTick> ticks = new ArrayList<>();
+        int missing = 0;
+        LocalDateTime now = LocalDateTime.now();
+
+        for (InvestmentProduct product : products) {
+            QuoteUpdate quote = quotes.get(product.getSymbol());
+            if (quote == null || product.getId() == null) {
+                missing++;
+                if (product.getId() != null) {
+                    unquoted.add(product.getId());
+                }
+                continue;
+            }
+
+            PriceRow row = toRow(product.getId(), quote);
+            if (hasChanged(product, row)) {
+                changed.add(row);
+            } else {
+                unchanged.add(product.getId());
+            }
+            if (row.getCurrentPrice() != null) {
+                history.add(new PricePoint(product.getId(), now, row.getCurrentPrice()));
+                if (!sameDecimal(product.getCurrentPrice(), row.getCurrentPrice())) {
+                    ticks.add(new PriceTick(product.getId(), row.getCurrentPrice(), product.getCurrency()));
+                }
+            }
+        }
+
+        productJdbcRepository.updatePriceData(changed, now);
+        productJdbcRepository.touchLastUpdated(unchanged, now);
+        productJdbcRepository.recordMissingQuotes(unquoted, now);
+        priceHistoryService.recordPrices(history);
+        priceDataVersion.bump();
+        liveUpdates.pricesChanged(ticks);
+
+        Result result = new Result(changed.size(), unchanged.size(), missing);
+        log.debug("Price write-back: {} changed, {} unchanged, {} without quote",
+                result.getChanged(), result.getUnchanged(), result.getMissing());
+        return result;
+    }
+
+    private static PriceRow toRow(long id, QuoteUpdate quote) {
+        return new PriceRow(
+                id,
+                scale(quote.getPrice(), 4),
+                quote.getMarketCap(),
+                scale(quote.getPeRatio(), 2),
+                scale(quote.getDividendYield(), 4),
+                scale(quote.getBeta(), 3),
+                scale(quote.getFiftyTwoWeekLow(), 4),
+                scale(quote.getFiftyTwoWeekHigh(), 4),
+                quote.getAvgVolume());
+    }
+
+    private static boolean hasChanged(InvestmentProduct product, PriceRow row) {
+        return !sameDecimal(product.getCurrentPrice(), row.getCurrentPrice())
+                || !Objects.equals(product.getMarketCap(), row.getMarketCap())
+                || !sameDecimal(product.getPeRatio(), row.getPeRatio())
+                || !sameDecimal(product.getDividendYield(), row.getDividendYield())
+                || !sameDecimal(product.getBeta(), row.getBeta())
+                || !sameDecimal(product.getFiftyTwoWeekLow(), row.getFiftyTwoWeekLow())
+                || !sameDecimal(product.getFiftyTwoWeekHigh(), row.getFiftyTwoWeekHigh())
+                || !Objects.equals(product.getAvgVolume(), row.getAvgVolume());
+    }
+
+    /**
+     * Round to the scale of the target column, so values that would be stored
+     * identically do not count as a change
+     */
+    private static BigDecimal scale(BigDecimal value, int scale) {
+        return value != null ? value.setScale(scale, RoundingMode.HALF_UP) : null;
+    }
+
+    private static boolean sameDecimal(BigDecimal current, BigDecimal incoming) {
+        if (current == null || incoming == null) {
+            return current == incoming;
+        }
+        return current.compareTo(incoming) == 0;
+    }
+
+    @Value
+    public static class Result {
+        int changed;
+        int unchanged;
+        int missing;
+    }
+}
@@ -0,0 +1,313 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.repository.InvestmentProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory search index over the product catalogue, for type-ahead search.
+ *
+ * Symbols and the words of product names are kept in sorted maps, so a prefix
+ * lookup is a range scan; names and symbols are also split into trigrams in an
+ * inverted index, so substring queries of three or more characters only look at
+ * the products sharing the query's rarest trigram. Candidates are scored and the
+ * best {@code k} are kept in a bounded heap.
+ *
+ * Text is matched lower-case and without accents. The index is built at startup
+ * and kept current by {@link #index} and {@link #remove}, applied after commit
+ * when called inside a transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final InvestmentProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Set<Long>> symbols = new TreeMap<>();
+    private final NavigableMap<String, Set<Long>> words = new TreeMap<>();
+    private final Map<String, Set<Long>> trigrams = new HashMap<>();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        try {
+            List<Object[]> rows = productRepository.findSearchDocuments();
+            lock.writeLock().lock();
+            try {
+                documents.clear();
+                symbols.clear();
+                words.clear();
+                trigrams.clear();
+                for (Object[] row : rows) {
+                    add(new Document((Long) row[0], (String) row[1], (String) row[2]));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            ready = true;
+            log.info("Product search index built with {} products", rows.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not build product search index, searching the database instead: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the index has been built; until then searches should go to the database
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Add or re-index a saved product
+     */
+    public void index(InvestmentProduct product) {
+        if (product.getId() == null) {
+            return;
+        }
+        Document document = new Document(product.getId(), product.getSymbol(), product.getName());
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(document.id);
+                add(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long productId) {
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                removeDocument(productId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Ids of the best matching products, best first
+     */
+    public List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = new HashSet<>();
+            collectPrefix(symbols, q, candidates);
+            if (q.length() >= 3) {
+                Set<Long> postings = rarestTrigramPostings(q);
+                if (postings != null) {
+                    candidates.addAll(postings);
+                }
+            } else {
+                collectPrefix(words, q, candidates);
+            }
+
+            // Min-heap of the best matches so far
+            PriorityQueue<Match> best = new PriorityQueue<>(limit + 1);
+            for (Long id : candidates) {
+                Document document = documents.get(id);
+                int score = score(document, q);
+                if (score > 0) {
+                    best.add(new Match(document, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            Long[] ids = new Long[best.size()];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                ids[i] = best.poll().document.id;
+            }
+            return List.of(ids);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Higher is better, 0 when the product does not match
+     */
+    static int score(Document document, String q) {
+        if (document.symbol.equals(q)) {
+            return 1000;
+        }
+        if (document.symbol.startsWith(q)) {
+            return 800 - Math.min(100, document.symbol.length() - q.length());
+        }
+        if (document.name.startsWith(q)) {
+            return 600;
+        }
+        int index = document.name.indexOf(q);
+        if (index > 0 && !Character.isLetterOrDigit(document.name.charAt(index - 1))) {
+            return 500;
+        }
+        if (index > 0) {
+            return 300;
+        }
+        if (document.symbol.contains(q)) {
+            return 200;
+        }
+        return 0;
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text.trim(), Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase();
+    }
+
+    private void add(Document document) {
+        documents.put(document.id, document);
+        symbols.computeIfAbsent(document.symbol, k -> new HashSet<>()).add(document.id);
+        for (String word : document.words()) {
+            words.computeIfAbsent(word, k -> new HashSet<>()).add(document.id);
+        }
+        for (String trigram : document.trigrams()) {
+            trigrams.computeIfAbsent(trigram, k -> new HashSet<>()).add(document.id);
+        }
+    }
+
+    private void removeDocument(Long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        removePosting(symbols, document.symbol, id);
+        for (String word : document.words()) {
+            removePosting(words, word, id);
+        }
+        for (String trigram : document.trigrams()) {
+            removePosting(trigrams, trigram, id);
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, Long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static void collectPrefix(NavigableMap<String, Set<Long>> map, String prefix, Set<Long> into) {
+        for (Set<Long> ids : map.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            into.addAll(ids);
+        }
+    }
+
+    /**
+     * Postings of the query's least common trigram, or null when some trigram is absent
+     */
+    private Set<Long> rarestTrigramPostings(String q) {
+        Set<Long> rarest = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Set<Long> postings = trigrams.get(q.substring(i, i + 3));
+            if (postings == null) {
+                return null;
+            }
+            if (rarest == null || postings.size() < rarest.size()) {
+                rarest = postings;
+            }
+        }
+        return rarest;
+    }
+
+    static final class Document {
+        final Long id;
+        final String symbol;
+        final String name;
+
+        Document(Long id, String symbol, String name) {
+            this.id = id;
+            this.symbol = normalize(symbol);
+            this.name = normalize(name);
+        }
+
+        List<String> words() {
+            List<String> result = new ArrayList<>();
+            for (String word : WORD_SEPARATOR.split(name)) {
+                if (!word.isEmpty()) {
+                    result.add(word);
+                }
+            }
+            return result;
+        }
+
+        Set<String> trigrams() {
+            Set<String> result = new HashSet<>();
+            for (String text : new String[]{symbol, name}) {
+                for (int i = 0; i + 3 <= text.length(); i++) {
+                    result.add(text.substring(i, i + 3));
+                }
+            }
+            return result;
+        }
+    }
+
+    private static final class Match implements Comparable<Match> {
+        final Document document;
+        final int score;
+
+        Match(Document document, int score) {
+            this.document = document;
+            this.score = score;
+        }
+
+        /** Worst match first: lower score, then longer name, then later symbol */
+        @Override
+        public int compareTo(Match other) {
+            if (score != other.score) {
+                return Integer.compare(score, other.score);
+            }
+            if (document.name.length() != other.document.name.length()) {
+                return Integer.compare(other.document.name.length(), document.name.length());
+            }
+            return other.document.symbol.compareTo(document.symbol);
+        }
+    }
+}
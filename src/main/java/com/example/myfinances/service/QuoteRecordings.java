@@ -0,0 +1,111 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Quote responses recorded from the live API, one JSON file per symbol holding
+ * that symbol's entry of a {@code get-quotes} response.
+ *
+ * Storing quotes per symbol rather than whole responses lets the replay server
+ * answer any combination of recorded symbols.
+ */
+@Component
+@Slf4j
+public class QuoteRecordings {
+
+    private final Path directory;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public QuoteRecordings(ApplicationProperties applicationProperties, ObjectMapper objectMapper) {
+        this(Path.of(applicationProperties.getYahooFinance().getRecordingsDir()), objectMapper);
+    }
+
+    public QuoteRecordings(Path directory, ObjectMapper objectMapper) {
+        this.directory = directory;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Store every quote of a raw {@code get-quotes} response, replacing earlier recordings
+     *
+     * @return number of quotes recorded
+     */
+    public int record(byte[] response) {
+        int recorded = 0;
+        try {
+            JsonNode results = objectMapper.readTree(response).path("quoteResponse").path("result");
+            Files.createDirectories(directory);
+            for (JsonNode quote : results) {
+                String symbol = quote.path("symbol").asText(null);
+                if (symbol != null) {
+                    write(fileName(symbol), objectMapper.writeValueAsBytes(quote));
+                    recorded++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not record quote response in {}: {}", directory, e.getMessage());
+        }
+        return recorded;
+    }
+
+    /**
+     * All recorded quotes as compact JSON, keyed by symbol
+     */
+    public Map<String, String> load() throws IOException {
+        Map<String, String> quotes = new HashMap<>();
+        if (!Files.isDirectory(directory)) {
+            return quotes;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path file : files) {
+                JsonNode quote = objectMapper.readTree(file.toFile());
+                String symbol = quote.path("symbol").asText(null);
+                if (symbol != null) {
+                    quotes.put(symbol, objectMapper.writeValueAsString(quote));
+                }
+            }
+        }
+        return quotes;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private void write(String fileName, byte[] content) throws IOException {
+        // Through a temporary file, so a concurrent replay never reads half a quote
+        Path temp = Files.createTempFile(directory, fileName, ".tmp");
+        Files.write(temp, content);
+        Files.move(temp, directory.resolve(fileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * File name of a symbol; characters such as {@code ^} and {@code =} are replaced,
+     * the symbol itself is read back from the file content
+     */
+    static String fileName(String symbol) {
+        StringBuilder name = new StringBuilder(symbol.length() + 5);
+        for (byte b : symbol.getBytes(StandardCharsets.UTF_8)) {
+            char c = (char) (b & 0xff);
+            boolean safe = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '-';
+            name.append(safe ? c : '_');
+        }
+        return name.append(".json").toString();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for the quote API, answering {@code get-quotes} requests from
+ * {@link QuoteRecordings} with a configurable latency and error profile.
+ *
+ * Only started in {@code replay} mode; {@link YahooQuoteSource} then sends its
+ * requests here instead of to the live host.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.yahoo-finance", name = "mode", havingValue = "replay")
+@Slf4j
+public class QuoteReplayServer {
+
+    static final String QUOTES_PATH = "/market/v2/get-quotes";
+
+    private final QuoteRecordings recordings;
+    private final ApplicationProperties.YahooFinance.Replay profile;
+
+    private Map<String, String> quotes;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public QuoteReplayServer(QuoteRecordings recordings, ApplicationProperties applicationProperties) {
+        this(recordings, applicationProperties.getYahooFinance().getReplay());
+    }
+
+    QuoteReplayServer(QuoteRecordings recordings, ApplicationProperties.YahooFinance.Replay profile) {
+        this.recordings = recordings;
+        this.profile = profile;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        quotes = recordings.load();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), profile.getPort()), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext(QUOTES_PATH, this::handle);
+        server.start();
+        log.info("Quote replay server listening on {} with {} recorded quotes from {}",
+                getBaseUrl(), quotes.size(), recordings.getDirectory());
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = profile.getLatency().toMillis();
+            long jitter = profile.getLatencyJitter().toMillis();
+            if (jitter > 0) {
+                delay += random.nextLong(jitter + 1);
+            }
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+
+            if (profile.getErrorRate() > 0 && random.nextDouble() < profile.getErrorRate()) {
+                exchange.sendResponseHeaders(profile.getErrorStatus(), -1);
+                return;
+            }
+
+            byte[] body = respond(symbolsOf(exchange.getRequestURI().getRawQuery()));
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private byte[] respond(String[] symbols) {
+        StringBuilder json = new StringBuilder(symbols.length * 512).append("{\"quoteResponse\":{\"result\":[");
+        boolean first = true;
+        for (String symbol : symbols) {
+            String quote = quotes.get(symbol);
+            if (quote == null && profile.isSynthesizeMissing()) {
+                quote = synthesize(symbol);
+            }
+            if (quote != null) {
+                json.append(first ? "" : ",").append(quote);
+                first = false;
+            }
+        }
+        return json.append("],\"error\":null}}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String[] symbolsOf(String rawQuery) {
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                if (parameter.startsWith("symbols=")) {
+                    return URLDecoder.decode(parameter.substring(8), StandardCharsets.UTF_8).split(",");
+                }
+            }
+        }
+        return new String[0];
+    }
+
+    /**
+     * A plausible equity quote, with a price derived from the symbol so repeated
+     * requests agree
+     */
+    static String synthesize(String symbol) {
+        double price = 10 + Math.floorMod(symbol.hashCode(), 49_000) / 100.0;
+        return String.format(Locale.ROOT,
+                "{\"symbol\":\"%s\",\"shortName\":\"%s Synthetic\",\"currency\":\"USD\",\"fullExchangeName\":\"NasdaqGS\","
+                        + "\"quoteType\":\"EQUITY\",\"regularMarketPrice\":%.2f,\"marketCap\":%d,\"trailingPE\":18.5,"
+                        + "\"beta\":1.1,\"fiftyTwoWeekLow\":%.2f,\"fiftyTwoWeekHigh\":%.2f,\"averageDailyVolume3Month\":1250000}",
+                symbol.replace("\"", ""), symbol.replace("\"", ""), price, (long) (price * 1_000_000_000L),
+                price * 0.7, price * 1.3);
+    }
+}
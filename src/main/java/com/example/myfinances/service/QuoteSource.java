@@ -0,0 +1,16 @@
+package com.example.myfinances.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Source of current quotes
+ */
+public interface QuoteSource {
+
+    /**
+     * @return quotes keyed by symbol; symbols the source does not know are left out,
+     *         and a failed request gives an empty map
+     */
+    Map<String, QuoteUpdate> fetchQuotes(List<String> symbols, String region);
+}
@@ -0,0 +1,27 @@
+package com.example.myfinances.service;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable snapshot of a single quote as returned by the upstream price API.
+ * Fields the API did not report are {@code null}.
+ */
+@Value
+public class QuoteUpdate {
+
+    String symbol;
+    String name;
+    String quoteType;
+    String currency;
+    String exchange;
+    BigDecimal price;
+    Long marketCap;
+    BigDecimal peRatio;
+    BigDecimal dividendYield;
+    BigDecimal beta;
+    BigDecimal fiftyTwoWeekLow;
+    BigDecimal fiftyTwoWeekHigh;
+    Long avgVolume;
+}
@@ -0,0 +1,75 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.RefreshToken;
+import com.example.myfinances.repository.RefreshTokenRepository;
+import com.example.myfinances.security.JwtTokenService;
+import com.example.myfinances.security.UserPrincipal;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Single-use refresh tokens of the stateless API.
+ *
+ * Every refresh token issued is recorded by its id. Exchanging it deletes the row in
+ * the statement that checks it, so each token yields one new pair even when the same
+ * token is sent twice at once. A validly signed, unexpired token without a row was
+ * already exchanged: that is a replay, so all of the user's refresh tokens are revoked
+ * and both the thief and the owner have to log in again.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class RefreshTokenService {
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtTokenService jwtTokenService;
+    private final ApplicationProperties applicationProperties;
+
+    public JwtTokenService.TokenPair issueTokens(UserPrincipal user) {
+        String id = UUID.randomUUID().toString();
+        long lifetime = applicationProperties.getSecurity().getJwt().getExpiration();
+        refreshTokenRepository.save(RefreshToken.builder()
+                .id(id)
+                .userId(user.id())
+                .expiresAt(LocalDateTime.now().plus(lifetime, ChronoUnit.MILLIS))
+                .build());
+        return jwtTokenService.issueTokens(user, id);
+    }
+
+    /**
+     * The user id of a refresh token that has not been exchanged yet; the token is
+     * used up by this call
+     */
+    public Optional<Long> redeem(String token) {
+        Optional<JwtTokenService.RefreshClaims> claims = jwtTokenService.parseRefreshToken(token);
+        if (claims.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Long userId = claims.get().userId();
+        if (refreshTokenRepository.deleteByIdAndUserId(claims.get().tokenId(), userId) == 1) {
+            return Optional.of(userId);
+        }
+        int revoked = refreshTokenRepository.deleteByUserId(userId);
+        log.warn("Refresh token replayed for user {}; revoked their {} other refresh tokens", userId, revoked);
+        return Optional.empty();
+    }
+
+    @Scheduled(fixedDelayString = "PT1H", initialDelayString = "PT5M")
+    public void purgeExpired() {
+        int purged = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh tokens", purged);
+        }
+    }
+}
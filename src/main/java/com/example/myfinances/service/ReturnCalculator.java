@@ -0,0 +1,137 @@
+package com.example.myfinances.service;
+
+/**
+ * Return calculations on primitive cash-flow arrays.
+ *
+ * Cash flows use the investor's sign convention: money put into the portfolio is
+ * negative, money taken out (or the terminal value) is positive.
+ */
+public final class ReturnCalculator {
+
+    static final double TOLERANCE = 1e-10;
+    private static final int MAX_NEWTON_ITERATIONS = 50;
+    private static final int MAX_BISECTION_ITERATIONS = 200;
+    private static final double MIN_RATE = -0.999999;
+    private static final double MAX_RATE = 1e6;
+
+    private ReturnCalculator() {
+        // Utility class
+    }
+
+    /**
+     * Annualised money-weighted return (XIRR): the rate r for which
+     * {@code sum(amounts[i] / (1 + r)^years[i]) = 0}.
+     *
+     * Newton-Raphson from a 10% guess; when it leaves the valid range or does not
+     * converge, falls back to bisection on a bracket around the root.
+     *
+     * @param amounts cash flows
+     * @param years time of each flow in years from the first flow
+     * @param n number of flows to use
+     * @return the rate, or {@code NaN} if the flows have no sign change
+     */
+    public static double xirr(double[] amounts, double[] years, int n) {
+        boolean hasInflow = false;
+        boolean hasOutflow = false;
+        for (int i = 0; i < n; i++) {
+            hasInflow |= amounts[i] > 0;
+            hasOutflow |= amounts[i] < 0;
+        }
+        if (!hasInflow || !hasOutflow) {
+            return Double.NaN;
+        }
+
+        double rate = 0.1;
+        for (int iteration = 0; iteration < MAX_NEWTON_ITERATIONS; iteration++) {
+            double logGrowth = Math.log1p(rate);
+            double value = 0;
+            double derivative = 0;
+            for (int i = 0; i < n; i++) {
+                double discounted = amounts[i] * Math.exp(-years[i] * logGrowth);
+                value += discounted;
+                derivative -= years[i] * discounted / (1 + rate);
+            }
+            if (derivative == 0 || !Double.isFinite(value)) {
+                break;
+            }
+            double next = rate - value / derivative;
+            if (!Double.isFinite(next) || next <= MIN_RATE || next > MAX_RATE) {
+                break;
+            }
+            if (Math.abs(next - rate) < TOLERANCE) {
+                return next;
+            }
+            rate = next;
+        }
+
+        return bisect(amounts, years, n);
+    }
+
+    private static double bisect(double[] amounts, double[] years, int n) {
+        double low = MIN_RATE;
+        double high = 1;
+        double lowValue = npv(amounts, years, n, low);
+        double highValue = npv(amounts, years, n, high);
+        while (Math.signum(lowValue) == Math.signum(highValue)) {
+            if (high >= MAX_RATE) {
+                return Double.NaN;
+            }
+            high *= 4;
+            highValue = npv(amounts, years, n, high);
+        }
+
+        for (int iteration = 0; iteration < MAX_BISECTION_ITERATIONS; iteration++) {
+            double mid = (low + high) / 2;
+            double midValue = npv(amounts, years, n, mid);
+            if (midValue == 0 || (high - low) / 2 < TOLERANCE) {
+                return mid;
+            }
+            if (Math.signum(midValue) == Math.signum(lowValue)) {
+                low = mid;
+                lowValue = midValue;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+
+    static double npv(double[] amounts, double[] years, int n, double rate) {
+        double logGrowth = Math.log1p(rate);
+        double value = 0;
+        for (int i = 0; i < n; i++) {
+            value += amounts[i] * Math.exp(-years[i] * logGrowth);
+        }
+        return value;
+    }
+
+    /**
+     * Time-weighted return over consecutive periods, chain-linking each period's
+     * return so that the size and timing of contributions does not affect it.
+     * Contributions are assumed to arrive at the start of their period.
+     *
+     * @param values portfolio value at the end of each period
+     * @param contributions net money added during each period
+     * @param n number of periods
+     * @return cumulative return over all periods
+     */
+    public static double timeWeightedReturn(double[] values, double[] contributions, int n) {
+        double growth = 1;
+        double previous = 0;
+        for (int k = 0; k < n; k++) {
+            double base = previous + contributions[k];
+            if (base > 0) {
+                growth *= values[k] / base;
+            }
+            previous = values[k];
+        }
+        return growth - 1;
+    }
+
+    /**
+     * Annualise a cumulative return earned over the given number of days
+     */
+    public static double annualize(double cumulativeReturn, long days) {
+        return Math.pow(1 + cumulativeReturn, 365.0 / days) - 1;
+    }
+}
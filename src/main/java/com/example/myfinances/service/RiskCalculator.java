@@ -0,0 +1,162 @@
+package com.example.myfinances.service;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Risk statistics on primitive arrays of periodic simple returns.
+ *
+ * Loss figures (value at risk, drawdown) are returned as positive fractions of the
+ * portfolio value.
+ */
+public final class RiskCalculator {
+
+    /** Trading days per year, to annualise daily figures */
+    public static final int TRADING_DAYS = 252;
+
+    private RiskCalculator() {
+        // Utility class
+    }
+
+    public static double mean(double[] returns, int n) {
+        double sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += returns[i];
+        }
+        return sum / n;
+    }
+
+    /**
+     * Sample standard deviation
+     */
+    public static double standardDeviation(double[] returns, int n) {
+        if (n < 2) {
+            return 0;
+        }
+        double mean = mean(returns, n);
+        double squares = 0;
+        for (int i = 0; i < n; i++) {
+            double d = returns[i] - mean;
+            squares += d * d;
+        }
+        return Math.sqrt(squares / (n - 1));
+    }
+
+    /**
+     * Loss not exceeded with the given confidence, from the empirical distribution
+     * of the returns (nearest rank)
+     */
+    public static double historicalVar(double[] returns, int n, double confidence) {
+        double[] sorted = Arrays.copyOf(returns, n);
+        Arrays.sort(sorted);
+        int rank = (int) Math.floor((1 - confidence) * n);
+        return Math.max(0, -sorted[Math.min(rank, n - 1)]);
+    }
+
+    /**
+     * Loss not exceeded with the given confidence, assuming normally distributed returns
+     */
+    public static double parametricVar(double[] returns, int n, double confidence) {
+        double z = normalQuantile(1 - confidence);
+        return Math.max(0, -(mean(returns, n) + z * standardDeviation(returns, n)));
+    }
+
+    /**
+     * Largest fall from a peak of the value compounded from the returns
+     */
+    public static double maxDrawdown(double[] returns, int n) {
+        double value = 1;
+        double peak = 1;
+        double maxDrawdown = 0;
+        for (int i = 0; i < n; i++) {
+            value *= 1 + returns[i];
+            if (value > peak) {
+                peak = value;
+            } else {
+                maxDrawdown = Math.max(maxDrawdown, (peak - value) / peak);
+            }
+        }
+        return maxDrawdown;
+    }
+
+    /**
+     * Pearson correlation matrix of aligned return series, {@code returns[series][period]}.
+     *
+     * Series are standardised once, then each pair is a single dot product; pairs
+     * are computed in parallel. A series without variance has no correlation (NaN)
+     * with the others.
+     */
+    public static double[][] correlationMatrix(double[][] returns, int n) {
+        int series = returns.length;
+        double[][] standardised = new double[series][];
+        for (int s = 0; s < series; s++) {
+            double mean = mean(returns[s], n);
+            double deviation = standardDeviation(returns[s], n);
+            double[] z = new double[n];
+            for (int i = 0; i < n; i++) {
+                z[i] = deviation > 0 ? (returns[s][i] - mean) / deviation : Double.NaN;
+            }
+            standardised[s] = z;
+        }
+
+        // Upper triangle, one task per pair
+        int pairs = series * (series - 1) / 2;
+        int[] first = new int[pairs];
+        int[] second = new int[pairs];
+        for (int i = 0, k = 0; i < series; i++) {
+            for (int j = i + 1; j < series; j++, k++) {
+                first[k] = i;
+                second[k] = j;
+            }
+        }
+
+        double[][] matrix = new double[series][series];
+        IntStream.range(0, pairs).parallel().forEach(k -> {
+            double[] a = standardised[first[k]];
+            double[] b = standardised[second[k]];
+            double dot = 0;
+            for (int i = 0; i < n; i++) {
+                dot += a[i] * b[i];
+            }
+            double correlation = n > 1 ? Math.max(-1, Math.min(1, dot / (n - 1))) : Double.NaN;
+            matrix[first[k]][second[k]] = correlation;
+            matrix[second[k]][first[k]] = correlation;
+        });
+        for (int s = 0; s < series; s++) {
+            matrix[s][s] = 1;
+        }
+        return matrix;
+    }
+
+    /**
+     * Inverse of the standard normal distribution function (Acklam's rational
+     * approximation, relative error below 1.2e-9)
+     */
+    static double normalQuantile(double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Probability must be in (0, 1)");
+        }
+        final double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        final double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        final double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        final double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+                3.754408661907416e+00};
+        final double low = 0.02425;
+
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            return -normalQuantile(1 - p);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+}
@@ -18,6 +18,8 @@ import java.util.Optional;
 public class TransactionCategoryService {
 
     private final TransactionCategoryRepository transactionCategoryRepository;
+    private final TransactionCategoryTrees categoryTrees;
+    private final UserDataVersion userDataVersion;
 
     public TransactionCategory createCategory(User user, String name, TransactionCategory.CategoryType type, String color, String icon, TransactionCategory parent) {
         log.info("Creating category '{}' for user ID: {}", name, user.getId());
@@ -33,34 +35,42 @@ public class TransactionCategoryService {
 
         TransactionCategory savedCategory = transactionCategoryRepository.save(category);
         log.info("Category created successfully with ID: {}", savedCategory.getId());
+        AfterCommit.run(() -> categoryTrees.invalidate(user.getId()));
+        userDataVersion.bumpAfterCommit(user.getId());
         
         return savedCategory;
     }
 
+    /**
+     * All of the user's categories, in creation order, from the in-memory tree
+     */
     @Transactional(readOnly = true)
     public List<TransactionCategory> findCategoriesByUser(User user) {
-        return transactionCategoryRepository.findByUser(user);
+        return categoryTrees.get(user.getId()).getCategories();
     }
 
     @Transactional(readOnly = true)
     public List<TransactionCategory> findCategoriesByUserAndType(User user, TransactionCategory.CategoryType type) {
-        return transactionCategoryRepository.findByUserAndType(user, type);
+        return categoryTrees.get(user.getId()).ofType(type);
     }
 
     @Transactional(readOnly = true)
     public List<TransactionCategory> findParentCategories(User user) {
-        return transactionCategoryRepository.findParentCategories(user);
+        return categoryTrees.get(user.getId()).getParents();
     }
 
     @Transactional(readOnly = true)
     public List<TransactionCategory> findSubcategories(User user, TransactionCategory parent) {
-        return transactionCategoryRepository.findSubcategories(user, parent);
+        return categoryTrees.get(user.getId()).subcategoriesOf(parent.getId());
     }
 
+    /**
+     * The category if it belongs to the user. Looked up in the user's own tree, so
+     * ownership needs no query.
+     */
     @Transactional(readOnly = true)
     public Optional<TransactionCategory> findByIdAndUser(Long categoryId, User user) {
-        return transactionCategoryRepository.findById(categoryId)
-                .filter(category -> category.getUser().equals(user));
+        return categoryTrees.get(user.getId()).findById(categoryId);
     }
 
     @Transactional(readOnly = true)
@@ -70,7 +80,11 @@ public class TransactionCategoryService {
 
     public TransactionCategory updateCategory(TransactionCategory category) {
         log.info("Updating category ID: {}", category.getId());
-        return transactionCategoryRepository.save(category);
+        TransactionCategory savedCategory = transactionCategoryRepository.save(category);
+        Long userId = savedCategory.getUser().getId();
+        AfterCommit.run(() -> categoryTrees.invalidate(userId));
+        userDataVersion.bumpAfterCommit(userId);
+        return savedCategory;
     }
 
     public void deleteCategory(Long categoryId, User user) {
@@ -82,7 +96,10 @@ public class TransactionCategoryService {
             throw new IllegalStateException("Cannot delete category with subcategories. Delete subcategories first.");
         }
         
-        transactionCategoryRepository.delete(category);
+        // The tree holds a detached copy; delete the managed one
+        transactionCategoryRepository.deleteById(category.getId());
+        AfterCommit.run(() -> categoryTrees.invalidate(user.getId()));
+        userDataVersion.bumpAfterCommit(user.getId());
         log.info("Category deleted: {}", categoryId);
     }
 
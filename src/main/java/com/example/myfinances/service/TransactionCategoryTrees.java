@@ -0,0 +1,150 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.TransactionCategory;
+import com.example.myfinances.repository.TransactionCategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory transaction category trees, one immutable snapshot per user, read by
+ * every transaction form and its validation.
+ *
+ * A tree is loaded with a single query (parents fetched along) on first use and
+ * dropped by {@link #invalidate(Long)}, which category writes call after commit. At
+ * most {@code app.category-cache.max-users} trees are kept, the least recently read
+ * evicted first. Like {@link AccountCategoryCatalog}, the entities are detached and
+ * shared: fit to be referenced from transactions, not to be modified.
+ */
+@Component
+@Slf4j
+public class TransactionCategoryTrees {
+
+    private static final Comparator<TransactionCategory> BY_NAME =
+            Comparator.comparing(TransactionCategory::getName, String.CASE_INSENSITIVE_ORDER);
+
+    private final TransactionCategoryRepository categoryRepository;
+    private final Map<Long, Tree> trees;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    /** Bumped by every invalidation, so a load that raced with one is not kept */
+    private final AtomicLong generation = new AtomicLong();
+
+    public TransactionCategoryTrees(TransactionCategoryRepository categoryRepository, ApplicationProperties properties) {
+        this.categoryRepository = categoryRepository;
+        int maxUsers = properties.getCategoryCache().getMaxUsers();
+        // Access order, so the eldest entry is the least recently read
+        this.trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Tree> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public Tree get(Long userId) {
+        synchronized (trees) {
+            Tree tree = trees.get(userId);
+            if (tree != null) {
+                hits.incrementAndGet();
+                return tree;
+            }
+        }
+        misses.incrementAndGet();
+
+        // Loaded outside the lock, so one user's query does not hold up the others
+        long loadedGeneration = generation.get();
+        Tree loaded = load(userId);
+        synchronized (trees) {
+            if (generation.get() == loadedGeneration) {
+                trees.put(userId, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Drop a user's tree; it is reloaded on next read
+     */
+    public void invalidate(Long userId) {
+        synchronized (trees) {
+            generation.incrementAndGet();
+            trees.remove(userId);
+        }
+    }
+
+    public long hitCount() {
+        return hits.get();
+    }
+
+    public long missCount() {
+        return misses.get();
+    }
+
+    int size() {
+        synchronized (trees) {
+            return trees.size();
+        }
+    }
+
+    private Tree load(Long userId) {
+        List<TransactionCategory> categories = categoryRepository.findAllWithParentByUserId(userId);
+
+        Map<Long, TransactionCategory> byId = new HashMap<>();
+        List<TransactionCategory> parents = new ArrayList<>();
+        Map<Long, List<TransactionCategory>> children = new HashMap<>();
+        for (TransactionCategory category : categories) {
+            byId.put(category.getId(), category);
+            if (category.getParent() == null) {
+                parents.add(category);
+            } else {
+                children.computeIfAbsent(category.getParent().getId(), id -> new ArrayList<>()).add(category);
+            }
+        }
+        parents.sort(BY_NAME);
+        Map<Long, List<TransactionCategory>> sortedChildren = new HashMap<>();
+        children.forEach((parentId, list) -> sortedChildren.put(parentId, list.stream().sorted(BY_NAME).toList()));
+
+        log.debug("Transaction categories loaded for user ID {}: {} categories", userId, categories.size());
+        return new Tree(List.copyOf(categories), Map.copyOf(byId), List.copyOf(parents), Map.copyOf(sortedChildren));
+    }
+
+    /**
+     * A user's categories at one point in time
+     */
+    @lombok.Value
+    public static class Tree {
+        /** All categories, in creation order */
+        List<TransactionCategory> categories;
+        Map<Long, TransactionCategory> categoriesById;
+        /** Top-level categories, by name */
+        List<TransactionCategory> parents;
+        /** Subcategories by parent ID, by name */
+        Map<Long, List<TransactionCategory>> subcategoriesByParentId;
+
+        public Optional<TransactionCategory> findById(Long categoryId) {
+            return categoryId == null ? Optional.empty() : Optional.ofNullable(categoriesById.get(categoryId));
+        }
+
+        public List<TransactionCategory> subcategoriesOf(Long parentId) {
+            return subcategoriesByParentId.getOrDefault(parentId, List.of());
+        }
+
+        public List<TransactionCategory> ofType(TransactionCategory.CategoryType type) {
+            return categories.stream()
+                    .filter(category -> category.getType() == type)
+                    .sorted(BY_NAME)
+                    .toList();
+        }
+    }
+}
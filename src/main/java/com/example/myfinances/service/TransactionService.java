@@ -26,6 +26,8 @@ public class TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final AccountService accountService;
+    private final LiveUpdateService liveUpdates;
+    private final UserDataVersion userDataVersion;
 
     public Transaction createTransaction(Transaction transaction) {
         // Ensure user is set from account if not already set
@@ -59,6 +61,7 @@ public class TransactionService {
         Transaction savedTransaction = transactionRepository.save(transaction);
         
         updateAccountBalance(account, amount, type);
+        userDataVersion.bumpAfterCommit(account.getUser().getId());
         
         log.info("Transaction created successfully with ID: {}", savedTransaction.getId());
         return savedTransaction;
@@ -89,6 +92,17 @@ public class TransactionService {
         return transactionRepository.searchTransactions(user, searchTerm, pageable);
     }
 
+    /**
+     * One page of the user's transactions matching the list filters, each of which is
+     * optional, with account and category fetched for the table
+     */
+    @Transactional(readOnly = true)
+    public Page<Transaction> filterTransactions(User user, String searchTerm, Transaction.TransactionType type,
+                                                Long accountId, Long categoryId, Pageable pageable) {
+        String term = searchTerm != null && !searchTerm.isBlank() ? searchTerm.trim() : null;
+        return transactionRepository.filterTransactions(user, term, type, accountId, categoryId, pageable);
+    }
+
     @Transactional(readOnly = true)
     public BigDecimal getTotalIncomeByUser(User user) {
         return transactionRepository.getTotalIncomeByUser(user);
@@ -112,7 +126,7 @@ public class TransactionService {
     @Transactional(readOnly = true)
     public Optional<Transaction> findByIdAndUser(Long transactionId, User user) {
         return transactionRepository.findById(transactionId)
-                .filter(transaction -> transaction.getAccount().getUser().equals(user));
+                .filter(transaction -> transaction.getAccount().getUser().getId().equals(user.getId()));
     }
 
     @Transactional(readOnly = true)
@@ -135,6 +149,7 @@ public class TransactionService {
         Transaction updatedTransaction = transactionRepository.save(transaction);
         
         updateAccountBalance(account, transaction.getAmount(), transaction.getType());
+        userDataVersion.bumpAfterCommit(account.getUser().getId());
         
         log.info("Transaction updated successfully: {}", updatedTransaction.getId());
         return updatedTransaction;
@@ -147,12 +162,14 @@ public class TransactionService {
         reverseAccountBalance(transaction.getAccount(), transaction.getAmount(), transaction.getType());
         
         transactionRepository.delete(transaction);
+        userDataVersion.bumpAfterCommit(user.getId());
         log.info("Transaction deleted: {}", transactionId);
     }
 
     public void deleteTransaction(Transaction transaction) {
         reverseAccountBalance(transaction.getAccount(), transaction.getAmount(), transaction.getType());
         transactionRepository.delete(transaction);
+        userDataVersion.bumpAfterCommit(transaction.getAccount().getUser().getId());
         log.info("Transaction deleted: {}", transaction.getId());
     }
 
@@ -190,10 +207,12 @@ public class TransactionService {
     private void updateAccountBalance(Account account, BigDecimal amount, Transaction.TransactionType type) {
         BigDecimal adjustment = type == Transaction.TransactionType.INCOME ? amount : amount.negate();
         accountService.adjustBalance(account.getId(), adjustment);
+        liveUpdates.balancesChanged(account.getUser());
     }
 
     private void reverseAccountBalance(Account account, BigDecimal amount, Transaction.TransactionType type) {
         BigDecimal adjustment = type == Transaction.TransactionType.INCOME ? amount.negate() : amount;
         accountService.adjustBalance(account.getId(), adjustment);
+        liveUpdates.balancesChanged(account.getUser());
     }
 }
\ No newline at end of file
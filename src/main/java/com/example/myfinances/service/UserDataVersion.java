@@ -0,0 +1,38 @@
+package com.example.myfinances.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic version of each user's own data (accounts, transactions, categories,
+ * investments), the per-user counterpart of {@link PriceDataVersion}.
+ *
+ * Writes bump it after commit, so a page rendered from a version never shows data
+ * older than that version. Together with the price data version it identifies
+ * everything a user's pages are rendered from: the key for conditional GETs and for
+ * caching rendered fragments. Versions start at zero on every startup.
+ */
+@Component
+public class UserDataVersion {
+
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    public long current(Long userId) {
+        AtomicLong version = versions.get(userId);
+        return version != null ? version.get() : 0;
+    }
+
+    public long bump(Long userId) {
+        return versions.computeIfAbsent(userId, id -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Bump the user's version once the surrounding transaction commits
+     */
+    public void bumpAfterCommit(Long userId) {
+        AfterCommit.run(() -> bump(userId));
+    }
+}
@@ -3,14 +3,19 @@ package com.example.myfinances.service;
 import com.example.myfinances.model.InvestmentProduct;
 import com.example.myfinances.model.User;
 import com.example.myfinances.model.UserInvestmentProduct;
+import com.example.myfinances.repository.UserInvestmentProductJdbcRepository;
 import com.example.myfinances.repository.UserInvestmentProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +24,7 @@ import java.util.Optional;
 public class UserInvestmentProductService {
     
     private final UserInvestmentProductRepository userInvestmentProductRepository;
+    private final UserInvestmentProductJdbcRepository userInvestmentProductJdbcRepository;
     
     /**
      * Get all products saved by a user
@@ -106,6 +112,31 @@ public class UserInvestmentProductService {
         return saveProductToUser(user, product, null, false);
     }
     
+    /**
+     * Save several products to user's profile with default settings, skipping those
+     * already saved: one lookup and one batched insert regardless of the number of products
+     *
+     * @return number of products newly saved
+     */
+    @Transactional
+    public int saveProductsToUser(User user, List<InvestmentProduct> products) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (InvestmentProduct product : products) {
+            if (product.getId() != null) {
+                productIds.add(product.getId());
+            }
+        }
+        if (productIds.isEmpty()) {
+            return 0;
+        }
+        
+        productIds.removeAll(userInvestmentProductRepository.findSavedProductIds(user, productIds));
+        int saved = userInvestmentProductJdbcRepository.insertSavedProducts(
+                user.getId(), new ArrayList<>(productIds), LocalDateTime.now());
+        log.info("Saved {} of {} products to user {}", saved, products.size(), user.getId());
+        return saved;
+    }
+    
     /**
      * Remove a product from user's saved products
      */
@@ -18,6 +18,7 @@ public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDataVersion userDataVersion;
 
     public User registerUser(String name, String email, String password) {
         log.info("Registering new user with email: {}", email);
@@ -47,6 +48,11 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
+    @Transactional(readOnly = true)
+    public Optional<User> findById(Long id) {
+        return userRepository.findById(id);
+    }
+
     @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
         return userRepository.existsByEmail(email);
@@ -54,7 +60,9 @@ public class UserService {
 
     public User updateUser(User user) {
         log.info("Updating user with ID: {}", user.getId());
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        userDataVersion.bumpAfterCommit(savedUser.getId());
+        return savedUser;
     }
 
     public void changePassword(Long userId, String oldPassword, String newPassword) {
@@ -0,0 +1,45 @@
+package com.example.myfinances.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exchange rates from the Yahoo Finance currency pairs, e.g. {@code EURUSD=X}
+ * quoting US dollars per euro.
+ */
+@Component
+@RequiredArgsConstructor
+public class YahooFxRateSource implements FxRateSource {
+
+    private final YahooFinanceApiService yahooFinanceApiService;
+
+    @Override
+    public Map<String, BigDecimal> fetchRates(String baseCurrency, Collection<String> currencies) {
+        List<String> symbols = new ArrayList<>(currencies.size());
+        for (String currency : currencies) {
+            symbols.add(pairSymbol(baseCurrency, currency));
+        }
+
+        Map<String, QuoteUpdate> quotes = yahooFinanceApiService.fetchQuotes(symbols, null);
+
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String currency : currencies) {
+            QuoteUpdate quote = quotes.get(pairSymbol(baseCurrency, currency));
+            if (quote != null && quote.getPrice() != null && quote.getPrice().signum() > 0) {
+                rates.put(currency, quote.getPrice());
+            }
+        }
+        return rates;
+    }
+
+    private static String pairSymbol(String baseCurrency, String currency) {
+        return baseCurrency + currency + "=X";
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.config.ApplicationProperties.YahooFinance.QuoteMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Quotes from the RapidAPI Yahoo Finance {@code get-quotes} endpoint.
+ *
+ * In {@code record} mode every successful response is also written to
+ * {@link QuoteRecordings}; in {@code replay} mode requests go to the local
+ * {@link QuoteReplayServer} instead of the live host, through the same HTTP
+ * and decoding path.
+ */
+@Component
+@Slf4j
+public class YahooQuoteSource implements QuoteSource {
+
+    private final String apiKey;
+    private final String apiHost;
+    private final String baseUrl;
+    private final QuoteRecordings recordings;
+
+    private final HttpClient httpClient;
+    private final YahooQuoteStreamDecoder quoteDecoder;
+
+    @Autowired
+    public YahooQuoteSource(ApplicationProperties applicationProperties, QuoteRecordings recordings,
+                            ObjectProvider<QuoteReplayServer> replayServer) {
+        this(applicationProperties.getYahooFinance(), recordings, replayServer.getIfAvailable());
+    }
+
+    public YahooQuoteSource(ApplicationProperties.YahooFinance settings, QuoteRecordings recordings,
+                            QuoteReplayServer replayServer) {
+        this.apiKey = settings.getApiKey();
+        this.apiHost = settings.getApiHost();
+        if (settings.getMode() == QuoteMode.REPLAY) {
+            if (replayServer == null) {
+                throw new IllegalStateException("Quote replay mode needs a running QuoteReplayServer");
+            }
+            this.baseUrl = replayServer.getBaseUrl();
+        } else {
+            this.baseUrl = "https://" + apiHost;
+        }
+        this.recordings = settings.getMode() == QuoteMode.RECORD ? recordings : null;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        this.quoteDecoder = new YahooQuoteStreamDecoder(new ObjectMapper().getFactory());
+    }
+
+    /**
+     * The response body is decoded as a stream, without buffering it into a String;
+     * only when recording is it read into memory first.
+     */
+    @Override
+    public Map<String, QuoteUpdate> fetchQuotes(List<String> symbols, String region) {
+        if (symbols.isEmpty()) {
+            return Map.of();
+        }
+
+        try {
+            // Index symbols such as ^GSPC are not valid in a URI as they are
+            String symbolsParam = symbols.stream()
+                    .map(symbol -> URLEncoder.encode(symbol, StandardCharsets.UTF_8))
+                    .collect(Collectors.joining("%2C"));
+            String url = String.format(
+                "%s/market/v2/get-quotes?region=%s&symbols=%s",
+                baseUrl, region != null ? region : "US", symbolsParam
+            );
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(url))
+                    .header("x-rapidapi-key", apiKey)
+                    .header("x-rapidapi-host", apiHost)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+            try (InputStream body = response.body()) {
+                if (response.statusCode() == 200) {
+                    if (recordings == null) {
+                        return quoteDecoder.decode(body, symbols.size());
+                    }
+                    byte[] bytes = body.readAllBytes();
+                    recordings.record(bytes);
+                    return quoteDecoder.decode(new ByteArrayInputStream(bytes), symbols.size());
+                }
+                log.warn("Yahoo Finance API returned status code: {} for symbols: {}",
+                        response.statusCode(), symbols);
+            }
+
+        } catch (Exception e) {
+            log.error("Error fetching data from Yahoo Finance API for symbols: {}", symbols, e);
+        }
+
+        return Map.of();
+    }
+}
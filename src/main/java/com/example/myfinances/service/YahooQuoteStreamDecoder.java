@@ -0,0 +1,164 @@
+package com.example.myfinances.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streaming decoder for Yahoo Finance {@code get-quotes} responses.
+ *
+ * Walks the response with Jackson's token API and builds one {@link QuoteUpdate}
+ * per result entry, keyed by symbol. No intermediate tree or DTO graph is created,
+ * and fields we do not use are skipped without being materialised.
+ */
+public class YahooQuoteStreamDecoder {
+
+    private final JsonFactory jsonFactory;
+
+    public YahooQuoteStreamDecoder(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Decode a quote response into a symbol-keyed map
+     *
+     * @param in the raw response body
+     * @param expectedQuotes sizing hint for the result map
+     * @return quotes keyed by symbol in response order, empty if the response has no results
+     */
+    public Map<String, QuoteUpdate> decode(InputStream in, int expectedQuotes) throws IOException {
+        Map<String, QuoteUpdate> quotes = new LinkedHashMap<>(Math.max(16, expectedQuotes * 4 / 3 + 1));
+
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return quotes;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("quoteResponse".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+                    readQuoteResponse(parser, quotes);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return quotes;
+    }
+
+    private void readQuoteResponse(JsonParser parser, Map<String, QuoteUpdate> quotes) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("result".equals(field) && parser.currentToken() == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    QuoteUpdate quote = readQuote(parser);
+                    if (quote != null) {
+                        quotes.put(quote.getSymbol(), quote);
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private QuoteUpdate readQuote(JsonParser parser) throws IOException {
+        String symbol = null;
+        String longName = null;
+        String shortName = null;
+        String quoteType = null;
+        String currency = null;
+        String exchange = null;
+        BigDecimal price = null;
+        Long marketCap = null;
+        BigDecimal peRatio = null;
+        BigDecimal dividendYield = null;
+        BigDecimal beta = null;
+        BigDecimal fiftyTwoWeekLow = null;
+        BigDecimal fiftyTwoWeekHigh = null;
+        Long avgVolume = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "symbol" -> symbol = readText(parser);
+                case "longName" -> longName = readText(parser);
+                case "shortName" -> shortName = readText(parser);
+                case "quoteType" -> quoteType = readText(parser);
+                case "currency" -> currency = readText(parser);
+                case "fullExchangeName" -> exchange = readText(parser);
+                case "regularMarketPrice" -> price = readDecimal(parser);
+                case "marketCap" -> marketCap = readLong(parser);
+                case "trailingPE" -> peRatio = readDecimal(parser);
+                case "dividendYield" -> dividendYield = readDecimal(parser);
+                case "beta" -> beta = readDecimal(parser);
+                case "fiftyTwoWeekLow" -> fiftyTwoWeekLow = readDecimal(parser);
+                case "fiftyTwoWeekHigh" -> fiftyTwoWeekHigh = readDecimal(parser);
+                case "averageDailyVolume3Month" -> avgVolume = readLong(parser);
+                default -> parser.skipChildren();
+            }
+        }
+
+        if (symbol == null) {
+            return null;
+        }
+
+        return new QuoteUpdate(symbol, longName != null ? longName : shortName, quoteType, currency, exchange,
+                price, marketCap, peRatio, dividendYield, beta, fiftyTwoWeekLow, fiftyTwoWeekHigh, avgVolume);
+    }
+
+    private String readText(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    /**
+     * Numeric fields are usually plain numbers, but some endpoints wrap them
+     * as {"raw": 1.23, "fmt": "1.23"}; both shapes are accepted.
+     */
+    private BigDecimal readDecimal(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getDecimalValue();
+        }
+        if (token == JsonToken.START_OBJECT) {
+            BigDecimal raw = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("raw".equals(field) && parser.currentToken().isNumeric()) {
+                    raw = parser.getDecimalValue();
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return raw;
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    private Long readLong(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return (long) parser.getDoubleValue();
+        }
+        BigDecimal wrapped = readDecimal(parser);
+        return wrapped != null ? wrapped.longValue() : null;
+    }
+}
@@ -0,0 +1,9 @@
+-- Append-only price history for investment products, one row per observed price.
+-- Range-partitioned by month on ts; monthly partitions are created on demand by the
+-- application (product_price_history_YYYY_MM) before rows for that month are written.
+CREATE TABLE product_price_history (
+    product_id BIGINT NOT NULL REFERENCES investment_products(id) ON DELETE CASCADE,
+    ts TIMESTAMP NOT NULL,
+    price DECIMAL(15,4) NOT NULL,
+    PRIMARY KEY (product_id, ts)
+) PARTITION BY RANGE (ts);
@@ -0,0 +1,7 @@
+-- Latest exchange rate per currency, as units of the currency per one unit of the
+-- base currency (EUR). Refreshed periodically by the application.
+CREATE TABLE fx_rates (
+    currency VARCHAR(3) PRIMARY KEY,
+    rate DECIMAL(19,8) NOT NULL CHECK (rate > 0),
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Refreshes that found no quote for a product, so the scheduler backs off symbols
+-- the quote provider does not know instead of retrying them on every run.
+ALTER TABLE investment_products ADD COLUMN last_refresh_attempt TIMESTAMP;
+ALTER TABLE investment_products ADD COLUMN failed_refreshes INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,89 @@
+package com.example.myfinances.benchmark;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.User;
+import com.example.myfinances.security.JwtAuthenticationFilter;
+import com.example.myfinances.security.JwtTokenService;
+import com.example.myfinances.security.UserPrincipal;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticated API requests per node: the bearer token checks a request goes
+ * through before reaching a controller, using every core, as a node behind a load
+ * balancer would.
+ *
+ * {@code authenticateRequest} runs the {@link JwtAuthenticationFilter} on a request
+ * carrying an access token; {@code verifyAccessToken} is the signature check and
+ * claims parsing alone; {@code issueTokens} is the cost of a login or refresh. Run with:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.myfinances.benchmark.JwtAuthenticationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class JwtAuthenticationBenchmark {
+
+    private JwtTokenService tokenService;
+    private JwtAuthenticationFilter filter;
+    private UserPrincipal user;
+    private String accessToken;
+
+    @Setup
+    public void issueToken() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSecurity().getJwt().setSecret("benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret");
+        tokenService = new JwtTokenService(properties);
+        filter = new JwtAuthenticationFilter(tokenService);
+        user = UserPrincipal.from(User.builder().id(42L).email("benchmark@example.com").name("Benchmark User").build());
+        accessToken = tokenService.issueTokens(user, UUID.randomUUID().toString()).getAccessToken();
+    }
+
+    @Benchmark
+    public Authentication authenticateRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.addHeader("Authorization", "Bearer " + accessToken);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    @Benchmark
+    public Optional<UserPrincipal> verifyAccessToken() {
+        return tokenService.parseAccessToken(accessToken);
+    }
+
+    @Benchmark
+    public JwtTokenService.TokenPair issueTokens() {
+        return tokenService.issueTokens(user, UUID.randomUUID().toString());
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
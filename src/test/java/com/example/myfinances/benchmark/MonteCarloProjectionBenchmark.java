@@ -0,0 +1,76 @@
+package com.example.myfinances.benchmark;
+
+import com.example.myfinances.service.MonteCarloSimulator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One portfolio projection as shown on the portfolio page: {@value #PATHS} paths over
+ * {@value #YEARS} years of monthly steps, drawn from ten years of monthly returns.
+ *
+ * Scores are per projection; {@code parallelism} 0 uses one thread per processor.
+ * Run with:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.myfinances.benchmark.MonteCarloProjectionBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonteCarloProjectionBenchmark {
+
+    static final int PATHS = 10_000;
+    static final int YEARS = 30;
+
+    private static final double[] QUANTILES = {0.05, 0.25, 0.5, 0.75, 0.95};
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private ForkJoinPool pool;
+    private MonteCarloSimulator simulator;
+    private double[] returns;
+    private long seed;
+
+    @Setup
+    public void setUp() {
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        simulator = new MonteCarloSimulator(pool);
+
+        // Ten years of returns around 7% a year with 15% volatility
+        SplittableRandom random = new SplittableRandom(1);
+        returns = new double[120];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = 0.07 / 12 + 0.15 / Math.sqrt(12) * random.nextGaussian();
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public double[][] project() {
+        return simulator.project(10_000, returns, YEARS, PATHS, QUANTILES, seed++);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(MonteCarloProjectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
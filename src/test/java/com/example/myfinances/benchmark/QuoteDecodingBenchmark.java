@@ -0,0 +1,145 @@
+package com.example.myfinances.benchmark;
+
+import com.example.myfinances.service.QuoteUpdate;
+import com.example.myfinances.service.YahooQuoteStreamDecoder;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming quote decoder against the previous approach of reading the
+ * body into a String and binding it into DTOs.
+ *
+ * Scores are per quote. Run with the GC profiler to get allocation per quote
+ * ({@code gc.alloc.rate.norm}):
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.myfinances.benchmark.QuoteDecodingBenchmark
+ * </pre>
+ * A recorded response can be supplied with {@code -Dquotes.file=/path/to/get-quotes.json};
+ * otherwise a response of {@value #QUOTES} synthetic quotes with the same shape is used.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(QuoteDecodingBenchmark.QUOTES)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuoteDecodingBenchmark {
+
+    static final int QUOTES = 5000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final YahooQuoteStreamDecoder decoder = new YahooQuoteStreamDecoder(objectMapper.getFactory());
+
+    private byte[] response;
+
+    @Setup
+    public void loadResponse() throws Exception {
+        String file = System.getProperty("quotes.file");
+        response = file != null
+                ? Files.readAllBytes(Path.of(file))
+                : syntheticResponse(QUOTES).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Map<String, QuoteUpdate> streamingDecoder() throws Exception {
+        return decoder.decode(new ByteArrayInputStream(response), QUOTES);
+    }
+
+    @Benchmark
+    public Map<String, BigDecimal> stringAndDtoBinding() throws Exception {
+        String body = new String(response, StandardCharsets.UTF_8);
+        QuoteEnvelope envelope = objectMapper.readValue(body, QuoteEnvelope.class);
+        Map<String, BigDecimal> prices = new HashMap<>();
+        for (Quote quote : envelope.getQuoteResponse().getResult()) {
+            prices.put(quote.getSymbol(), quote.getRegularMarketPrice());
+        }
+        return prices;
+    }
+
+    static String syntheticResponse(int quotes) {
+        StringBuilder json = new StringBuilder(quotes * 900);
+        json.append("{\"quoteResponse\":{\"result\":[");
+        for (int i = 0; i < quotes; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"language\":\"en-US\",\"region\":\"US\",\"quoteType\":\"EQUITY\",")
+                    .append("\"typeDisp\":\"Equity\",\"quoteSourceName\":\"Nasdaq Real Time Price\",")
+                    .append("\"triggerable\":true,\"currency\":\"USD\",\"marketState\":\"REGULAR\",")
+                    .append("\"symbol\":\"SYM").append(i).append("\",")
+                    .append("\"shortName\":\"Company ").append(i).append("\",")
+                    .append("\"longName\":\"Company ").append(i).append(" Holdings Inc.\",")
+                    .append("\"fullExchangeName\":\"NasdaqGS\",\"exchangeTimezoneName\":\"America/New_York\",")
+                    .append("\"regularMarketPrice\":").append(100 + (i % 900) + 0.25).append(',')
+                    .append("\"regularMarketChange\":1.23,\"regularMarketChangePercent\":0.85,")
+                    .append("\"regularMarketDayRange\":\"99.5 - 101.2\",\"regularMarketVolume\":12345678,")
+                    .append("\"marketCap\":").append(1_000_000_000L + i).append(',')
+                    .append("\"trailingPE\":24.51,\"dividendYield\":0.0123,\"beta\":1.12,")
+                    .append("\"fiftyTwoWeekLow\":80.1,\"fiftyTwoWeekHigh\":140.9,")
+                    .append("\"averageDailyVolume3Month\":9876543,")
+                    .append("\"corporateActions\":[],\"esgPopulated\":false,\"tradeable\":false}");
+        }
+        json.append("],\"error\":null}}");
+        return json.toString();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(QuoteDecodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+
+    // Baseline DTOs, equivalent to the ones the service used to bind into
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class QuoteEnvelope {
+        private QuoteResult quoteResponse;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class QuoteResult {
+        private List<Quote> result;
+        private Object error;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class Quote {
+        private String symbol;
+        private String longName;
+        private String shortName;
+        private String quoteType;
+        private String currency;
+        private String fullExchangeName;
+        private BigDecimal regularMarketPrice;
+        private Long marketCap;
+        private BigDecimal trailingPE;
+        private BigDecimal dividendYield;
+        private BigDecimal beta;
+        private BigDecimal fiftyTwoWeekLow;
+        private BigDecimal fiftyTwoWeekHigh;
+        private Long averageDailyVolume3Month;
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.myfinances.benchmark;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.config.ApplicationProperties.YahooFinance.QuoteMode;
+import com.example.myfinances.service.QuoteRecordings;
+import com.example.myfinances.service.QuoteReplayServer;
+import com.example.myfinances.service.QuoteUpdate;
+import com.example.myfinances.service.YahooQuoteSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Quote fetching end to end against the local replay server: request building,
+ * the HTTP round trip and streaming decoding, without network or API quota.
+ *
+ * Each operation fetches one batch of {@value #BATCH} symbols, as the price
+ * refresh does. Run with:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.myfinances.benchmark.QuoteReplayBenchmark
+ * </pre>
+ * Quotes recorded with {@code app.yahoo-finance.mode=record} are replayed with
+ * {@code -Dquotes.dir=./quote-recordings}; otherwise every symbol gets a synthetic
+ * quote. {@code latencyMillis} simulates the API's response time.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class QuoteReplayBenchmark {
+
+    static final int BATCH = 50;
+
+    @Param({"0", "20"})
+    public int latencyMillis;
+
+    private QuoteReplayServer server;
+    private YahooQuoteSource source;
+    private List<String> symbols;
+
+    @Setup
+    public void startServer() throws Exception {
+        String dir = System.getProperty("quotes.dir");
+        Path recordingsDir = dir != null ? Path.of(dir) : Files.createTempDirectory("quote-replay");
+        QuoteRecordings recordings = new QuoteRecordings(recordingsDir, new ObjectMapper());
+
+        ApplicationProperties properties = new ApplicationProperties();
+        ApplicationProperties.YahooFinance settings = properties.getYahooFinance();
+        settings.setMode(QuoteMode.REPLAY);
+        settings.getReplay().setLatency(Duration.ofMillis(latencyMillis));
+        settings.getReplay().setSynthesizeMissing(dir == null);
+
+        server = new QuoteReplayServer(recordings, properties);
+        server.start();
+        source = new YahooQuoteSource(settings, recordings, server);
+
+        symbols = new ArrayList<>(dir != null ? recordings.load().keySet() : List.of());
+        for (int i = symbols.size(); i < BATCH; i++) {
+            symbols.add("SYM" + i);
+        }
+        symbols = symbols.subList(0, BATCH);
+    }
+
+    @TearDown
+    public void stopServer() {
+        server.stop();
+    }
+
+    @Benchmark
+    public Map<String, QuoteUpdate> fetchBatch() {
+        return source.fetchQuotes(symbols, "US");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .include(QuoteReplayBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.myfinances.benchmark;
+
+import com.example.myfinances.model.User;
+import com.example.myfinances.security.UserPrincipal;
+import org.hibernate.collection.spi.PersistentSet;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Per-session memory of the authenticated principal: the security context each
+ * session holds, with the {@link User} entity as principal (as before) and with the
+ * compact {@link UserPrincipal}.
+ *
+ * Reports the heap retained per session with {@value #SESSIONS} concurrent sessions,
+ * and the serialized size that session replication or a session store pays. Entity
+ * collections are detached, uninitialised Hibernate sets, as after login. Not a JMH
+ * benchmark: a heap footprint needs one steady state, not throughput. Run with:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.myfinances.benchmark.SessionPrincipalFootprint
+ * </pre>
+ */
+public class SessionPrincipalFootprint {
+
+    static final int SESSIONS = 10_000;
+
+    public static void main(String[] args) throws Exception {
+        String passwordHash = new BCryptPasswordEncoder().encode("password");
+
+        IntFunction<SecurityContext> entitySession = i -> context(entity(i, passwordHash));
+        IntFunction<SecurityContext> compactSession = i -> context(UserPrincipal.from(entity(i, passwordHash)));
+
+        report("User entity", entitySession);
+        report("UserPrincipal", compactSession);
+    }
+
+    private static void report(String label, IntFunction<SecurityContext> session) throws Exception {
+        long before = usedHeap();
+        List<SecurityContext> sessions = new ArrayList<>(SESSIONS);
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(session.apply(i));
+        }
+        long retained = usedHeap() - before;
+
+        System.out.printf("%-14s %,8d bytes heap/session  %,8d bytes serialized/session  (%,d sessions)%n",
+                label, retained / SESSIONS, serializedSize(sessions.get(SESSIONS / 2)), sessions.size());
+    }
+
+    private static SecurityContext context(Object principal) {
+        UsernamePasswordAuthenticationToken authentication =
+                UsernamePasswordAuthenticationToken.authenticated(principal, null, List.of());
+        return new SecurityContextImpl(authentication);
+    }
+
+    private static User entity(int i, String passwordHash) {
+        return User.builder()
+                .id((long) i)
+                .email("user" + i + "@example.com")
+                .name("User " + i)
+                .password(passwordHash)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .accounts(new PersistentSet<>())
+                .categories(new PersistentSet<>())
+                .budgets(new PersistentSet<>())
+                .investments(new PersistentSet<>())
+                .savedProducts(new PersistentSet<>())
+                .build();
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static int serializedSize(Object value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.size();
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.myfinances.config;
+
+import com.example.myfinances.model.User;
+import com.example.myfinances.service.PriceDataVersion;
+import com.example.myfinances.service.UserDataVersion;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.FlashMap;
+import org.springframework.web.servlet.support.SessionFlashMapManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConditionalGetFilterTest {
+
+    private final UserDataVersion userDataVersion = new UserDataVersion();
+    private final PriceDataVersion priceDataVersion = new PriceDataVersion();
+    private final ConditionalGetFilter filter = new ConditionalGetFilter(userDataVersion, priceDataVersion);
+    private final MockHttpSession session = new MockHttpSession();
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder().id(1L).email("test@example.com").build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void unchangedData_AnswersNotModifiedWithoutController() throws Exception {
+        // Given
+        String etag = get("/transactions", null).getHeader("ETag");
+
+        // When
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("/transactions", etag), response, chain);
+
+        // Then
+        assertThat(etag).startsWith("W/\"");
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(chain.getRequest()).as("controller not run").isNull();
+    }
+
+    @Test
+    void userOrPriceWrite_ChangesETag() throws Exception {
+        // Given
+        String first = get("/dashboard", null).getHeader("ETag");
+
+        // When
+        userDataVersion.bump(1L);
+        String afterWrite = get("/dashboard", first).getHeader("ETag");
+        priceDataVersion.bump();
+        MockHttpServletResponse afterRefresh = get("/dashboard", afterWrite);
+
+        // Then
+        assertThat(afterWrite).isNotEqualTo(first);
+        assertThat(afterRefresh.getStatus()).isEqualTo(200);
+        assertThat(afterRefresh.getHeader("ETag")).isNotEqualTo(afterWrite);
+        userDataVersion.bump(2L);
+        assertThat(get("/dashboard", afterRefresh.getHeader("ETag")).getStatus())
+                .as("another user's write").isEqualTo(304);
+    }
+
+    @Test
+    void pendingFlashOrOtherPage_IsAlwaysRendered() throws Exception {
+        // Given
+        String etag = get("/accounts", null).getHeader("ETag");
+        session.setAttribute(SessionFlashMapManager.class.getName() + ".FLASH_MAPS", List.of(new FlashMap()));
+
+        // When
+        MockHttpServletResponse withFlash = get("/accounts", etag);
+        MockHttpServletResponse otherPage = get("/accounts/add", etag);
+
+        // Then
+        assertThat(withFlash.getStatus()).isEqualTo(200);
+        assertThat(withFlash.getHeader("ETag")).isNull();
+        assertThat(otherPage.getHeader("ETag")).isNull();
+    }
+
+    @Test
+    void htmxFragment_HasItsOwnETag() throws Exception {
+        // Given
+        String pageEtag = get("/transactions", null).getHeader("ETag");
+
+        // When
+        MockHttpServletRequest fragmentRequest = request("/transactions", pageEtag);
+        fragmentRequest.addHeader(HtmxRequests.HX_REQUEST, "true");
+        MockHttpServletResponse fragment = new MockHttpServletResponse();
+        filter.doFilter(fragmentRequest, fragment, new MockFilterChain());
+
+        MockHttpServletRequest restoreRequest = request("/transactions", pageEtag);
+        restoreRequest.addHeader(HtmxRequests.HX_REQUEST, "true");
+        restoreRequest.addHeader(HtmxRequests.HX_HISTORY_RESTORE_REQUEST, "true");
+        MockHttpServletResponse restore = new MockHttpServletResponse();
+        filter.doFilter(restoreRequest, restore, new MockFilterChain());
+
+        // Then
+        assertThat(fragment.getStatus()).isEqualTo(200);
+        assertThat(fragment.getHeader("ETag")).isNotEqualTo(pageEtag);
+        assertThat(fragment.getHeaders("Vary")).contains(HtmxRequests.HX_REQUEST);
+        assertThat(restore.getStatus()).as("history restore needs the full page").isEqualTo(304);
+    }
+
+    private MockHttpServletResponse get(String path, String ifNoneMatch) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain chain = new MockFilterChain();
+        filter.doFilter(request(path, ifNoneMatch), response, chain);
+        return response;
+    }
+
+    private MockHttpServletRequest request(String path, String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setSession(session);
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return request;
+    }
+}
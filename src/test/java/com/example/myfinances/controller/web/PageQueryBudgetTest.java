@@ -0,0 +1,263 @@
+package com.example.myfinances.controller.web;
+
+import com.example.myfinances.config.HtmxRequests;
+import com.example.myfinances.model.Account;
+import com.example.myfinances.model.AccountCategory;
+import com.example.myfinances.model.Investment;
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.model.Transaction;
+import com.example.myfinances.model.TransactionCategory;
+import com.example.myfinances.model.User;
+import com.example.myfinances.model.UserInvestmentProduct;
+import com.example.myfinances.repository.UserRepository;
+import com.example.myfinances.security.UserPrincipal;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Statement budgets for the portfolio, watchlist and transaction list pages.
+ *
+ * Each scenario requests a page through the real controllers, filters and Thymeleaf
+ * templates, as a signed-in user; the number of statements Hibernate prepares must
+ * stay within a fixed budget regardless of how many rows there are. Statements run
+ * through JdbcTemplate (price history) are not counted.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:page-query-budget;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // Nullability as in the Flyway schema, not as @NotNull on the entities
+        "spring.jpa.properties.hibernate.validator.apply_to_ddl=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "app.fx.refresh-enabled=false",
+        "app.price-refresh.enabled=false",
+        "app.projection.paths=100"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class PageQueryBudgetTest {
+
+    private static final int ROWS = 25;
+    private static final String EMAIL = "budget@example.com";
+
+    /**
+     * investments list + totals + allocation by type + allocation by currency
+     * + the valuations read by each of performance, projection and risk
+     */
+    private static final int PORTFOLIO_BUDGET = 7;
+
+    /** filtered investments list */
+    private static final int PORTFOLIO_FILTER_BUDGET = 1;
+
+    /** saved products list + saved products count */
+    private static final int WATCHLIST_BUDGET = 2;
+
+    /** filtered transactions page + count + accounts + categories */
+    private static final int TRANSACTIONS_BUDGET = 4;
+
+    /** filtered transactions page + count */
+    private static final int TRANSACTIONS_FILTER_BUDGET = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+    private Account account;
+    private TransactionCategory food;
+
+    @BeforeEach
+    void setUp() {
+        // The context, and its in-memory database, is shared by the scenarios
+        user = userRepository.findByEmail(EMAIL).orElse(null);
+        if (user == null) {
+            transactionTemplate.executeWithoutResult(status -> createRows());
+        } else {
+            account = transactionTemplate.execute(status -> entityManager
+                    .createQuery("SELECT a FROM Account a WHERE a.user = :user", Account.class)
+                    .setParameter("user", user)
+                    .getSingleResult());
+            food = transactionTemplate.execute(status -> entityManager
+                    .createQuery("SELECT c FROM TransactionCategory c WHERE c.user = :user AND c.type = :type",
+                            TransactionCategory.class)
+                    .setParameter("user", user)
+                    .setParameter("type", TransactionCategory.CategoryType.EXPENSE)
+                    .getSingleResult());
+        }
+    }
+
+    private void createRows() {
+        user = User.builder()
+                .email(EMAIL)
+                .password("secret")
+                .name("Budget User")
+                .enabled(true)
+                .build();
+        entityManager.persist(user);
+
+        for (int i = 0; i < ROWS; i++) {
+            InvestmentProduct product = InvestmentProduct.builder()
+                    .symbol("SYM" + i)
+                    .name("Product " + i)
+                    .type(i % 2 == 0 ? InvestmentProduct.InvestmentType.STOCK : InvestmentProduct.InvestmentType.ETF)
+                    .currency(i % 3 == 0 ? "EUR" : "USD")
+                    .currentPrice(new BigDecimal("100.00").add(BigDecimal.valueOf(i)))
+                    .build();
+            entityManager.persist(product);
+
+            entityManager.persist(Investment.builder()
+                    .user(user)
+                    .product(product)
+                    .quantity(BigDecimal.TEN)
+                    .purchasePrice(new BigDecimal("100.00"))
+                    .purchaseDate(LocalDate.now().minusDays(i))
+                    .exchangeRate(BigDecimal.ONE)
+                    .build());
+
+            entityManager.persist(UserInvestmentProduct.builder()
+                    .user(user)
+                    .product(product)
+                    .isFavorite(i % 2 == 0)
+                    .build());
+        }
+
+        AccountCategory bank = AccountCategory.builder()
+                .code("BANK")
+                .name("Banco")
+                .active(true)
+                .createdAt(LocalDateTime.now())
+                .build();
+        entityManager.persist(bank);
+        account = Account.builder()
+                .user(user)
+                .name("Conta à ordem")
+                .categoryEntity(bank)
+                .balance(BigDecimal.ZERO)
+                .currency("EUR")
+                .type("CHECKING")
+                .active(true)
+                .build();
+        entityManager.persist(account);
+        food = TransactionCategory.builder()
+                .user(user)
+                .name("Alimentação")
+                .type(TransactionCategory.CategoryType.EXPENSE)
+                .build();
+        entityManager.persist(food);
+        TransactionCategory salary = TransactionCategory.builder()
+                .user(user)
+                .name("Salário")
+                .type(TransactionCategory.CategoryType.INCOME)
+                .build();
+        entityManager.persist(salary);
+
+        for (int i = 0; i < ROWS * 2; i++) {
+            boolean income = i % 5 == 0;
+            entityManager.persist(Transaction.builder()
+                    .user(user)
+                    .account(account)
+                    .category(income ? salary : food)
+                    .amount(new BigDecimal("10.00").add(BigDecimal.valueOf(i)))
+                    .description((income ? "Salary " : "Supermarket ") + i)
+                    .transactionDate(LocalDate.now().minusDays(i))
+                    .type(income ? Transaction.TransactionType.INCOME : Transaction.TransactionType.EXPENSE)
+                    .build());
+        }
+
+        entityManager.flush();
+        // The newest transaction lost its category, as ON DELETE SET NULL leaves it
+        entityManager.createNativeQuery("UPDATE transactions SET category_id = NULL WHERE description = 'Salary 0'")
+                .executeUpdate();
+    }
+
+    @Test
+    void portfolioPage_StaysWithinStatementBudget() throws Exception {
+        String page = assertWithinBudget(PORTFOLIO_BUDGET, get("/investments"));
+        assertThat(page).contains("Product 0", "Product " + (ROWS - 1));
+
+        assertWithinBudget(PORTFOLIO_FILTER_BUDGET, get("/investments").param("search", "product")
+                .header(HtmxRequests.HX_REQUEST, "true"));
+        assertWithinBudget(PORTFOLIO_FILTER_BUDGET, get("/investments").param("type", "ETF")
+                .header(HtmxRequests.HX_REQUEST, "true"));
+    }
+
+    @Test
+    void watchlistPage_StaysWithinStatementBudget() throws Exception {
+        String page = assertWithinBudget(WATCHLIST_BUDGET, get("/investments/products"));
+        assertThat(page).contains("SYM0", "SYM" + (ROWS - 1));
+
+        assertWithinBudget(WATCHLIST_BUDGET, get("/investments/products").param("favorites", "true"));
+        assertWithinBudget(WATCHLIST_BUDGET, get("/investments/products").param("search", "sym"));
+        assertWithinBudget(WATCHLIST_BUDGET, get("/investments/products").param("type", "STOCK"));
+    }
+
+    @Test
+    void transactionsTable_StaysWithinStatementBudget() throws Exception {
+        String page = assertWithinBudget(TRANSACTIONS_BUDGET, get("/transactions").param("size", String.valueOf(ROWS)));
+        assertThat(page).contains("Salary 0", "Sem categoria", "Supermarket " + (ROWS - 1));
+
+        assertWithinBudget(TRANSACTIONS_FILTER_BUDGET, get("/transactions")
+                .param("size", String.valueOf(ROWS))
+                .param("search", "super")
+                .param("type", "EXPENSE")
+                .param("accountId", String.valueOf(account.getId()))
+                .param("categoryId", String.valueOf(food.getId()))
+                .header(HtmxRequests.HX_REQUEST, "true"));
+    }
+
+    private String assertWithinBudget(int budget, MockHttpServletRequestBuilder request) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        String page = mockMvc.perform(request.with(authentication(
+                        UsernamePasswordAuthenticationToken.authenticated(UserPrincipal.from(user), null, List.of()))))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements for one page view")
+                .isLessThanOrEqualTo(budget);
+        return page;
+    }
+}
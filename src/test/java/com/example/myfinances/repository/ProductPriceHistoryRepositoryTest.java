@@ -0,0 +1,91 @@
+package com.example.myfinances.repository;
+
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PricePoint;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.Resolution;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProductPriceHistoryRepositoryTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rolledBackPartition_IsCreatedAgain() {
+        // Given
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        DatabaseDialect dialect = mock(DatabaseDialect.class);
+        when(dialect.isPostgres()).thenReturn(true);
+        ProductPriceHistoryRepository repository = new ProductPriceHistoryRepository(jdbcTemplate, dialect);
+        List<YearMonth> march = List.of(YearMonth.of(2024, 3));
+
+        // When: the first transaction rolls back, the second commits
+        TransactionSynchronizationManager.initSynchronization();
+        repository.ensurePartitions(march);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        TransactionSynchronizationManager.initSynchronization();
+        repository.ensurePartitions(march);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        repository.ensurePartitions(march);
+
+        // Then
+        verify(jdbcTemplate, times(2)).execute(contains("product_price_history_2024_03"));
+    }
+
+    @Test
+    void portableSchema_SupportsWritesAndBarsOnH2() {
+        // Given
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+        ProductPriceHistoryRepository repository =
+                new ProductPriceHistoryRepository(jdbcTemplate, new DatabaseDialect(jdbcTemplate));
+        repository.createPortableSchema();
+        LocalDateTime day = LocalDateTime.of(2024, 3, 4, 10, 0);
+
+        // When
+        repository.append(List.of(
+                new PricePoint(1L, day, new BigDecimal("10.00")),
+                new PricePoint(1L, day.plusHours(6), new BigDecimal("12.00")),
+                new PricePoint(1L, day.plusDays(1), new BigDecimal("11.00"))));
+        repository.append(List.of(new PricePoint(1L, day, new BigDecimal("99.00"))));
+
+        // Then
+        assertThat(repository.findBars(1L, Resolution.DAILY, day.minusDays(1), day.plusDays(2)))
+                .extracting(bar -> bar.getOpen().intValue(), bar -> bar.getClose().intValue())
+                .containsExactly(tuple(10, 12), tuple(11, 11));
+        assertThat(repository.findCloses(List.of(1L, 2L), Resolution.MONTHLY, day.minusDays(1), day.plusDays(2)))
+                .extracting(close -> close.getClose().intValue())
+                .containsExactly(11);
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
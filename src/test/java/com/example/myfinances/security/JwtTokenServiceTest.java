@@ -0,0 +1,110 @@
+package com.example.myfinances.security;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.User;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtTokenServiceTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private JwtTokenService tokenService;
+    private UserPrincipal user;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSecurity().getJwt().setSecret(SECRET);
+        tokenService = new JwtTokenService(properties);
+        user = UserPrincipal.from(User.builder().id(7L).email("test@example.com").name("Test User").password("secret").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void accessToken_YieldsPrincipalFromClaims() {
+        // When
+        JwtTokenService.TokenPair tokens = tokenService.issueTokens(user, "token-1");
+
+        // Then
+        assertThat(tokens.getExpiresIn()).isEqualTo(900);
+        assertThat(tokenService.parseAccessToken(tokens.getAccessToken())).contains(user);
+        assertThat(tokenService.parseRefreshToken(tokens.getRefreshToken()))
+                .contains(new JwtTokenService.RefreshClaims(7L, "token-1"));
+    }
+
+    @Test
+    void tokens_AreNotInterchangeable() {
+        // When
+        JwtTokenService.TokenPair tokens = tokenService.issueTokens(user, "token-1");
+        String withoutId = Jwts.builder()
+                .issuer(JwtTokenService.ISSUER)
+                .subject("7")
+                .claim(JwtTokenService.TYPE_CLAIM, JwtTokenService.REFRESH)
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        // Then
+        assertThat(tokenService.parseAccessToken(tokens.getRefreshToken())).isEmpty();
+        assertThat(tokenService.parseRefreshToken(tokens.getAccessToken())).isEmpty();
+        assertThat(tokenService.parseRefreshToken(withoutId)).isEmpty();
+    }
+
+    @Test
+    void expiredTamperedOrForeignTokens_AreRejected() {
+        // Given
+        String expired = Jwts.builder()
+                .issuer(JwtTokenService.ISSUER)
+                .subject("7")
+                .claim(JwtTokenService.TYPE_CLAIM, JwtTokenService.ACCESS)
+                .expiration(new Date(System.currentTimeMillis() - 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        String foreign = Jwts.builder()
+                .issuer(JwtTokenService.ISSUER)
+                .subject("7")
+                .claim(JwtTokenService.TYPE_CLAIM, JwtTokenService.ACCESS)
+                .signWith(Keys.hmacShaKeyFor(SECRET.toUpperCase().getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        String valid = tokenService.issueTokens(user, "token-1").getAccessToken();
+        String tampered = valid.substring(0, valid.length() - 2) + (valid.endsWith("AA") ? "BB" : "AA");
+
+        // Then
+        assertThat(tokenService.parseAccessToken(expired)).isEmpty();
+        assertThat(tokenService.parseAccessToken(foreign)).isEmpty();
+        assertThat(tokenService.parseAccessToken(tampered)).isEmpty();
+        assertThat(tokenService.parseAccessToken("not-a-jwt")).isEmpty();
+        assertThat(tokenService.parseAccessToken(null)).isEmpty();
+    }
+
+    @Test
+    void filter_AuthenticatesBearerRequests() throws Exception {
+        // Given
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter(tokenService);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.addHeader("Authorization", "Bearer " + tokenService.issueTokens(user, "token-1").getAccessToken());
+
+        // When
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        // Then
+        assertThat(SecurityUtils.getCurrentUser()).map(User::getId).contains(7L);
+        assertThat(request.getSession(false)).isNull();
+    }
+}
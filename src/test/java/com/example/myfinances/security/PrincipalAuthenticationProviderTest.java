@@ -0,0 +1,114 @@
+package com.example.myfinances.security;
+
+import com.example.myfinances.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PrincipalAuthenticationProviderTest {
+
+    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+    private PrincipalAuthenticationProvider provider;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder()
+                .id(3L)
+                .email("test@example.com")
+                .name("Test User")
+                .password(passwordEncoder.encode("secret"))
+                .enabled(true)
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .accounts(new HashSet<>())
+                .categories(new HashSet<>())
+                .budgets(new HashSet<>())
+                .investments(new HashSet<>())
+                .savedProducts(new HashSet<>())
+                .build();
+        provider = new PrincipalAuthenticationProvider();
+        provider.setUserDetailsService(email -> user);
+        provider.setPasswordEncoder(passwordEncoder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void login_StoresCompactPrincipalInsteadOfEntity() throws Exception {
+        // When
+        Authentication result = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("test@example.com", "secret"));
+
+        // Then
+        assertThat(result.getPrincipal()).isEqualTo(new UserPrincipal(3L, "test@example.com", "Test User", null));
+        assertThat(result.getName()).isEqualTo("test@example.com");
+        assertThat(result.getCredentials()).isNull();
+        assertThat(serializedSize(result)).isLessThan(serializedSize(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities())));
+    }
+
+    @Test
+    void login_GrantsAdminRoleToConfiguredEmailsOnly() {
+        // Given
+        PrincipalAuthenticationProvider adminProvider =
+                new PrincipalAuthenticationProvider(List.of(" Test@Example.com ", ""));
+        adminProvider.setUserDetailsService(email -> user);
+        adminProvider.setPasswordEncoder(passwordEncoder);
+
+        // When
+        Authentication admin = adminProvider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("test@example.com", "secret"));
+        Authentication regular = provider.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated("test@example.com", "secret"));
+
+        // Then
+        assertThat(admin.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly(PrincipalAuthenticationProvider.ADMIN);
+        assertThat(((UserPrincipal) admin.getPrincipal()).authorities()).isEqualTo(admin.getAuthorities());
+        assertThat(regular.getAuthorities()).isEmpty();
+    }
+
+    @Test
+    void securityUtils_SupportsBothPrincipalTypes() {
+        // Given
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(UserPrincipal.from(user), null, user.getAuthorities()));
+
+        // When
+        User reference = SecurityUtils.getCurrentUserOrThrow();
+
+        // Then
+        assertThat(reference.getId()).isEqualTo(3L);
+        assertThat(reference.getEmail()).isEqualTo("test@example.com");
+        assertThat(reference.getPassword()).isNull();
+        assertThat(SecurityUtils.getCurrentUserId()).contains(3L);
+        assertThat(SecurityUtils.getCurrentPrincipal(
+                UsernamePasswordAuthenticationToken.authenticated(user, null, user.getAuthorities())))
+                .contains(UserPrincipal.from(user));
+    }
+
+    private static int serializedSize(Object value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+        }
+        return bytes.size();
+    }
+}
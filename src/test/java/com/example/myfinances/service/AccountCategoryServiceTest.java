@@ -0,0 +1,103 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.AccountCategory;
+import com.example.myfinances.model.AccountSubcategory;
+import com.example.myfinances.repository.AccountCategoryRepository;
+import com.example.myfinances.repository.AccountSubcategoryRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountCategoryServiceTest {
+
+    @Mock
+    private AccountCategoryRepository categoryRepository;
+
+    @Mock
+    private AccountSubcategoryRepository subcategoryRepository;
+
+    @Mock
+    private ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AccountCategoryCatalog catalog;
+    private AccountCategoryService service;
+
+    private AccountCategory bank;
+    private AccountCategory legacy;
+    private AccountSubcategory checking;
+    private AccountSubcategory closed;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        bank = AccountCategory.builder().id(1L).code("BANK").name("Banco").active(true).build();
+        legacy = AccountCategory.builder().id(2L).code("OLD").name("Antiga").active(false).build();
+        checking = AccountSubcategory.builder().id(10L).code("CHK").name("Conta à Ordem").category(bank).active(true).build();
+        closed = AccountSubcategory.builder().id(11L).code("CLS").name("Fechada").category(bank).active(false).build();
+        lenient().when(categoryRepository.findAllOrderedByDisplayOrder()).thenReturn(List.of(bank, legacy));
+        lenient().when(subcategoryRepository.findAllWithCategoryOrderedByDisplayOrder()).thenReturn(List.of(checking, closed));
+        doAnswer(invocation -> {
+            ((Consumer<MeterRegistry>) invocation.getArgument(0)).accept(meterRegistry);
+            return null;
+        }).when(meterRegistryProvider).ifAvailable(any());
+
+        catalog = new AccountCategoryCatalog(categoryRepository, subcategoryRepository, meterRegistryProvider);
+        service = new AccountCategoryService(categoryRepository, subcategoryRepository, catalog);
+    }
+
+    @Test
+    void formReads_AfterPreload_MakeNoQueries() {
+        // Given
+        catalog.preload();
+        clearInvocations(categoryRepository, subcategoryRepository);
+
+        // When: what a form render and a failed POST read
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.getCategoryNames()).containsExactly("Banco");
+            assertThat(service.getCategoriesWithSubcategoriesAsStrings())
+                    .isEqualTo(Map.of("Banco", List.of("Conta à Ordem")));
+        }
+        assertThat(service.findCategoryByName("Antiga")).contains(legacy);
+        assertThat(service.findSubcategoryByName("Fechada")).contains(closed);
+        assertThat(service.findSubcategoryByName("Nenhuma")).isEmpty();
+
+        // Then
+        verifyNoInteractions(categoryRepository, subcategoryRepository);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(9);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void createCategory_InvalidatesSnapshot() {
+        // Given
+        catalog.preload();
+        AccountCategory cash = AccountCategory.builder().id(3L).code("CASH").name("Dinheiro").active(true).build();
+        when(categoryRepository.existsByCode("CASH")).thenReturn(false);
+        when(categoryRepository.save(any(AccountCategory.class))).thenReturn(cash);
+
+        // When
+        service.createCategory("CASH", "Dinheiro", null);
+        when(categoryRepository.findAllOrderedByDisplayOrder()).thenReturn(List.of(bank, cash));
+
+        // Then
+        assertThat(service.getCategoryNames()).containsExactly("Banco", "Dinheiro");
+        assertThat(catalog.missCount()).isEqualTo(1);
+        verify(categoryRepository, times(2)).findAllOrderedByDisplayOrder();
+    }
+}
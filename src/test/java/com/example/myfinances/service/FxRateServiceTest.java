@@ -0,0 +1,138 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.FxRate;
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.repository.AccountRepository;
+import com.example.myfinances.repository.CurrencyAmount;
+import com.example.myfinances.repository.FxRateRepository;
+import com.example.myfinances.repository.InvestmentProductRepository;
+import com.example.myfinances.repository.InvestmentValuation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FxRateServiceTest {
+
+    @Mock
+    private FxRateRepository fxRateRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private InvestmentProductRepository investmentProductRepository;
+
+    @Mock
+    private PriceDataVersion priceDataVersion;
+
+    private final List<Collection<String>> requested = new ArrayList<>();
+
+    private FxRateService fxRateService;
+
+    @BeforeEach
+    void setUp() {
+        // Stand-in for the remote source: fixed rates per euro
+        FxRateSource source = (base, currencies) -> {
+            requested.add(List.copyOf(currencies));
+            return Map.of("USD", new BigDecimal("1.25"), "GBP", new BigDecimal("0.8"));
+        };
+        fxRateService = new FxRateService(fxRateRepository, source, accountRepository,
+                investmentProductRepository, new ApplicationProperties(), priceDataVersion);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void refresh_FetchesCurrenciesInUse_StoresAndPublishesSnapshot() {
+        // Given
+        when(accountRepository.findDistinctCurrencies()).thenReturn(List.of("EUR", "USD"));
+        when(investmentProductRepository.findDistinctCurrencies()).thenReturn(List.of("GBp", "USD"));
+
+        // When
+        int refreshed = fxRateService.refresh();
+
+        // Then
+        assertThat(refreshed).isEqualTo(2);
+        assertThat(requested).containsExactly(List.of("GBP", "USD"));
+
+        ArgumentCaptor<List<FxRate>> saved = ArgumentCaptor.forClass(List.class);
+        verify(fxRateRepository).saveAll(saved.capture());
+        assertThat(saved.getValue()).extracting(FxRate::getCurrency).containsExactlyInAnyOrder("USD", "GBP");
+        verify(priceDataVersion).bump();
+
+        FxRates rates = fxRateService.current();
+        assertThat(rates.convert(125, "USD", "EUR")).isCloseTo(100, within(1e-9));
+        assertThat(rates.convert(1000, "GBp", "USD")).isCloseTo(15.625, within(1e-9)); // £10 -> €12.50 -> $15.625
+    }
+
+    @Test
+    void sumInBase_WithMixedCurrencies_ConvertsEachAmount() {
+        // Given
+        FxRates rates = FxRates.of("EUR", Map.of("USD", new BigDecimal("1.25")), null);
+
+        // When
+        FxRates.BaseTotal total = rates.sumInBase(List.of(
+                new CurrencyAmount("EUR", new BigDecimal("100.00")),
+                new CurrencyAmount("USD", new BigDecimal("250.00"))));
+
+        // Then
+        assertThat(total.total()).isEqualByComparingTo(new BigDecimal("300.00"));
+        assertThat(total.isComplete()).isTrue();
+    }
+
+    @Test
+    void sumInBase_WithoutRate_LeavesAmountOutAndListsCurrency() {
+        // Given
+        FxRates rates = FxRates.of("EUR", Map.of("USD", new BigDecimal("1.25")), null);
+
+        // When
+        FxRates.BaseTotal total = rates.sumInBase(List.of(
+                new CurrencyAmount("EUR", new BigDecimal("100.00")),
+                new CurrencyAmount("CHF", new BigDecimal("10.00")),
+                new CurrencyAmount("JPY", BigDecimal.ZERO)));
+
+        // Then: not added 1:1, and an empty JPY balance changes nothing
+        assertThat(total.total()).isEqualByComparingTo(new BigDecimal("100.00"));
+        assertThat(total.unconverted()).containsExactly("CHF");
+    }
+
+    @Test
+    void atCurrentRates_WithoutRate_KeepsValueAtPurchaseRate() {
+        // Given
+        when(accountRepository.findDistinctCurrencies()).thenReturn(List.of("USD"));
+        when(investmentProductRepository.findDistinctCurrencies()).thenReturn(List.of());
+        fxRateService.refresh();
+
+        InvestmentValuation usd = valuation("USD", "1500.00", "1400.00");
+        InvestmentValuation jpy = valuation("JPY", "90000.00", "560.00");
+
+        // When
+        List<InvestmentValuation> result = fxRateService.atCurrentRates(List.of(usd, jpy));
+
+        // Then
+        assertThat(result.get(0).getCurrentValueBaseCurrency()).isEqualByComparingTo(new BigDecimal("1200.00"));
+        assertThat(result.get(1).getCurrentValueBaseCurrency()).isEqualByComparingTo(new BigDecimal("560.00"));
+        assertThat(result.get(0).getTotalInvestedBaseCurrency()).isEqualByComparingTo(new BigDecimal("1000.00"));
+    }
+
+    private static InvestmentValuation valuation(String currency, String currentValue, String currentValueAtPurchaseRate) {
+        return new InvestmentValuation(1L, 1L, "SYM", "Product", InvestmentProduct.InvestmentType.STOCK, currency,
+                BigDecimal.TEN, new BigDecimal("100.00"), LocalDate.now().minusYears(1), null,
+                new BigDecimal("1000.00"), new BigDecimal(currentValue), null,
+                new BigDecimal("1000.00"), new BigDecimal(currentValueAtPurchaseRate));
+    }
+}
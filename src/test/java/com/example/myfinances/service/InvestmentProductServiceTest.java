@@ -0,0 +1,131 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.repository.InvestmentProductJdbcRepository;
+import com.example.myfinances.repository.InvestmentProductRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvestmentProductServiceTest {
+
+    @Mock
+    private InvestmentProductRepository productRepository;
+
+    @Mock
+    private YahooFinanceApiService yahooFinanceApiService;
+
+    @Mock
+    private ProductPriceWriteBack priceWriteBack;
+
+    @Mock
+    private InvestmentProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private ProductSearchIndex searchIndex;
+
+    @Mock
+    private ProductCatalogueStats catalogueStats;
+
+    @InjectMocks
+    private InvestmentProductService investmentProductService;
+
+    private static InvestmentProduct product(Long id, String symbol, String currency, String price) {
+        return InvestmentProduct.builder()
+                .id(id)
+                .symbol(symbol)
+                .name(symbol + " Corp")
+                .type(InvestmentProduct.InvestmentType.STOCK)
+                .currency(currency)
+                .currentPrice(new BigDecimal(price))
+                .build();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchProductsFromApi_WithManySymbols_UsesConstantNumberOfRoundTrips() {
+        // Given: 50 symbols, the first 20 already known (one of them in EUR and USD)
+        List<String> symbols = new ArrayList<>();
+        List<InvestmentProduct> known = new ArrayList<>();
+        List<InvestmentProduct> fromApi = new ArrayList<>();
+        List<InvestmentProduct> inserted = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String symbol = "SYM" + i;
+            symbols.add(symbol.toLowerCase());
+            if (i < 20) {
+                known.add(product((long) i, symbol, "USD", "10"));
+            } else {
+                fromApi.add(product(null, symbol, "USD", "20"));
+                inserted.add(product((long) i, symbol, "USD", "20"));
+            }
+        }
+        known.add(product(100L, "SYM0", "EUR", "9"));
+
+        when(productRepository.findBySymbolIn(anyCollection())).thenReturn(known, inserted);
+        when(yahooFinanceApiService.searchBySymbols(anyList(), eq("US"))).thenReturn(fromApi);
+
+        // When
+        List<InvestmentProduct> results = investmentProductService.searchProductsFromApi(symbols, "US", true);
+
+        // Then
+        assertThat(results).hasSize(50);
+        assertThat(results.get(0).getId()).isEqualTo(0L); // USD listing preferred
+        assertThat(results).extracting(InvestmentProduct::getId).doesNotContainNull();
+
+        ArgumentCaptor<List<String>> apiSymbols = ArgumentCaptor.forClass(List.class);
+        verify(yahooFinanceApiService, times(1)).searchBySymbols(apiSymbols.capture(), eq("US"));
+        assertThat(apiSymbols.getValue()).hasSize(30).first().isEqualTo("SYM20");
+
+        verify(productRepository, times(2)).findBySymbolIn(anyCollection());
+        verify(productJdbcRepository, times(1)).insertProducts(eq(fromApi), any());
+        verify(productRepository, never()).findBySymbolAndCurrency(any(), any());
+        verify(productRepository, never()).save(any());
+        verify(searchIndex, times(30)).index(any());
+    }
+
+    @Test
+    void searchProductsFromApi_WithExistingListingFromApi_UpdatesInsteadOfInserting() {
+        // Given
+        InvestmentProduct stored = product(7L, "VWCE.DE", "EUR", "100");
+        when(productRepository.findBySymbolIn(anyCollection()))
+                .thenReturn(List.of())            // requested symbol unknown
+                .thenReturn(List.of(stored));     // symbol returned by the API is known
+        when(yahooFinanceApiService.searchBySymbols(List.of("VWCE"), "GB"))
+                .thenReturn(List.of(product(null, "VWCE.DE", "EUR", "105")));
+
+        // When
+        List<InvestmentProduct> results = investmentProductService.searchProductsFromApi(List.of("vwce"), "GB", true);
+
+        // Then
+        assertThat(results).containsExactly(stored);
+        assertThat(stored.getCurrentPrice()).isEqualByComparingTo("105");
+        verify(productJdbcRepository, never()).insertProducts(any(), any());
+    }
+
+    @Test
+    void searchProductsFromApi_WithAllSymbolsKnown_DoesNotCallApi() {
+        // Given
+        when(productRepository.findBySymbolIn(anyCollection()))
+                .thenReturn(List.of(product(1L, "AAPL", "USD", "150")));
+
+        // When
+        List<InvestmentProduct> results = investmentProductService.searchProductsFromApi(List.of("AAPL", " aapl "), "US", true);
+
+        // Then
+        assertThat(results).extracting(InvestmentProduct::getId).containsExactly(1L);
+        verifyNoInteractions(yahooFinanceApiService, productJdbcRepository);
+    }
+}
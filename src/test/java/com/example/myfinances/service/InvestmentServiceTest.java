@@ -4,6 +4,8 @@ import com.example.myfinances.model.Investment;
 import com.example.myfinances.model.InvestmentProduct;
 import com.example.myfinances.model.User;
 import com.example.myfinances.repository.InvestmentRepository;
+import com.example.myfinances.repository.InvestmentValuation;
+import com.example.myfinances.repository.PortfolioTotals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,11 +15,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +34,30 @@ class InvestmentServiceTest {
     @Mock
     private InvestmentProductService investmentProductService;
 
+    @Mock
+    private PortfolioPerformanceService portfolioPerformanceService;
+
+    @Mock
+    private PortfolioProjectionService portfolioProjectionService;
+
+    @Mock
+    private PortfolioRiskService portfolioRiskService;
+
+    @Mock
+    private FxRateService fxRateService;
+
+    @Mock
+    private ProductCatalogueStats catalogueStats;
+
+    @Mock
+    private PriceRefreshScheduler priceRefreshScheduler;
+
+    @Mock
+    private PriceRefreshQueue priceRefreshQueue;
+
+    @Mock
+    private UserDataVersion userDataVersion;
+
     @InjectMocks
     private InvestmentService investmentService;
 
@@ -125,6 +154,21 @@ class InvestmentServiceTest {
         verify(investmentRepository).delete(testInvestment);
     }
 
+    @Test
+    void writes_InvalidateEveryResultDerivedFromHoldings() {
+        // When
+        investmentService.createInvestment(testUser, testProduct, BigDecimal.ONE, BigDecimal.TEN, LocalDate.now());
+        investmentService.updateInvestment(testInvestment);
+        investmentService.deleteInvestment(testInvestment);
+
+        // Then
+        Long userId = testUser.getId();
+        verify(portfolioPerformanceService, times(3)).evict(userId);
+        verify(portfolioProjectionService, times(3)).evict(userId);
+        verify(portfolioRiskService, times(3)).evict(userId);
+        verify(userDataVersion, times(3)).bumpAfterCommit(userId);
+    }
+
     @Test
     void findByIdAndUser_WithValidIdAndUser_ReturnsInvestment() {
         // Given
@@ -234,9 +278,10 @@ class InvestmentServiceTest {
     @Test
     void getPortfolioSummary_WithValidUser_ReturnsPortfolioSummary() {
         // Given
-        List<Investment> investments = List.of(testInvestment);
-        when(investmentRepository.findByUserOrderByPurchaseDateDesc(testUser))
-                .thenReturn(investments);
+        when(investmentRepository.getPortfolioTotalsByCurrency(testUser))
+                .thenReturn(List.of(new PortfolioTotals("USD", 1L, new BigDecimal("1000.00"), new BigDecimal("1500.00"),
+                        new BigDecimal("1000.00"), new BigDecimal("1500.00"))));
+        when(fxRateService.current()).thenReturn(FxRates.empty("EUR"));
 
         // When
         InvestmentService.PortfolioSummary result = investmentService.getPortfolioSummary(testUser);
@@ -246,6 +291,46 @@ class InvestmentServiceTest {
         assertThat(result.getTotalInvestments()).isEqualTo(1);
         assertThat(result.getTotalInvested()).isEqualByComparingTo(new BigDecimal("1000.00")); // 10 * 100
         assertThat(result.getCurrentValue()).isEqualByComparingTo(new BigDecimal("1500.00")); // 10 * 150
+        assertThat(result.getTotalGainLoss()).isEqualByComparingTo(new BigDecimal("500.00"));
+        assertThat(result.getPercentageGainLoss()).isEqualByComparingTo(new BigDecimal("50"));
+        assertThat(result.getCurrentValueBaseCurrency()).isEqualByComparingTo(new BigDecimal("1500.00")); // no live rate
+    }
+
+    @Test
+    void getPortfolioSummary_WithLiveRates_ConvertsCurrentValueAtTodaysRate() {
+        // Given: USD bought at 1.00 USD/EUR, now 1.25 USD/EUR
+        when(investmentRepository.getPortfolioTotalsByCurrency(testUser))
+                .thenReturn(List.of(
+                        new PortfolioTotals("USD", 1L, new BigDecimal("1000.00"), new BigDecimal("1500.00"),
+                                new BigDecimal("1000.00"), new BigDecimal("1500.00")),
+                        new PortfolioTotals("EUR", 2L, new BigDecimal("200.00"), new BigDecimal("300.00"),
+                                new BigDecimal("200.00"), new BigDecimal("300.00"))));
+        when(fxRateService.current())
+                .thenReturn(FxRates.of("EUR", Map.of("USD", new BigDecimal("1.25")), LocalDateTime.now()));
+
+        // When
+        InvestmentService.PortfolioSummary result = investmentService.getPortfolioSummary(testUser);
+
+        // Then
+        assertThat(result.getTotalInvestments()).isEqualTo(3);
+        assertThat(result.getTotalInvestedBaseCurrency()).isEqualByComparingTo(new BigDecimal("1200.00"));
+        assertThat(result.getCurrentValueBaseCurrency()).isEqualByComparingTo(new BigDecimal("1500.00")); // 1200 + 300
+        assertThat(result.getTotalGainLossBaseCurrency()).isEqualByComparingTo(new BigDecimal("300.00"));
+    }
+
+    @Test
+    void getPortfolioSummary_WithoutInvestments_ReturnsZeroTotals() {
+        // Given
+        when(investmentRepository.getPortfolioTotalsByCurrency(testUser)).thenReturn(List.of());
+        when(fxRateService.current()).thenReturn(FxRates.empty("EUR"));
+
+        // When
+        InvestmentService.PortfolioSummary result = investmentService.getPortfolioSummary(testUser);
+
+        // Then
+        assertThat(result.getTotalInvestments()).isZero();
+        assertThat(result.getTotalInvested()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(result.getPercentageGainLoss()).isEqualByComparingTo(BigDecimal.ZERO);
     }
 
     @Test
@@ -275,34 +360,45 @@ class InvestmentServiceTest {
     }
 
     @Test
-    void getProfitableInvestments_WithProfitableInvestments_ReturnsFilteredList() {
+    void getProfitableInvestments_WithProfitableInvestments_ReturnsValuations() {
         // Given
-        List<Investment> investments = List.of(testInvestment); // This investment is profitable (150 current vs 100 purchase)
-        when(investmentRepository.findByUserOrderByPurchaseDateDesc(testUser))
-                .thenReturn(investments);
+        InvestmentValuation valuation = valuation("150.00"); // 150 current vs 100 purchase
+        when(investmentRepository.findProfitableValuationsByUser(testUser))
+                .thenReturn(List.of(valuation));
+        when(fxRateService.atCurrentRates(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
-        List<Investment> result = investmentService.getProfitableInvestments(testUser);
+        List<InvestmentValuation> result = investmentService.getProfitableInvestments(testUser);
 
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).isProfitable()).isTrue();
+        assertThat(result.get(0).getPercentageGainLoss()).isEqualByComparingTo(new BigDecimal("50.00"));
     }
 
     @Test
-    void getLosingInvestments_WithLosingInvestments_ReturnsFilteredList() {
+    void getLosingInvestments_WithLosingInvestments_ReturnsValuations() {
         // Given
-        // Create a losing investment
-        testProduct.setCurrentPrice(new BigDecimal("50.00")); // Lower than purchase price of 100
-        List<Investment> investments = List.of(testInvestment);
-        when(investmentRepository.findByUserOrderByPurchaseDateDesc(testUser))
-                .thenReturn(investments);
+        InvestmentValuation valuation = valuation("50.00"); // Lower than purchase price of 100
+        when(investmentRepository.findLosingValuationsByUser(testUser))
+                .thenReturn(List.of(valuation));
+        when(fxRateService.atCurrentRates(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
-        List<Investment> result = investmentService.getLosingInvestments(testUser);
+        List<InvestmentValuation> result = investmentService.getLosingInvestments(testUser);
 
         // Then
         assertThat(result).hasSize(1);
         assertThat(result.get(0).isProfitable()).isFalse();
+        assertThat(result.get(0).getTotalGainLoss()).isEqualByComparingTo(new BigDecimal("-500.00"));
+    }
+
+    private InvestmentValuation valuation(String currentPrice) {
+        BigDecimal invested = testInvestment.getQuantity().multiply(testInvestment.getPurchasePrice());
+        BigDecimal current = testInvestment.getQuantity().multiply(new BigDecimal(currentPrice));
+        return new InvestmentValuation(testInvestment.getId(), testProduct.getId(), testProduct.getSymbol(),
+                testProduct.getName(), testProduct.getType(), testProduct.getCurrency(),
+                testInvestment.getQuantity(), testInvestment.getPurchasePrice(), testInvestment.getPurchaseDate(),
+                new BigDecimal(currentPrice), invested, current, current.subtract(invested), invested, current);
     }
 }
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class LiveUpdateHubTest {
+
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private LiveUpdateHub hub;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getLive().setBufferSize(3);
+        properties.getLive().setMaxConnectionsPerUser(2);
+        hub = new LiveUpdateHub(properties);
+
+        // Hold the sender thread, so queued frames stay in the connection buffers
+        executor.execute(() -> {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        hub.start(executor, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        gate.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void connect_LatestConnectionDefinesWatchedProducts() {
+        // When
+        hub.connect(1L, List.of(10L, 11L), Locale.ROOT);
+        hub.connect(1L, List.of(11L), Locale.ROOT);
+        hub.connect(2L, List.of(12L), Locale.ROOT);
+
+        // Then
+        assertThat(hub.isWatched(10L)).isFalse();
+        assertThat(hub.isWatched(11L)).isTrue();
+        assertThat(hub.isWatched(12L)).isTrue();
+        assertThat(hub.connectionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void connect_BeyondPerUserLimit_ClosesOldestConnection() {
+        // When
+        for (int i = 0; i < 4; i++) {
+            hub.connect(1L, Set.of(10L), Locale.ROOT);
+        }
+
+        // Then
+        assertThat(hub.connectionCount()).isEqualTo(2);
+        assertThat(hub.isConnected(1L)).isTrue();
+    }
+
+    @Test
+    void send_WhenConsumerFallsBehind_DropsConnectionAndItsWatches() {
+        // Given: the initial frame plus two updates fill a buffer of three
+        hub.connect(1L, Set.of(10L), Locale.ROOT);
+        hub.connect(2L, Set.of(11L), Locale.ROOT);
+        hub.sendToWatchers(Map.of(10L, "<span>1</span>"));
+        hub.sendToWatchers(Map.of(10L, "<span>2</span>"));
+        assertThat(hub.isConnected(1L)).isTrue();
+
+        // When
+        hub.sendToWatchers(Map.of(10L, "<span>3</span>"));
+
+        // Then
+        assertThat(hub.isConnected(1L)).isFalse();
+        assertThat(hub.isWatched(10L)).isFalse();
+        assertThat(hub.isConnected(2L)).isTrue();
+        assertThat(hub.isWatched(11L)).isTrue();
+    }
+
+    @Test
+    void connect_RacingAnotherUsersUnwatch_KeepsProductWatched() throws Exception {
+        // Given: user 2 is the only watcher of product 10
+        ExecutorService users = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 2_000; round++) {
+                hub.connect(1L, Set.of(11L), Locale.ROOT);
+                hub.connect(2L, Set.of(10L), Locale.ROOT);
+                CyclicBarrier start = new CyclicBarrier(2);
+
+                // When: user 1 starts watching it while user 2 stops
+                Future<?> watch = users.submit(() -> {
+                    start.await();
+                    return hub.connect(1L, Set.of(10L), Locale.ROOT);
+                });
+                Future<?> unwatch = users.submit(() -> {
+                    start.await();
+                    return hub.connect(2L, Set.of(11L), Locale.ROOT);
+                });
+                watch.get(5, TimeUnit.SECONDS);
+                unwatch.get(5, TimeUnit.SECONDS);
+
+                // Then
+                assertThat(hub.isWatched(10L)).as("round %d", round).isTrue();
+            }
+        } finally {
+            users.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_WhenRenderQueueIsFull_DropsTask() throws InterruptedException {
+        // Given: one render thread, held, and room for one queued task
+        ThreadPoolExecutor renderer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(1));
+        hub.start(executor, renderer);
+        CountDownLatch rendered = new CountDownLatch(1);
+        try {
+            assertThat(hub.execute(() -> {
+                try {
+                    gate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            })).isTrue();
+            assertThat(hub.execute(rendered::countDown)).isTrue();
+
+            // When
+            boolean accepted = hub.execute(rendered::countDown);
+
+            // Then: dropped without blocking the caller, the queued one still runs
+            assertThat(accepted).isFalse();
+            gate.countDown();
+            assertThat(rendered.await(5, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            renderer.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.myfinances.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MonteCarloSimulatorTest {
+
+    private static final double[] QUANTILES = {0.05, 0.5, 0.95};
+
+    private static double[][] project(int parallelism, double[] returns, int years, int paths, long seed) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return new MonteCarloSimulator(pool).project(1000, returns, years, paths, QUANTILES, seed);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void project_WithConstantReturn_CompoundsExactly() {
+        // Given: 1% every month
+        double[] returns = {Math.log(1.01)};
+
+        // When
+        double[][] bands = project(2, returns, 3, 1000, 42L);
+
+        // Then
+        assertThat(bands).hasNumberOfRows(4);
+        assertThat(bands[0]).containsOnly(1000.0);
+        for (double value : bands[3]) {
+            assertThat(value).isCloseTo(1000 * Math.pow(1.01, 36), within(1e-6));
+        }
+    }
+
+    @Test
+    void project_SameSeed_GivesSameBandsWhateverTheParallelism() {
+        // Given
+        double[] returns = {-0.08, -0.02, 0.0, 0.01, 0.015, 0.03, 0.06};
+
+        // When
+        double[][] sequential = project(1, returns, 10, 5000, 7L);
+        double[][] parallel = project(4, returns, 10, 5000, 7L);
+
+        // Then
+        assertThat(parallel).isDeepEqualTo(sequential);
+    }
+
+    @Test
+    void project_BandsWidenOverTimeAndStayOrdered() {
+        // Given: zero mean, some volatility
+        double[] returns = {-0.05, 0.05};
+
+        // When
+        double[][] bands = project(4, returns, 20, 10_000, 1L);
+
+        // Then
+        for (int year = 1; year <= 20; year++) {
+            assertThat(bands[year][0]).isLessThan(bands[year][1]);
+            assertThat(bands[year][1]).isLessThan(bands[year][2]);
+        }
+        assertThat(bands[20][2] - bands[20][0]).isGreaterThan(bands[1][2] - bands[1][0]);
+        // The median of a symmetric walk in log space stays near the start
+        assertThat(bands[20][1]).isCloseTo(1000, within(100.0));
+    }
+}
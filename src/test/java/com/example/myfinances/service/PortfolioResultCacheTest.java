@@ -0,0 +1,103 @@
+package com.example.myfinances.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PortfolioResultCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 16);
+
+    private final PortfolioResultCache<String> cache = new PortfolioResultCache<>(2);
+    private final AtomicInteger calculations = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_KeepsOnlyTheMostRecentlyReadUsers() {
+        // Given
+        cache.get(1L, 0, TODAY, () -> calculate("a"));
+        cache.get(2L, 0, TODAY, () -> calculate("b"));
+        cache.get(1L, 0, TODAY, () -> calculate("a"));
+
+        // When
+        cache.get(3L, 0, TODAY, () -> calculate("c"));
+
+        // Then: user 2 was the least recently read
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(1L, 0, TODAY, () -> calculate("a"))).isEqualTo("a");
+        assertThat(calculations).hasValue(3);
+        cache.get(2L, 0, TODAY, () -> calculate("b"));
+        assertThat(calculations).hasValue(4);
+    }
+
+    @Test
+    void get_RecalculatesForNewVersionOrDay() {
+        // Given
+        cache.get(1L, 0, TODAY, () -> calculate("a"));
+
+        // When
+        cache.get(1L, 1, TODAY, () -> calculate("a"));
+        cache.get(1L, 1, TODAY.plusDays(1), () -> calculate("a"));
+
+        // Then
+        assertThat(calculations).hasValue(3);
+    }
+
+    @Test
+    void evict_WaitsForCommit() {
+        // Given
+        cache.get(1L, 0, TODAY, () -> calculate("before"));
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        cache.evictAfterCommit(1L);
+
+        // Then: the result stays until the write commits
+        assertThat(cache.get(1L, 0, TODAY, () -> calculate("during"))).isEqualTo("before");
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+        assertThat(cache.get(1L, 0, TODAY, () -> calculate("after"))).isEqualTo("after");
+    }
+
+    @Test
+    void calculationRacingAnEviction_IsNotKept() {
+        // When: the write commits while the old holdings are being calculated
+        String raced = cache.get(1L, 0, TODAY, () -> {
+            cache.evictAfterCommit(1L);
+            return calculate("stale");
+        });
+
+        // Then
+        assertThat(raced).isEqualTo("stale");
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get(1L, 0, TODAY, () -> calculate("fresh"))).isEqualTo("fresh");
+    }
+
+    private String calculate(String value) {
+        calculations.incrementAndGet();
+        return value;
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.afterCommit();
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
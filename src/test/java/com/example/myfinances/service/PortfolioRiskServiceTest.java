@@ -0,0 +1,157 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.model.User;
+import com.example.myfinances.repository.InvestmentRepository;
+import com.example.myfinances.repository.InvestmentValuation;
+import com.example.myfinances.repository.ProductPriceHistoryRepository;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PriceClose;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PortfolioRiskServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 16);
+
+    @Mock
+    private InvestmentRepository investmentRepository;
+
+    @Mock
+    private ProductPriceHistoryRepository priceHistoryRepository;
+
+    @Mock
+    private FxRateService fxRateService;
+
+    private final PriceDataVersion priceDataVersion = new PriceDataVersion();
+
+    private PortfolioRiskService service;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getRisk().setMinObservations(10);
+        service = new PortfolioRiskService(investmentRepository, priceHistoryRepository, priceDataVersion,
+                fxRateService, properties);
+    }
+
+    private static InvestmentValuation lot(long productId, String symbol, String value) {
+        return new InvestmentValuation(productId, productId, symbol, symbol, InvestmentProduct.InvestmentType.STOCK,
+                "EUR", BigDecimal.ONE, new BigDecimal(value), TODAY.minusYears(1), new BigDecimal(value),
+                new BigDecimal(value), new BigDecimal(value), BigDecimal.ZERO,
+                new BigDecimal(value), new BigDecimal(value));
+    }
+
+    /** Closes of a product alternating +1% / -1% over the given days, skipping some */
+    private static List<PriceClose> closes(long productId, int days, int skipEvery) {
+        List<PriceClose> closes = new ArrayList<>();
+        double price = 100;
+        for (int day = days; day >= 0; day--) {
+            price *= day % 2 == 0 ? 1.01 : 0.99;
+            if (skipEvery == 0 || day % skipEvery != 0) {
+                closes.add(new PriceClose(productId, TODAY.minusDays(day), BigDecimal.valueOf(price)));
+            }
+        }
+        return closes;
+    }
+
+    @Test
+    void calculate_LeavesOutProductsWithShortHistory() {
+        // Given: A has 30 days (with gaps), B only 5
+        List<PriceClose> history = new ArrayList<>(closes(1L, 30, 7));
+        history.addAll(closes(2L, 5, 0));
+        when(priceHistoryRepository.findCloses(anyCollection(), eq(ProductPriceHistoryRepository.Resolution.DAILY),
+                any(), any())).thenReturn(history);
+
+        // When
+        PortfolioRiskService.PortfolioRisk risk = service.calculate(
+                List.of(lot(1L, "AAA", "750"), lot(2L, "BBB", "250")), TODAY);
+
+        // Then
+        assertThat(risk.isAvailable()).isTrue();
+        assertThat(risk.getSymbols()).containsExactly("AAA");
+        assertThat(risk.getCoverage()).isCloseTo(0.75, within(1e-12));
+        // 23 weekdays less the 4 neither product traded (day 0 is B's, carried forward for A)
+        assertThat(risk.getObservations()).isEqualTo(18);
+        assertThat(risk.getAnnualVolatility()).isPositive();
+        assertThat(risk.getHistoricalVar95()).isGreaterThan(0).isLessThan(750 * 0.011);
+    }
+
+    @Test
+    void calculate_AlignsCryptoOnEquityWeekdays() {
+        // Given: an equity priced on weekdays, and a coin open every day but flat
+        List<PriceClose> equity = closes(1L, 60, 0).stream()
+                .filter(close -> close.getDate().getDayOfWeek().getValue() <= 5)
+                .toList();
+        List<PriceClose> history = new ArrayList<>(equity);
+        for (int day = 60; day >= 0; day--) {
+            history.add(new PriceClose(2L, TODAY.minusDays(day), BigDecimal.TEN));
+        }
+        when(priceHistoryRepository.findCloses(anyCollection(), eq(ProductPriceHistoryRepository.Resolution.DAILY),
+                any(), any())).thenReturn(equity, history);
+
+        // When
+        PortfolioRiskService.PortfolioRisk equityOnly = service.calculate(List.of(lot(1L, "AAA", "750")), TODAY);
+        PortfolioRiskService.PortfolioRisk mixed = service.calculate(
+                List.of(lot(1L, "AAA", "750"), lot(2L, "BTC", "250")), TODAY);
+
+        // Then: no zero-return weekends dilute the equity's volatility
+        assertThat(mixed.getObservations()).isEqualTo(equityOnly.getObservations()).isEqualTo(equity.size() - 1);
+        assertThat(mixed.getAnnualVolatility()).isCloseTo(equityOnly.getAnnualVolatility() * 0.75, within(1e-12));
+    }
+
+    @Test
+    void calculate_SeedsFromLastCloseWhenProductMissesTheStartDay() {
+        // Given: B starts on a day A did not trade
+        LocalDate bStart = TODAY.minusDays(18);
+        List<PriceClose> history = new ArrayList<>(closes(1L, 40, 0).stream()
+                .filter(close -> !close.getDate().equals(bStart))
+                .toList());
+        history.addAll(closes(2L, 18, 0));
+        when(priceHistoryRepository.findCloses(anyCollection(), eq(ProductPriceHistoryRepository.Resolution.DAILY),
+                any(), any())).thenReturn(history);
+
+        // When
+        PortfolioRiskService.PortfolioRisk risk = service.calculate(
+                List.of(lot(1L, "AAA", "500"), lot(2L, "BBB", "500")), TODAY);
+
+        // Then
+        assertThat(risk.getSymbols()).containsExactly("AAA", "BBB");
+        assertThat(risk.getAnnualVolatility()).isFinite().isPositive();
+        assertThat(risk.getHistoricalVar95()).isFinite();
+        assertThat(risk.getCorrelations()[0][1]).isFinite();
+    }
+
+    @Test
+    void getRisk_IsCachedUntilPriceDataChanges() {
+        // Given
+        User user = User.builder().id(1L).build();
+        List<InvestmentValuation> lots = List.of(lot(1L, "AAA", "1000"));
+        when(investmentRepository.findValuationsByUser(user)).thenReturn(lots);
+        when(fxRateService.atCurrentRates(lots)).thenReturn(lots);
+        when(priceHistoryRepository.findCloses(anyCollection(), any(), any(), any())).thenReturn(closes(1L, 30, 0));
+
+        // When
+        PortfolioRiskService.PortfolioRisk first = service.getRisk(user);
+        PortfolioRiskService.PortfolioRisk second = service.getRisk(user);
+        priceDataVersion.bump();
+        service.getRisk(user);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        verify(priceHistoryRepository, times(2)).findCloses(anyCollection(), any(), any(), any());
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.myfinances.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PriceHistoryCsvReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<String> readAll(PriceHistoryCsvReader reader, Path file, long[] skipped) throws IOException {
+        List<String> rows = new ArrayList<>();
+        skipped[0] = reader.read(file, row -> {
+            byte[] symbol = new byte[row.symbolEnd() - row.symbolStart()];
+            byte[] price = new byte[row.priceEnd() - row.priceStart()];
+            row.buffer().get(row.symbolStart(), symbol);
+            row.buffer().get(row.priceStart(), price);
+            rows.add(new String(symbol, StandardCharsets.US_ASCII) + "|"
+                    + String.format("%04d-%02d-%02d", row.year(), row.month(), row.day()) + "|"
+                    + new String(price, StandardCharsets.US_ASCII));
+        });
+        return rows;
+    }
+
+    @Test
+    void read_WithHeaderQuotesAndCrlf_ParsesRowsAndSkipsMalformedLines() throws IOException {
+        // Given
+        Path file = tempDir.resolve("prices.csv");
+        Files.writeString(file, "symbol,date,close\r\n"
+                + "AAPL,2024-01-02,185.64\r\n"
+                + "\"VWCE.DE\",\"2024-01-02\",\"105.2\",extra\r\n"
+                + "MSFT,2024-02-30,370.1\r\n"       // invalid date
+                + "MSFT,2024-01-02,abc\r\n"         // invalid price
+                + "\r\n"
+                + "MSFT,2024-01-03,370.6");         // no trailing newline
+
+        // When
+        long[] skipped = new long[1];
+        List<String> rows = readAll(new PriceHistoryCsvReader(), file, skipped);
+
+        // Then
+        assertThat(rows).containsExactly(
+                "AAPL|2024-01-02|185.64",
+                "VWCE.DE|2024-01-02|105.2",
+                "MSFT|2024-01-03|370.6");
+        assertThat(skipped[0]).isEqualTo(3);
+    }
+
+    @Test
+    void read_WithLinesCrossingMappingWindows_ReadsEveryRowOnce() throws IOException {
+        // Given
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            csv.append("SYM").append(i % 7).append(",2023-0").append(1 + i % 9).append("-15,").append(i).append(".5\n");
+        }
+        Path file = tempDir.resolve("large.csv");
+        Files.writeString(file, csv);
+
+        // When
+        long[] skipped = new long[1];
+        List<String> rows = readAll(new PriceHistoryCsvReader(64), file, skipped);
+
+        // Then
+        assertThat(rows).hasSize(500);
+        assertThat(rows.get(0)).isEqualTo("SYM0|2023-01-15|0.5");
+        assertThat(rows.get(499)).isEqualTo("SYM2|2023-05-15|499.5");
+        assertThat(skipped[0]).isZero();
+    }
+}
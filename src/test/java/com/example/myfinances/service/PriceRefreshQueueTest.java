@@ -0,0 +1,130 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.InvestmentProduct;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceRefreshQueueTest {
+
+    @Mock
+    private InvestmentProductService investmentProductService;
+
+    @Mock
+    private ProductCatalogueStats catalogueStats;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private PriceRefreshQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getPriceRefresh().setBatchSize(2);
+        queue = new PriceRefreshQueue(investmentProductService, catalogueStats, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private static InvestmentProduct product(long id, String symbol, LocalDateTime lastUpdated) {
+        return InvestmentProduct.builder().id(id).symbol(symbol).lastUpdated(lastUpdated).build();
+    }
+
+    @Test
+    void submit_SameProductFromManyCallers_IsFetchedOnce() throws Exception {
+        // Given: submissions queued before the worker starts
+        InvestmentProduct aapl = product(1L, "AAPL", LocalDateTime.now().minusHours(1));
+        List<CompletableFuture<Void>> callers = List.of(
+                queue.submit(List.of(aapl)),
+                queue.submit(List.of(product(1L, "AAPL", null))),
+                queue.submit(List.of(aapl)));
+        assertThat(queue.size()).isEqualTo(1);
+
+        // When
+        queue.start(executor, 1);
+        CompletableFuture.allOf(callers.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(investmentProductService, times(1)).refreshPrices(List.of(aapl));
+        assertThat(queue.size()).isZero();
+    }
+
+    @Test
+    void work_TakesMostHeldAndStalestFirst_InApiSizedBatches() throws Exception {
+        // Given: a product refreshed a minute ago waits behind staler ones, however widely held
+        LocalDateTime now = LocalDateTime.now();
+        InvestmentProduct popular = product(1L, "AAPL", now.minusMinutes(30));
+        InvestmentProduct stale = product(2L, "VWCE", now.minusDays(2));
+        InvestmentProduct fresh = product(3L, "MSFT", now.minusMinutes(1));
+        when(catalogueStats.investmentCount(1L)).thenReturn(1000L);
+        when(catalogueStats.investmentCount(2L)).thenReturn(1L);
+        when(catalogueStats.investmentCount(3L)).thenReturn(1000L);
+        CompletableFuture<Void> done = queue.submit(List.of(fresh, stale, popular));
+
+        // When
+        queue.start(executor, 1);
+        done.get(5, TimeUnit.SECONDS);
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InvestmentProduct>> batches = ArgumentCaptor.forClass(List.class);
+        verify(investmentProductService, times(2)).refreshPrices(batches.capture());
+        assertThat(batches.getAllValues()).containsExactly(List.of(popular, stale), List.of(fresh));
+    }
+
+    @Test
+    void submit_WhenFetchFails_CompletesExceptionallyAndCanBeRetried() throws Exception {
+        // Given
+        InvestmentProduct aapl = product(1L, "AAPL", null);
+        when(investmentProductService.refreshPrices(anyList()))
+                .thenThrow(new IllegalStateException("quota exceeded"))
+                .thenReturn(null);
+        queue.start(executor, 1);
+
+        // When
+        CompletableFuture<Void> first = queue.submit(List.of(aapl));
+
+        // Then
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("quota exceeded");
+        queue.submit(List.of(aapl)).get(5, TimeUnit.SECONDS);
+        verify(investmentProductService, times(2)).refreshPrices(List.of(aapl));
+    }
+
+    @Test
+    void submit_WhenFetchThrowsError_CompletesExceptionallyAndKeepsAWorker() throws Exception {
+        // Given
+        InvestmentProduct aapl = product(1L, "AAPL", null);
+        when(investmentProductService.refreshPrices(anyList()))
+                .thenThrow(new NoClassDefFoundError("com/example/Missing"))
+                .thenReturn(null);
+        queue.start(executor, 1);
+
+        // When
+        CompletableFuture<Void> first = queue.submit(List.of(aapl));
+
+        // Then: the caller is released, and the product is fetched again by a replacement worker
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasRootCauseInstanceOf(NoClassDefFoundError.class);
+        queue.submit(List.of(aapl)).get(5, TimeUnit.SECONDS);
+        verify(investmentProductService, times(2)).refreshPrices(List.of(aapl));
+        assertThat(queue.size()).isZero();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.repository.InvestmentProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PriceRefreshSchedulerTest {
+
+    // Tuesday 20 October 2026, 11:00 in New York
+    private static final Instant US_OPEN = Instant.parse("2026-10-20T15:00:00Z");
+    // Friday 23 October 2026, 16:00 in New York
+    private static final Instant US_CLOSE = Instant.parse("2026-10-23T20:00:00Z");
+
+    @Mock
+    private InvestmentProductRepository productRepository;
+
+    @Mock
+    private PriceRefreshQueue refreshQueue;
+
+    private MarketCalendar marketCalendar;
+    private PriceRefreshScheduler scheduler;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/market-calendar.json")) {
+            marketCalendar = new MarketCalendar(in, new ObjectMapper());
+        }
+        scheduler = new PriceRefreshScheduler(marketCalendar, productRepository, refreshQueue,
+                new ApplicationProperties());
+    }
+
+    private static LocalDateTime at(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    @Test
+    void isDue_WhileMarketOpen_RefreshesAtOpenInterval() {
+        assertThat(scheduler.isDue("NasdaqGS", at(US_OPEN.minus(Duration.ofMinutes(6))), US_OPEN)).isTrue();
+        assertThat(scheduler.isDue("NasdaqGS", at(US_OPEN.minus(Duration.ofMinutes(2))), US_OPEN)).isFalse();
+    }
+
+    @Test
+    void isDue_WhileMarketClosed_RefreshesOnceAfterTheClose() {
+        Instant justAfterClose = US_CLOSE.plus(Duration.ofMinutes(10));
+        Instant saturday = Instant.parse("2026-10-24T12:00:00Z");
+        Instant intraday = US_CLOSE.minus(Duration.ofMinutes(5));
+
+        // Closing price not settled yet
+        assertThat(scheduler.isDue("NYSE", at(intraday), justAfterClose)).isFalse();
+        // First look after the close
+        assertThat(scheduler.isDue("NYSE", at(intraday), saturday)).isTrue();
+        // Already refreshed after the close: nothing to do until Monday
+        assertThat(scheduler.isDue("NYSE", at(US_CLOSE.plus(Duration.ofMinutes(30))), saturday)).isFalse();
+    }
+
+    @Test
+    void calendar_HonoursHolidaysAndEarlyCloses() {
+        MarketCalendar.Market us = marketCalendar.marketFor("nasdaqgs").orElseThrow();
+
+        // Thanksgiving 2026, the previous session closed on Wednesday at 16:00 EST
+        Instant thanksgiving = Instant.parse("2026-11-26T16:00:00Z");
+        assertThat(us.isOpen(thanksgiving)).isFalse();
+        assertThat(us.lastClose(thanksgiving)).isEqualTo(Instant.parse("2026-11-25T21:00:00Z"));
+
+        // Day after Thanksgiving closes at 13:00 EST
+        assertThat(us.isOpen(Instant.parse("2026-11-27T17:30:00Z"))).isTrue();
+        assertThat(us.isOpen(Instant.parse("2026-11-27T18:30:00Z"))).isFalse();
+
+        assertThat(marketCalendar.marketFor("XETRA").orElseThrow().isOpen(US_OPEN)).isTrue();
+        assertThat(marketCalendar.marketFor("Unknown Exchange")).isEmpty();
+    }
+
+    @Test
+    void isDue_WithUnknownExchangeOrCrypto_UsesFixedIntervals() {
+        Instant saturday = Instant.parse("2026-10-24T12:00:00Z");
+
+        assertThat(scheduler.isDue("Other", at(saturday.minus(Duration.ofHours(5))), saturday)).isTrue();
+        assertThat(scheduler.isDue("Other", at(saturday.minus(Duration.ofHours(3))), saturday)).isFalse();
+        assertThat(scheduler.isDue("CCC", at(saturday.minus(Duration.ofMinutes(6))), saturday)).isTrue();
+        assertThat(scheduler.isDue("CCC", null, saturday)).isTrue();
+    }
+
+    @Test
+    void refreshDueProducts_FetchesOnlyDueProducts() {
+        // Given
+        when(productRepository.findTrackedProductRefreshRows()).thenReturn(List.of(
+                new Object[]{1L, "NasdaqGS", at(US_OPEN.minus(Duration.ofHours(1))), null, 0},
+                new Object[]{2L, "NasdaqGS", at(US_OPEN.minus(Duration.ofMinutes(1))), null, 0},
+                new Object[]{3L, "Paris", at(US_OPEN.minus(Duration.ofHours(1))), null, 0}));
+        List<InvestmentProduct> due = List.of(
+                InvestmentProduct.builder().id(1L).symbol("AAPL").build(),
+                InvestmentProduct.builder().id(3L).symbol("MC.PA").build());
+        when(productRepository.findAllById(List.of(1L, 3L))).thenReturn(due);
+
+        // When
+        int refreshed = scheduler.refreshDueProducts(US_OPEN);
+
+        // Then
+        assertThat(refreshed).isEqualTo(2);
+        verify(refreshQueue).submit(due);
+    }
+
+    @Test
+    void isBackingOff_DoublesWaitPerFailureUpToTheMaximum() {
+        LocalDateTime attempt = at(US_OPEN);
+
+        assertThat(scheduler.isBackingOff(attempt, 0, US_OPEN)).isFalse();
+        assertThat(scheduler.isBackingOff(attempt, 1, US_OPEN.plus(Duration.ofMinutes(14)))).isTrue();
+        assertThat(scheduler.isBackingOff(attempt, 1, US_OPEN.plus(Duration.ofMinutes(16)))).isFalse();
+        assertThat(scheduler.isBackingOff(attempt, 3, US_OPEN.plus(Duration.ofMinutes(59)))).isTrue();
+        assertThat(scheduler.isBackingOff(attempt, 3, US_OPEN.plus(Duration.ofMinutes(61)))).isFalse();
+        assertThat(scheduler.isBackingOff(attempt, 40, US_OPEN.plus(Duration.ofHours(25)))).isFalse();
+    }
+
+    @Test
+    void refreshDueProducts_SkipsProductsWithoutQuotesSoTheyDoNotFillTheRun() {
+        // Given: the oldest product never gets a quote, and the run takes one product
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getPriceRefresh().setMaxProductsPerRun(1);
+        scheduler = new PriceRefreshScheduler(marketCalendar, productRepository, refreshQueue, properties);
+        when(productRepository.findTrackedProductRefreshRows()).thenReturn(List.of(
+                new Object[]{1L, "NasdaqGS", at(US_OPEN.minus(Duration.ofDays(30))),
+                        at(US_OPEN.minus(Duration.ofMinutes(5))), 2},
+                new Object[]{2L, "NasdaqGS", at(US_OPEN.minus(Duration.ofHours(1))), null, 0}));
+        List<InvestmentProduct> due = List.of(InvestmentProduct.builder().id(2L).symbol("MSFT").build());
+        when(productRepository.findAllById(List.of(2L))).thenReturn(due);
+
+        // When
+        int refreshed = scheduler.refreshDueProducts(US_OPEN);
+
+        // Then
+        assertThat(refreshed).isEqualTo(1);
+        verify(refreshQueue).submit(due);
+    }
+}
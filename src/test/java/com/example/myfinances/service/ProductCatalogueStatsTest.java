@@ -0,0 +1,161 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.model.InvestmentProduct.InvestmentType;
+import com.example.myfinances.repository.InvestmentProductRepository;
+import com.example.myfinances.repository.InvestmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogueStatsTest {
+
+    @Mock
+    private InvestmentProductRepository productRepository;
+
+    @Mock
+    private InvestmentRepository investmentRepository;
+
+    @InjectMocks
+    private ProductCatalogueStats catalogueStats;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findFacetRows()).thenReturn(List.of(
+                new Object[]{1L, InvestmentType.STOCK, "USD", "NasdaqGS", "Technology", "US"},
+                new Object[]{2L, InvestmentType.STOCK, "USD", "NYSE", null, "US"},
+                new Object[]{3L, InvestmentType.ETF, "EUR", "XETRA", null, "DE"}));
+        when(investmentRepository.countInvestmentsByProduct()).thenReturn(List.of(
+                new Object[]{1L, 2L},
+                new Object[]{3L, 5L}));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reads_BuildStatisticsOnceFromAggregateQueries() {
+        // When
+        long total = catalogueStats.totalProducts();
+        List<String> currencies = catalogueStats.currencies();
+        List<String> sectors = catalogueStats.sectors();
+
+        // Then
+        assertThat(total).isEqualTo(3);
+        assertThat(currencies).containsExactly("EUR", "USD");
+        assertThat(sectors).containsExactly("Technology");
+        assertThat(catalogueStats.types()).containsExactly(InvestmentType.STOCK, InvestmentType.ETF);
+        assertThat(catalogueStats.countByType(InvestmentType.STOCK)).isEqualTo(2);
+        assertThat(catalogueStats.mostPopular(10)).containsExactly(3L, 1L);
+        verify(productRepository, times(1)).findFacetRows();
+    }
+
+    @Test
+    void productSaved_WithChangedFacets_MovesCounts() {
+        // Given
+        catalogueStats.totalProducts();
+        InvestmentProduct moved = InvestmentProduct.builder()
+                .id(3L)
+                .symbol("VWCE.DE")
+                .name("Vanguard FTSE All-World")
+                .type(InvestmentType.ETF)
+                .currency("GBP")
+                .exchange("LSE")
+                .build();
+
+        // When
+        catalogueStats.productSaved(moved);
+
+        // Then
+        assertThat(catalogueStats.currencies()).containsExactly("GBP", "USD");
+        assertThat(catalogueStats.exchanges()).containsExactly("LSE", "NYSE", "NasdaqGS");
+        assertThat(catalogueStats.regions()).containsExactly("US");
+        assertThat(catalogueStats.totalProducts()).isEqualTo(3);
+    }
+
+    @Test
+    void investmentChanges_ReorderLeaderboard() {
+        // Given
+        catalogueStats.totalProducts();
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            catalogueStats.investmentAdded(2L);
+        }
+        catalogueStats.investmentRemoved(3L);
+        catalogueStats.productRemoved(1L);
+
+        // Then
+        assertThat(catalogueStats.mostPopular(10)).containsExactly(2L, 3L);
+        assertThat(catalogueStats.mostPopular(1)).containsExactly(2L);
+        assertThat(catalogueStats.totalProducts()).isEqualTo(2);
+    }
+
+    @Test
+    void buildDuringPendingWrite_IsNotKeptSoTheWriteCountsOnce() {
+        // Given: an investment in product 1 is written, and a read builds before it commits
+        TransactionSynchronizationManager.initSynchronization();
+        catalogueStats.investmentAdded(1L);
+        when(investmentRepository.countInvestmentsByProduct()).thenReturn(List.<Object[]>of(
+                new Object[]{1L, 3L},
+                new Object[]{3L, 5L}));
+        long duringWrite = catalogueStats.investmentCount(1L);
+
+        // When
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization ->
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // Then
+        assertThat(duringWrite).isEqualTo(3);
+        assertThat(catalogueStats.investmentCount(1L)).isEqualTo(3);
+        assertThat(catalogueStats.investmentCount(1L)).isEqualTo(3);
+        verify(investmentRepository, times(2)).countInvestmentsByProduct();
+    }
+
+    @Test
+    void leaderboard_KeepsOnlyTheTopAndRefillsWhenOneDrops() {
+        // Given: one more invested product than the leaderboard holds
+        List<Object[]> counts = new ArrayList<>();
+        for (long id = 1; id <= ProductCatalogueStats.LEADERBOARD_SIZE + 1; id++) {
+            counts.add(new Object[]{id, 1000 - id});
+        }
+        when(investmentRepository.countInvestmentsByProduct()).thenReturn(counts);
+        long last = ProductCatalogueStats.LEADERBOARD_SIZE + 1;
+        assertThat(catalogueStats.mostPopular(Integer.MAX_VALUE))
+                .hasSize(ProductCatalogueStats.LEADERBOARD_SIZE)
+                .doesNotContain(last);
+
+        // When: the top product loses all but one investment
+        for (int i = 0; i < 998; i++) {
+            catalogueStats.investmentRemoved(1L);
+        }
+
+        // Then
+        assertThat(catalogueStats.mostPopular(Integer.MAX_VALUE))
+                .hasSize(ProductCatalogueStats.LEADERBOARD_SIZE)
+                .startsWith(2L)
+                .contains(last)
+                .doesNotContain(1L);
+        assertThat(catalogueStats.investmentCount(1L)).isEqualTo(1);
+    }
+}
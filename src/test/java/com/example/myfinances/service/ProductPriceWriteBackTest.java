@@ -0,0 +1,112 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.repository.InvestmentProductJdbcRepository;
+import com.example.myfinances.repository.InvestmentProductJdbcRepository.PriceRow;
+import com.example.myfinances.repository.ProductPriceHistoryRepository.PricePoint;
+import com.example.myfinances.service.LiveUpdateService.PriceTick;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductPriceWriteBackTest {
+
+    @Mock
+    private InvestmentProductJdbcRepository productJdbcRepository;
+
+    @Mock
+    private ProductPriceHistoryService priceHistoryService;
+
+    @Mock
+    private PriceDataVersion priceDataVersion;
+
+    @Mock
+    private LiveUpdateService liveUpdates;
+
+    @InjectMocks
+    private ProductPriceWriteBack priceWriteBack;
+
+    private static InvestmentProduct product(long id, String symbol, String price) {
+        return InvestmentProduct.builder()
+                .id(id)
+                .symbol(symbol)
+                .name(symbol)
+                .type(InvestmentProduct.InvestmentType.STOCK)
+                .currency("USD")
+                .currentPrice(new BigDecimal(price))
+                .marketCap(1_000L)
+                .build();
+    }
+
+    private static QuoteUpdate quote(String symbol, String price) {
+        return new QuoteUpdate(symbol, symbol, "EQUITY", "USD", "NasdaqGS", new BigDecimal(price),
+                1_000L, null, null, null, null, null, null);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void apply_SplitsChangedAndUnchangedProducts() {
+        // Given
+        InvestmentProduct moved = product(1L, "AAPL", "150.0000");
+        InvestmentProduct flat = product(2L, "MSFT", "400.1200");
+        InvestmentProduct unquoted = product(3L, "TSLA", "200.0000");
+        Map<String, QuoteUpdate> quotes = Map.of(
+                "AAPL", quote("AAPL", "151.25"),
+                "MSFT", quote("MSFT", "400.12")); // same value, different scale
+
+        // When
+        ProductPriceWriteBack.Result result = priceWriteBack.apply(List.of(moved, flat, unquoted), quotes);
+
+        // Then
+        assertThat(result.getChanged()).isEqualTo(1);
+        assertThat(result.getUnchanged()).isEqualTo(1);
+        assertThat(result.getMissing()).isEqualTo(1);
+
+        ArgumentCaptor<List<PriceRow>> changed = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Collection<Long>> touched = ArgumentCaptor.forClass(Collection.class);
+        verify(productJdbcRepository).updatePriceData(changed.capture(), any());
+        verify(productJdbcRepository).touchLastUpdated(touched.capture(), any());
+
+        assertThat(changed.getValue()).extracting(PriceRow::getId).containsExactly(1L);
+        assertThat(changed.getValue().get(0).getCurrentPrice()).isEqualByComparingTo("151.25");
+        assertThat(touched.getValue()).containsExactly(2L);
+        ArgumentCaptor<Collection<Long>> unquotedIds = ArgumentCaptor.forClass(Collection.class);
+        verify(productJdbcRepository).recordMissingQuotes(unquotedIds.capture(), any());
+        assertThat(unquotedIds.getValue()).containsExactly(3L);
+
+        ArgumentCaptor<List<PricePoint>> history = ArgumentCaptor.forClass(List.class);
+        verify(priceHistoryService).recordPrices(history.capture());
+        assertThat(history.getValue()).extracting(PricePoint::getProductId).containsExactly(1L, 2L);
+
+        ArgumentCaptor<List<PriceTick>> ticks = ArgumentCaptor.forClass(List.class);
+        verify(liveUpdates).pricesChanged(ticks.capture());
+        assertThat(ticks.getValue()).extracting(PriceTick::getProductId).containsExactly(1L);
+        assertThat(ticks.getValue().get(0).getFormattedPrice()).isEqualTo(String.format("%.2f USD", 151.25));
+    }
+
+    @Test
+    void apply_DoesNotModifyGivenEntities() {
+        // Given
+        InvestmentProduct product = product(1L, "AAPL", "150.0000");
+
+        // When
+        priceWriteBack.apply(List.of(product), Map.of("AAPL", quote("AAPL", "155")));
+
+        // Then
+        assertThat(product.getCurrentPrice()).isEqualByComparingTo("150");
+        assertThat(product.getLastUpdated()).isNull();
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.model.InvestmentProduct;
+import com.example.myfinances.repository.InvestmentProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @Mock
+    private InvestmentProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(productRepository.findSearchDocuments()).thenReturn(List.of(
+                new Object[]{1L, "AAPL", "Apple Inc."},
+                new Object[]{2L, "AMZN", "Amazon.com, Inc."},
+                new Object[]{3L, "AA", "Alcoa Corporation"},
+                new Object[]{4L, "VWCE.DE", "Vanguard FTSE All-World UCITS ETF"},
+                new Object[]{5L, "NESN.SW", "Nestlé S.A."},
+                new Object[]{6L, "PAPL", "Pineapple Energy"}));
+        searchIndex.rebuild();
+    }
+
+    @Test
+    void search_WithSymbolPrefix_RanksExactThenShortestSymbol() {
+        // When
+        List<Long> ids = searchIndex.search("aa", 10);
+
+        // Then
+        assertThat(ids).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void search_WithNameSubstring_UsesTrigramsAndRanksWordMatchesFirst() {
+        // When
+        List<Long> ids = searchIndex.search("apple", 10);
+
+        // Then
+        assertThat(ids).containsExactly(1L, 6L);
+        assertThat(searchIndex.search("world", 10)).containsExactly(4L);
+        assertThat(searchIndex.search("xyz", 10)).isEmpty();
+    }
+
+    @Test
+    void search_IgnoresCaseAndAccents() {
+        assertThat(searchIndex.search("NESTLE", 10)).containsExactly(5L);
+        assertThat(searchIndex.search("nestlé", 10)).containsExactly(5L);
+    }
+
+    @Test
+    void search_ReturnsOnlyTopK() {
+        // When
+        List<Long> ids = searchIndex.search("a", 2);
+
+        // Then
+        assertThat(ids).containsExactly(3L, 1L);
+    }
+
+    @Test
+    void index_WithRenamedProduct_ReplacesOldEntries() {
+        // Given
+        InvestmentProduct renamed = InvestmentProduct.builder()
+                .id(6L)
+                .symbol("SUNW")
+                .name("Sunworks")
+                .type(InvestmentProduct.InvestmentType.STOCK)
+                .build();
+
+        // When
+        searchIndex.index(renamed);
+        searchIndex.remove(2L);
+
+        // Then
+        assertThat(searchIndex.search("apple", 10)).containsExactly(1L);
+        assertThat(searchIndex.search("sunw", 10)).containsExactly(6L);
+        assertThat(searchIndex.search("amzn", 10)).isEmpty();
+        assertThat(searchIndex.size()).isEqualTo(5);
+    }
+}
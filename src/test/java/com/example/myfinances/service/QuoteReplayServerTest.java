@@ -0,0 +1,103 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.config.ApplicationProperties.YahooFinance.QuoteMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class QuoteReplayServerTest {
+
+    private static final String RESPONSE = """
+            {"quoteResponse":{"result":[
+              {"symbol":"AAPL","longName":"Apple Inc.","quoteType":"EQUITY","currency":"USD",
+               "fullExchangeName":"NasdaqGS","regularMarketPrice":227.52,"unknownField":{"nested":[1,2]}},
+              {"symbol":"^GSPC","shortName":"S&P 500","quoteType":"INDEX","currency":"USD",
+               "fullExchangeName":"SNP","regularMarketPrice":5608.25}
+            ],"error":null}}
+            """;
+
+    @TempDir
+    Path recordingsDir;
+
+    private QuoteRecordings recordings;
+    private ApplicationProperties.YahooFinance settings;
+    private QuoteReplayServer server;
+
+    @BeforeEach
+    void setUp() {
+        recordings = new QuoteRecordings(recordingsDir, new ObjectMapper());
+        settings = new ApplicationProperties.YahooFinance();
+        settings.setMode(QuoteMode.REPLAY);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private YahooQuoteSource replaying() throws IOException {
+        server = new QuoteReplayServer(recordings, settings.getReplay());
+        server.start();
+        return new YahooQuoteSource(settings, recordings, server);
+    }
+
+    @Test
+    void fetchQuotes_ReplaysRecordedQuotes() throws IOException {
+        // Given
+        assertThat(recordings.record(RESPONSE.getBytes(StandardCharsets.UTF_8))).isEqualTo(2);
+        YahooQuoteSource source = replaying();
+
+        // When
+        Map<String, QuoteUpdate> quotes = source.fetchQuotes(List.of("AAPL", "^GSPC", "MSFT"), "US");
+
+        // Then
+        assertThat(quotes).containsOnlyKeys("AAPL", "^GSPC");
+        assertThat(quotes.get("AAPL").getPrice()).isEqualByComparingTo(new BigDecimal("227.52"));
+        assertThat(quotes.get("AAPL").getName()).isEqualTo("Apple Inc.");
+        assertThat(quotes.get("^GSPC").getExchange()).isEqualTo("SNP");
+    }
+
+    @Test
+    void fetchQuotes_SynthesizesMissingSymbolsWhenEnabled() throws IOException {
+        // Given
+        settings.getReplay().setSynthesizeMissing(true);
+        YahooQuoteSource source = replaying();
+
+        // When
+        Map<String, QuoteUpdate> first = source.fetchQuotes(List.of("SYM1", "SYM2"), "US");
+        Map<String, QuoteUpdate> second = source.fetchQuotes(List.of("SYM1"), "US");
+
+        // Then
+        assertThat(first).containsOnlyKeys("SYM1", "SYM2");
+        assertThat(first.get("SYM1").getPrice()).isPositive()
+                .isEqualByComparingTo(second.get("SYM1").getPrice());
+    }
+
+    @Test
+    void fetchQuotes_ErrorProfile_GivesNoQuotes() throws IOException {
+        // Given
+        recordings.record(RESPONSE.getBytes(StandardCharsets.UTF_8));
+        settings.getReplay().setErrorRate(1.0);
+        YahooQuoteSource source = replaying();
+
+        // When
+        Map<String, QuoteUpdate> quotes = source.fetchQuotes(List.of("AAPL"), "US");
+
+        // Then
+        assertThat(quotes).isEmpty();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.RefreshToken;
+import com.example.myfinances.model.User;
+import com.example.myfinances.repository.RefreshTokenRepository;
+import com.example.myfinances.security.JwtTokenService;
+import com.example.myfinances.security.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    /** Stand-in for the refresh_tokens table */
+    private final Set<String> stored = new HashSet<>();
+
+    private RefreshTokenService refreshTokenService;
+    private UserPrincipal user;
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getSecurity().getJwt().setSecret("0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef");
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, new JwtTokenService(properties), properties);
+        user = UserPrincipal.from(User.builder().id(7L).email("test@example.com").name("Test User").password("secret").build());
+
+        lenient().when(refreshTokenRepository.save(any())).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            stored.add(token.getId());
+            return token;
+        });
+    }
+
+    @Test
+    void redeem_ExchangesEachTokenOnce() {
+        // Given
+        when(refreshTokenRepository.deleteByIdAndUserId(anyString(), eq(7L)))
+                .thenAnswer(invocation -> stored.remove(invocation.<String>getArgument(0)) ? 1 : 0);
+        String first = refreshTokenService.issueTokens(user).getRefreshToken();
+
+        // When
+        Long userId = refreshTokenService.redeem(first).orElseThrow();
+        String second = refreshTokenService.issueTokens(user).getRefreshToken();
+
+        // Then: the old token is spent, the rotated one works
+        assertThat(userId).isEqualTo(7L);
+        assertThat(stored).hasSize(1);
+        assertThat(refreshTokenService.redeem(second)).contains(7L);
+    }
+
+    @Test
+    void redeem_ReplayedToken_RevokesAllOfTheUsersTokens() {
+        // Given
+        when(refreshTokenRepository.deleteByIdAndUserId(anyString(), eq(7L)))
+                .thenAnswer(invocation -> stored.remove(invocation.<String>getArgument(0)) ? 1 : 0);
+        String stolen = refreshTokenService.issueTokens(user).getRefreshToken();
+        refreshTokenService.redeem(stolen);
+
+        // When
+        boolean replayed = refreshTokenService.redeem(stolen).isPresent();
+
+        // Then
+        assertThat(replayed).isFalse();
+        verify(refreshTokenRepository).deleteByUserId(7L);
+    }
+
+    @Test
+    void redeem_InvalidToken_TouchesNothing() {
+        // When
+        boolean redeemed = refreshTokenService.redeem("not-a-jwt").isPresent();
+
+        // Then
+        assertThat(redeemed).isFalse();
+        verifyNoInteractions(refreshTokenRepository);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.myfinances.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReturnCalculatorTest {
+
+    @Test
+    void xirr_WithSingleInvestmentDoubledInOneYear_Returns100Percent() {
+        // Given
+        double[] amounts = {-1000, 2000};
+        double[] years = {0, 1};
+
+        // When
+        double rate = ReturnCalculator.xirr(amounts, years, 2);
+
+        // Then
+        assertThat(rate).isCloseTo(1.0, within(1e-9));
+    }
+
+    @Test
+    void xirr_WithIrregularFlows_MatchesSpreadsheetResult() {
+        // Given (the reference example of the spreadsheet XIRR function)
+        double[] amounts = {-10000, 2750, 4250, 3250, 2750};
+        double[] years = {0, 60 / 365.0, 303 / 365.0, 411 / 365.0, 456 / 365.0};
+
+        // When
+        double rate = ReturnCalculator.xirr(amounts, years, amounts.length);
+
+        // Then
+        assertThat(rate).isCloseTo(0.373362535, within(1e-6));
+        assertThat(ReturnCalculator.npv(amounts, years, amounts.length, rate)).isCloseTo(0, within(1e-6));
+    }
+
+    @Test
+    void xirr_WithNearTotalLoss_ReturnsRateCloseToMinusOne() {
+        // Given
+        double[] amounts = {-1000, 1};
+        double[] years = {0, 1};
+
+        // When
+        double rate = ReturnCalculator.xirr(amounts, years, 2);
+
+        // Then
+        assertThat(rate).isCloseTo(-0.999, within(1e-6));
+        // The NPV is very steep this close to -100%, so only check it coarsely
+        assertThat(ReturnCalculator.npv(amounts, years, 2, rate)).isCloseTo(0, within(1e-3));
+    }
+
+    @Test
+    void xirr_WithoutSignChange_ReturnsNaN() {
+        // When
+        double rate = ReturnCalculator.xirr(new double[]{-100, -50}, new double[]{0, 1}, 2);
+
+        // Then
+        assertThat(rate).isNaN();
+    }
+
+    @Test
+    void timeWeightedReturn_IgnoresSizeOfContributions() {
+        // Given: +10% in the first period, then a large contribution and -10% in the second
+        double[] values = {110, 990};
+        double[] contributions = {100, 990};
+
+        // When
+        double twr = ReturnCalculator.timeWeightedReturn(values, contributions, 2);
+
+        // Then
+        assertThat(twr).isCloseTo(1.10 * (990.0 / 1100.0) - 1, within(1e-12));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.myfinances.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RiskCalculatorTest {
+
+    @Test
+    void historicalVar_IsTheLossAtTheConfidenceRank() {
+        // Given: 100 daily returns from -5% to +4.9%
+        double[] returns = new double[100];
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = (i - 50) / 1000.0;
+        }
+
+        // When
+        double var95 = RiskCalculator.historicalVar(returns, returns.length, 0.95);
+        double var99 = RiskCalculator.historicalVar(returns, returns.length, 0.99);
+
+        // Then
+        assertThat(var95).isCloseTo(0.045, within(1e-12));
+        assertThat(var99).isCloseTo(0.049, within(1e-12));
+    }
+
+    @Test
+    void parametricVar_UsesNormalQuantile() {
+        // Given: mean 0, sample standard deviation 1%
+        double[] returns = {0.01, -0.01, 0.01, -0.01};
+        double deviation = RiskCalculator.standardDeviation(returns, returns.length);
+
+        // When
+        double var = RiskCalculator.parametricVar(returns, returns.length, 0.95);
+
+        // Then
+        assertThat(RiskCalculator.normalQuantile(0.05)).isCloseTo(-1.6448536, within(1e-6));
+        assertThat(RiskCalculator.normalQuantile(0.995)).isCloseTo(2.5758293, within(1e-6));
+        assertThat(var).isCloseTo(1.6448536 * deviation, within(1e-8));
+    }
+
+    @Test
+    void maxDrawdown_MeasuresLargestFallFromPeak() {
+        // Given: up 10%, down to 0.88 of the peak, then a new high
+        double[] returns = {0.10, -0.10, 1.1 * 0.88 / (1.1 * 0.9) - 1, 0.5};
+
+        // When
+        double drawdown = RiskCalculator.maxDrawdown(returns, returns.length);
+
+        // Then
+        assertThat(drawdown).isCloseTo(0.12, within(1e-12));
+    }
+
+    @Test
+    void correlationMatrix_IsSymmetricWithUnitDiagonal() {
+        // Given
+        double[][] returns = {
+                {0.01, -0.02, 0.03, 0.00, 0.01},
+                {0.02, -0.04, 0.06, 0.00, 0.02},   // same moves, doubled
+                {-0.01, 0.02, -0.03, 0.00, -0.01}, // mirrored
+                {0.01, 0.01, 0.01, 0.01, 0.01}     // no variance
+        };
+
+        // When
+        double[][] matrix = RiskCalculator.correlationMatrix(returns, 5);
+
+        // Then
+        assertThat(matrix[0][0]).isEqualTo(1);
+        assertThat(matrix[0][1]).isCloseTo(1, within(1e-12));
+        assertThat(matrix[0][2]).isCloseTo(-1, within(1e-12));
+        assertThat(matrix[2][0]).isEqualTo(matrix[0][2]);
+        assertThat(matrix[0][3]).isNaN();
+    }
+}
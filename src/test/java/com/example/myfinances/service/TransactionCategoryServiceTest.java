@@ -0,0 +1,109 @@
+package com.example.myfinances.service;
+
+import com.example.myfinances.config.ApplicationProperties;
+import com.example.myfinances.model.TransactionCategory;
+import com.example.myfinances.model.User;
+import com.example.myfinances.repository.TransactionCategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionCategoryServiceTest {
+
+    @Mock
+    private TransactionCategoryRepository categoryRepository;
+
+    private ApplicationProperties properties;
+    private TransactionCategoryTrees trees;
+    private TransactionCategoryService service;
+
+    private User alice;
+    private User bob;
+    private TransactionCategory expenses;
+    private TransactionCategory food;
+    private TransactionCategory bobsIncome;
+
+    @BeforeEach
+    void setUp() {
+        alice = User.builder().id(1L).build();
+        bob = User.builder().id(2L).build();
+        expenses = category(10L, alice, "Despesas", TransactionCategory.CategoryType.EXPENSE, null);
+        food = category(11L, alice, "Alimentação", TransactionCategory.CategoryType.EXPENSE, expenses);
+        bobsIncome = category(20L, bob, "Receitas", TransactionCategory.CategoryType.INCOME, null);
+        lenient().when(categoryRepository.findAllWithParentByUserId(1L)).thenReturn(List.of(expenses, food));
+        lenient().when(categoryRepository.findAllWithParentByUserId(2L)).thenReturn(List.of(bobsIncome));
+
+        properties = new ApplicationProperties();
+        trees = new TransactionCategoryTrees(categoryRepository, properties);
+        service = new TransactionCategoryService(categoryRepository, trees, new UserDataVersion());
+    }
+
+    @Test
+    void formReads_AfterFirstLoad_MakeNoQueries() {
+        // When: a form render, a failed POST and the ownership checks
+        for (int i = 0; i < 3; i++) {
+            assertThat(service.findCategoriesByUser(alice)).containsExactly(expenses, food);
+        }
+        assertThat(service.findCategoryByIdAndUser(11L, alice)).contains(food);
+        assertThat(service.findCategoryByIdAndUser(20L, alice)).isEmpty();
+        assertThat(service.findCategoryByIdAndUser(null, alice)).isEmpty();
+        assertThat(service.findParentCategories(alice)).containsExactly(expenses);
+        assertThat(service.findSubcategories(alice, expenses)).containsExactly(food);
+
+        // Then
+        verify(categoryRepository, times(1)).findAllWithParentByUserId(1L);
+        verifyNoMoreInteractions(categoryRepository);
+        assertThat(trees.missCount()).isEqualTo(1);
+        assertThat(trees.hitCount()).isEqualTo(7);
+    }
+
+    @Test
+    void createCategory_InvalidatesOnlyThatUsersTree() {
+        // Given
+        service.findCategoriesByUser(alice);
+        service.findCategoriesByUser(bob);
+        TransactionCategory transport = category(12L, alice, "Transportes", TransactionCategory.CategoryType.EXPENSE, expenses);
+        when(categoryRepository.save(any(TransactionCategory.class))).thenReturn(transport);
+
+        // When
+        service.createCategory(alice, "Transportes", TransactionCategory.CategoryType.EXPENSE, null, null, expenses);
+        when(categoryRepository.findAllWithParentByUserId(1L)).thenReturn(List.of(expenses, food, transport));
+
+        // Then
+        assertThat(service.findSubcategories(alice, expenses)).containsExactly(food, transport);
+        assertThat(service.findCategoriesByUser(bob)).containsExactly(bobsIncome);
+        verify(categoryRepository, times(2)).findAllWithParentByUserId(1L);
+        verify(categoryRepository, times(1)).findAllWithParentByUserId(2L);
+    }
+
+    @Test
+    void trees_BeyondMaxUsers_EvictLeastRecentlyRead() {
+        // Given
+        properties.getCategoryCache().setMaxUsers(1);
+        trees = new TransactionCategoryTrees(categoryRepository, properties);
+        service = new TransactionCategoryService(categoryRepository, trees, new UserDataVersion());
+
+        // When
+        service.findCategoriesByUser(alice);
+        service.findCategoriesByUser(bob);
+        service.findCategoriesByUser(alice);
+
+        // Then
+        assertThat(trees.size()).isEqualTo(1);
+        verify(categoryRepository, times(2)).findAllWithParentByUserId(1L);
+    }
+
+    private static TransactionCategory category(Long id, User user, String name,
+                                                TransactionCategory.CategoryType type, TransactionCategory parent) {
+        return TransactionCategory.builder().id(id).user(user).name(name).type(type).parent(parent).build();
+    }
+}
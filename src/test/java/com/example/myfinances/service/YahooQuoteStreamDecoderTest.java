@@ -0,0 +1,92 @@
+package com.example.myfinances.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class YahooQuoteStreamDecoderTest {
+
+    private final YahooQuoteStreamDecoder decoder = new YahooQuoteStreamDecoder(new ObjectMapper().getFactory());
+
+    private Map<String, QuoteUpdate> decode(String json) throws IOException {
+        return decoder.decode(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), 2);
+    }
+
+    @Test
+    void decode_WithQuoteResults_ReturnsQuotesKeyedBySymbol() throws IOException {
+        // Given
+        String json = "{\"quoteResponse\":{\"result\":["
+                + "{\"symbol\":\"AAPL\",\"longName\":\"Apple Inc.\",\"shortName\":\"Apple\",\"quoteType\":\"EQUITY\","
+                + "\"currency\":\"USD\",\"fullExchangeName\":\"NasdaqGS\",\"regularMarketPrice\":189.25,"
+                + "\"marketCap\":2950000000000,\"trailingPE\":29.4,\"dividendYield\":0.0051,\"beta\":1.29,"
+                + "\"fiftyTwoWeekLow\":164.08,\"fiftyTwoWeekHigh\":199.62,\"averageDailyVolume3Month\":55000000,"
+                + "\"corporateActions\":[{\"header\":\"Dividend\"}],\"tradeable\":false},"
+                + "{\"symbol\":\"VWCE.DE\",\"shortName\":\"Vanguard FTSE All-World\",\"quoteType\":\"ETF\","
+                + "\"currency\":\"EUR\",\"regularMarketPrice\":112}"
+                + "],\"error\":null}}";
+
+        // When
+        Map<String, QuoteUpdate> result = decode(json);
+
+        // Then
+        assertThat(result).containsOnlyKeys("AAPL", "VWCE.DE");
+
+        QuoteUpdate apple = result.get("AAPL");
+        assertThat(apple.getName()).isEqualTo("Apple Inc.");
+        assertThat(apple.getExchange()).isEqualTo("NasdaqGS");
+        assertThat(apple.getPrice()).isEqualByComparingTo(new BigDecimal("189.25"));
+        assertThat(apple.getMarketCap()).isEqualTo(2_950_000_000_000L);
+        assertThat(apple.getAvgVolume()).isEqualTo(55_000_000L);
+
+        QuoteUpdate etf = result.get("VWCE.DE");
+        assertThat(etf.getName()).isEqualTo("Vanguard FTSE All-World"); // falls back to shortName
+        assertThat(etf.getPrice()).isEqualByComparingTo(new BigDecimal("112"));
+        assertThat(etf.getBeta()).isNull();
+    }
+
+    @Test
+    void decode_WithWrappedNumericValues_ReadsRawValue() throws IOException {
+        // Given
+        String json = "{\"quoteResponse\":{\"result\":[{\"symbol\":\"MSFT\","
+                + "\"regularMarketPrice\":{\"raw\":402.56,\"fmt\":\"402.56\"},"
+                + "\"marketCap\":{\"raw\":2990000000000,\"fmt\":\"2.99T\",\"longFmt\":\"2,990,000,000,000\"}}]}}";
+
+        // When
+        Map<String, QuoteUpdate> result = decode(json);
+
+        // Then
+        assertThat(result.get("MSFT").getPrice()).isEqualByComparingTo(new BigDecimal("402.56"));
+        assertThat(result.get("MSFT").getMarketCap()).isEqualTo(2_990_000_000_000L);
+    }
+
+    @Test
+    void decode_WithEntryWithoutSymbol_SkipsEntry() throws IOException {
+        // Given
+        String json = "{\"quoteResponse\":{\"result\":[{\"regularMarketPrice\":1.0},{\"symbol\":\"BTC-USD\"}]}}";
+
+        // When
+        Map<String, QuoteUpdate> result = decode(json);
+
+        // Then
+        assertThat(result).containsOnlyKeys("BTC-USD");
+    }
+
+    @Test
+    void decode_WithErrorResponse_ReturnsEmpty() throws IOException {
+        // Given
+        String json = "{\"message\":\"You are not subscribed to this API.\",\"quoteResponse\":null}";
+
+        // When
+        Map<String, QuoteUpdate> result = decode(json);
+
+        // Then
+        assertThat(result).isEmpty();
+    }
+}